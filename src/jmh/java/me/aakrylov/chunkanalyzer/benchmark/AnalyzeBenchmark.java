@@ -0,0 +1,59 @@
+package me.aakrylov.chunkanalyzer.benchmark;
+
+import me.aakrylov.chunkanalyzer.component.FindingsCollector;
+import me.aakrylov.chunkanalyzer.model.FileOperationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Analysis of a single local file: the memory-mapped parallel path used by {@code /analyze/local}
+ * and the windowed stream path used for uploads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnalyzeBenchmark extends FileServiceFixture {
+
+    @Param({"1024", "1048576", "67108864", "1073741824"})
+    private long size;
+    @Param({"CLEAN", "DIRTY", "BINARY"})
+    private ContentKind kind;
+
+    private Path source;
+
+    @Override
+    protected void prepare() throws IOException {
+        source = BenchmarkData.file(kind, size);
+    }
+
+    @Benchmark
+    public FileOperationResult analyzeLocal(Megabytes megabytes) {
+        FileOperationResult result = fileService.analyze(source);
+        megabytes.add(size);
+        return result;
+    }
+
+    @Benchmark
+    public long analyzeStream(Megabytes megabytes) throws IOException {
+        FindingsCollector collector = new FindingsCollector(FINDINGS_LIMIT);
+        try (InputStream in = Files.newInputStream(source)) {
+            contentAnalyzer.analyze(in, collector);
+        }
+        megabytes.add(size);
+        return collector.getTotalSymbols();
+    }
+}
@@ -0,0 +1,48 @@
+package me.aakrylov.chunkanalyzer.benchmark;
+
+import me.aakrylov.chunkanalyzer.model.FileOperationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Assembling a split directory. The parts are kept, every invocation rewrites the same target.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AssembleBenchmark extends FileServiceFixture {
+
+    @Param({"1048576", "67108864", "1073741824"})
+    private long size;
+    /**
+     * Chunk size in kilobytes, as passed to {@code /split}.
+     */
+    @Param({"64", "1024", "16384"})
+    private int chunkSize;
+
+    private Path directory;
+
+    @Override
+    protected void prepare() throws IOException {
+        directory = splitOnce(BenchmarkData.file(ContentKind.BINARY, size), "assemble.bin", chunkSize);
+    }
+
+    @Benchmark
+    public FileOperationResult assemble(Megabytes megabytes) {
+        FileOperationResult result = fileService.assemble(directory, false);
+        megabytes.add(size);
+        return result;
+    }
+}
@@ -0,0 +1,46 @@
+package me.aakrylov.chunkanalyzer.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Random;
+
+/**
+ * Generates deterministic test data. Files are kept in the temp directory and reused by later runs,
+ * so a gigabyte input is written only once per content kind.
+ */
+public class BenchmarkData {
+
+    private static final Path DATA_DIR = Paths.get(System.getProperty("java.io.tmpdir"), "chunk-analyzer-benchmark");
+    private static final int BLOCK_SIZE = 1024 * 1024;
+
+    private BenchmarkData() {
+    }
+
+    public static byte[] bytes(ContentKind kind, int size) {
+        byte[] content = new byte[size];
+        kind.fill(content, new Random(kind.ordinal()));
+        return content;
+    }
+
+    public static Path file(ContentKind kind, long size) throws IOException {
+        Path file = DATA_DIR.resolve(String.format("%s-%d.bin", kind.name().toLowerCase(), size));
+        if (Files.isRegularFile(file) && Files.size(file) == size) {
+            return file;
+        }
+        Files.createDirectories(DATA_DIR);
+        Path temp = Files.createTempFile(DATA_DIR, "generating-", ".tmp");
+        Random random = new Random(kind.ordinal());
+        byte[] block = new byte[(int) Math.min(BLOCK_SIZE, size)];
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            for (long written = 0; written < size; written += block.length) {
+                kind.fill(block, random);
+                out.write(block, 0, (int) Math.min(block.length, size - written));
+            }
+        }
+        return Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -0,0 +1,40 @@
+package me.aakrylov.chunkanalyzer.benchmark;
+
+import java.util.Random;
+
+/**
+ * Shape of the generated test data.
+ */
+public enum ContentKind {
+
+    /**
+     * Printable ASCII only, the analyzer never leaves its eight-bytes-at-a-time path.
+     */
+    CLEAN,
+    /**
+     * Printable ASCII with one incorrect byte per kilobyte.
+     */
+    DIRTY,
+    /**
+     * Uniformly random bytes, roughly half of them incorrect.
+     */
+    BINARY;
+
+    private static final String PRINTABLE = "abcdefghijklmnopqrstuvwxyz ABCDEFGHIJKLMNOPQRSTUVWXYZ 0123456789 .,;:!?-\r\n";
+    private static final int DIRTY_DISTANCE = 1024;
+
+    public void fill(byte[] block, Random random) {
+        if (this == BINARY) {
+            random.nextBytes(block);
+            return;
+        }
+        for (int indx = 0; indx < block.length; indx++) {
+            block[indx] = (byte) PRINTABLE.charAt(random.nextInt(PRINTABLE.length()));
+        }
+        if (this == DIRTY) {
+            for (int indx = random.nextInt(DIRTY_DISTANCE); indx < block.length; indx += DIRTY_DISTANCE) {
+                block[indx] = (byte) (0x80 + random.nextInt(0x80));
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package me.aakrylov.chunkanalyzer.benchmark;
+
+import me.aakrylov.chunkanalyzer.component.ContentAnalyzer;
+import me.aakrylov.chunkanalyzer.component.ParallelContentAnalyzer;
+import me.aakrylov.chunkanalyzer.config.ExecutorConfig;
+import me.aakrylov.chunkanalyzer.service.DefaultFileService;
+import me.aakrylov.chunkanalyzer.service.TestFileService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
+
+/**
+ * Wires the service through {@link TestFileService} with the production defaults and without
+ * the analysis cache, so every invocation does the full work.
+ */
+@State(Scope.Benchmark)
+public abstract class FileServiceFixture {
+
+    protected static final int WINDOW_SIZE = 65536;
+    protected static final int FINDINGS_LIMIT = 1000;
+
+    protected Path workDir;
+    protected ContentAnalyzer contentAnalyzer;
+    protected DefaultFileService fileService;
+    private ParallelContentAnalyzer parallelContentAnalyzer;
+    private ExecutorService ioExecutor;
+    private ExecutorService analysisExecutor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        createService();
+        prepare();
+    }
+
+    /**
+     * Prepares the input of the benchmark once the service exists.
+     */
+    protected abstract void prepare() throws IOException;
+
+    private void createService() throws IOException {
+        workDir = Files.createTempDirectory("chunk-analyzer-benchmark-");
+        ExecutorConfig executorConfig = new ExecutorConfig();
+        ioExecutor = executorConfig.ioExecutor(4);
+        analysisExecutor = executorConfig.analysisExecutor(0);
+        TestFileService wiring = TestFileService.withDefaults(workDir, ioExecutor, analysisExecutor,
+                WINDOW_SIZE, FINDINGS_LIMIT);
+        contentAnalyzer = wiring.getContentAnalyzer();
+        parallelContentAnalyzer = wiring.getParallelContentAnalyzer();
+        fileService = wiring.getFileService();
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() throws IOException {
+        parallelContentAnalyzer.shutdown();
+        ioExecutor.shutdownNow();
+        analysisExecutor.shutdownNow();
+        try (Stream<Path> files = Files.walk(workDir)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * Splits the source the way the service names its split directories and returns that directory.
+     */
+    protected Path splitOnce(Path source, String fileName, int chunkSize) {
+        fileService.split(source, fileName, chunkSize);
+        return workDir.resolve(fileName.replace(".", "_"));
+    }
+}
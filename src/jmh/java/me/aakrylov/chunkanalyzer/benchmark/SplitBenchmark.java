@@ -0,0 +1,68 @@
+package me.aakrylov.chunkanalyzer.benchmark;
+
+import me.aakrylov.chunkanalyzer.model.FileOperationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splitting a local file and splitting a stream with analysis in the same pass, with raw and compressed parts.
+ * Every invocation overwrites the parts of the previous one.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SplitBenchmark extends FileServiceFixture {
+
+    @Param({"1024", "1048576", "67108864", "1073741824"})
+    private long size;
+    /**
+     * Chunk size in kilobytes, as passed to {@code /split}.
+     */
+    @Param({"64", "1024", "16384"})
+    private int chunkSize;
+    @Param({"CLEAN", "DIRTY"})
+    private ContentKind kind;
+    /**
+     * Whether parts are GZIP-compressed.
+     */
+    @Param({"false", "true"})
+    private boolean compress;
+
+    private Path source;
+
+    @Override
+    protected void prepare() throws IOException {
+        source = BenchmarkData.file(kind, size);
+    }
+
+    @Benchmark
+    public FileOperationResult splitLocal(Megabytes megabytes) {
+        FileOperationResult result = fileService.split(source, "split.bin", chunkSize, compress);
+        megabytes.add(size);
+        return result;
+    }
+
+    @Benchmark
+    public FileOperationResult splitStreamAndAnalyze(Megabytes megabytes) throws IOException {
+        FileOperationResult result;
+        try (InputStream in = Files.newInputStream(source)) {
+            result = fileService.split(in, "stream.bin", chunkSize, true, compress);
+        }
+        megabytes.add(size);
+        return result;
+    }
+}
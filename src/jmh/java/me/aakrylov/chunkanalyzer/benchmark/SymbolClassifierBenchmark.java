@@ -0,0 +1,79 @@
+package me.aakrylov.chunkanalyzer.benchmark;
+
+import me.aakrylov.chunkanalyzer.component.SymbolClassifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Raw classification speed over in-memory content, without any IO.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SymbolClassifierBenchmark {
+
+    @Param({"1024", "1048576", "67108864"})
+    private int size;
+    @Param({"CLEAN", "DIRTY", "BINARY"})
+    private ContentKind kind;
+
+    private final SymbolClassifier symbolClassifier = new SymbolClassifier();
+    private byte[] content;
+    private ByteBuffer directContent;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        content = BenchmarkData.bytes(kind, size);
+        directContent = ByteBuffer.allocateDirect(size).put(content).flip();
+    }
+
+    @Benchmark
+    public int lookupTable(Megabytes megabytes) {
+        int incorrect = 0;
+        for (byte symbol : content) {
+            if (!symbolClassifier.isCorrect(symbol)) {
+                incorrect++;
+            }
+        }
+        megabytes.add(size);
+        return incorrect;
+    }
+
+    @Benchmark
+    public int scanArray(Megabytes megabytes) {
+        int incorrect = 0;
+        for (int indx = symbolClassifier.nextIncorrect(content, 0, size); indx >= 0;
+             indx = symbolClassifier.nextIncorrect(content, indx + 1, size)) {
+            incorrect++;
+        }
+        megabytes.add(size);
+        return incorrect;
+    }
+
+    @Benchmark
+    public int scanDirectBuffer(Megabytes megabytes) {
+        int incorrect = 0;
+        for (int indx = symbolClassifier.nextIncorrect(directContent, 0, size); indx >= 0;
+             indx = symbolClassifier.nextIncorrect(directContent, indx + 1, size)) {
+            incorrect++;
+        }
+        megabytes.add(size);
+        return incorrect;
+    }
+}
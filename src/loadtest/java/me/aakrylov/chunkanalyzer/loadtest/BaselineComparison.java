@@ -0,0 +1,71 @@
+package me.aakrylov.chunkanalyzer.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Compares a run with a baseline report of the same settings, endpoint by endpoint.
+ * A drop of requests per second or a rise of p99 latency beyond the allowed share counts as a regression.
+ */
+public class BaselineComparison {
+
+    private final double maxRegression;
+    private final List<String> lines = new ArrayList<>();
+    private final List<String> regressions = new ArrayList<>();
+
+    /**
+     * @param maxRegression allowed relative change, e.g. {@code 0.2} for 20%
+     */
+    public BaselineComparison(LoadTestReport baseline, LoadTestReport current, double maxRegression) {
+        this.maxRegression = maxRegression;
+        if (!baseline.getSettings().equals(current.getSettings())) {
+            lines.add(String.format("Baseline settings differ, comparison is indicative only: %s", baseline.getSettings()));
+        }
+        Map<Endpoint, EndpointResult> previous = baseline.getResults().stream()
+                .collect(Collectors.toMap(EndpointResult::getEndpoint, Function.identity()));
+        for (EndpointResult result : current.getResults()) {
+            EndpointResult before = previous.get(result.getEndpoint());
+            if (before == null) {
+                lines.add(String.format("%-12s not in baseline", result.getEndpoint().getLabel()));
+                continue;
+            }
+            double throughputChange = change(before.getRequestsPerSecond(), result.getRequestsPerSecond());
+            double p99Change = change(before.getP99Millis(), result.getP99Millis());
+            lines.add(String.format("%-12s req/s %8.2f -> %8.2f (%+6.1f%%)   p99 %9.2f -> %9.2f ms (%+6.1f%%)",
+                    result.getEndpoint().getLabel(),
+                    before.getRequestsPerSecond(), result.getRequestsPerSecond(), throughputChange * 100,
+                    before.getP99Millis(), result.getP99Millis(), p99Change * 100));
+            if (-throughputChange > maxRegression) {
+                regressions.add(String.format("%s throughput dropped by %.1f%%", result.getEndpoint().getLabel(),
+                        -throughputChange * 100));
+            }
+            if (p99Change > maxRegression) {
+                regressions.add(String.format("%s p99 latency rose by %.1f%%", result.getEndpoint().getLabel(),
+                        p99Change * 100));
+            }
+        }
+    }
+
+    public List<String> getLines() {
+        return lines;
+    }
+
+    public List<String> getRegressions() {
+        return regressions;
+    }
+
+    public boolean hasRegressions() {
+        return !regressions.isEmpty();
+    }
+
+    public double getMaxRegression() {
+        return maxRegression;
+    }
+
+    private static double change(double before, double after) {
+        return before == 0 ? 0 : (after - before) / before;
+    }
+}
@@ -0,0 +1,43 @@
+package me.aakrylov.chunkanalyzer.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * File-process endpoints driven by the load test.
+ */
+public enum Endpoint {
+
+    /**
+     * Multipart upload of the generated file; every request splits into a directory of its own.
+     */
+    SPLIT("split"),
+    /**
+     * Multipart upload of the generated file.
+     */
+    ANALYZE("analyze"),
+    /**
+     * Every client analyzes the directory it split during setup.
+     */
+    ANALYZE_ALL("analyze-all"),
+    /**
+     * Every client assembles the directory it split during setup, keeping the parts.
+     */
+    ASSEMBLE("assemble");
+
+    private final String label;
+
+    Endpoint(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public static Endpoint forLabel(String label) {
+        return Arrays.stream(values())
+                .filter(endpoint -> endpoint.label.equalsIgnoreCase(label) || endpoint.name().equalsIgnoreCase(label))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(String.format("Unknown endpoint [%s]", label)));
+    }
+}
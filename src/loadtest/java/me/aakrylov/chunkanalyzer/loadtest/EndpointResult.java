@@ -0,0 +1,31 @@
+package me.aakrylov.chunkanalyzer.loadtest;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@SuperBuilder(setterPrefix = "set")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EndpointResult {
+
+    private Endpoint endpoint;
+    private int requests;
+    /**
+     * Responses other than 200 or with an ERROR status in the body.
+     */
+    private int errors;
+    private double requestsPerSecond;
+    /**
+     * Megabytes of file content processed per second, summed over all clients.
+     */
+    private double megabytesPerSecond;
+    private double p50Millis;
+    private double p95Millis;
+    private double p99Millis;
+    private double maxMillis;
+}
@@ -0,0 +1,29 @@
+package me.aakrylov.chunkanalyzer.loadtest;
+
+import java.util.Random;
+
+/**
+ * Generates deterministic printable ASCII content with a given share of incorrect bytes.
+ */
+public class LoadData {
+
+    private static final String PRINTABLE = "abcdefghijklmnopqrstuvwxyz ABCDEFGHIJKLMNOPQRSTUVWXYZ 0123456789 .,;:!?-\r\n";
+    private static final long SEED = 42;
+
+    private LoadData() {
+    }
+
+    /**
+     * @param dirtiness share of bytes outside US-ASCII, from 0 (clean) to 1
+     */
+    public static byte[] generate(int size, double dirtiness) {
+        Random random = new Random(SEED);
+        byte[] content = new byte[size];
+        for (int indx = 0; indx < size; indx++) {
+            content[indx] = random.nextDouble() < dirtiness
+                    ? (byte) (0x80 + random.nextInt(0x80))
+                    : (byte) PRINTABLE.charAt(random.nextInt(PRINTABLE.length()));
+        }
+        return content;
+    }
+}
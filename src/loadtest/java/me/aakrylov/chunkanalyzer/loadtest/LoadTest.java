@@ -0,0 +1,109 @@
+package me.aakrylov.chunkanalyzer.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import me.aakrylov.chunkanalyzer.ChunkAnalyzerApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Starts the application on a random local port and drives concurrent HTTP clients against
+ * /split, /analyze, /analyze/all and /assemble.
+ * <p>
+ * Arguments are {@code --name=value} pairs: the {@link LoadTestSettings} plus {@code --result} (report file),
+ * {@code --baseline} (report of an earlier run to compare with) and {@code --max-regression}
+ * (allowed drop of req/s or rise of p99, 0.2 by default). The process exits with 1 when the baseline
+ * comparison finds a regression or any request failed.
+ * <p>
+ * The clients run in the same JVM as the server, so absolute numbers are only comparable between runs
+ * on the same machine.
+ */
+public class LoadTest {
+
+    private static final double DEFAULT_MAX_REGRESSION = 0.2;
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.defaults();
+        Path resultFile = Paths.get("loadtest-result.json");
+        Path baselineFile = null;
+        double maxRegression = DEFAULT_MAX_REGRESSION;
+        for (String arg : args) {
+            String[] option = arg.replaceFirst("^--", "").split("=", 2);
+            String value = option.length > 1 ? option[1] : "";
+            switch (option[0]) {
+                case "result" -> resultFile = Paths.get(value);
+                case "baseline" -> baselineFile = value.isBlank() ? null : Paths.get(value);
+                case "max-regression" -> maxRegression = Double.parseDouble(value);
+                default -> {
+                    if (!settings.apply(option[0], value)) {
+                        throw new IllegalArgumentException(String.format("Unknown argument [%s]", arg));
+                    }
+                }
+            }
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        Path workDir = Files.createTempDirectory("chunk-analyzer-loadtest");
+        LoadTestReport report;
+        ConfigurableApplicationContext context = startApplication(workDir);
+        try {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            report = new LoadTestRunner(settings, URI.create("http://localhost:" + port), workDir).run();
+        } finally {
+            SpringApplication.exit(context);
+            LoadTestRunner.deleteRecursively(workDir);
+        }
+
+        print(report);
+        if (resultFile.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(resultFile.toAbsolutePath().getParent());
+        }
+        objectMapper.writeValue(resultFile.toFile(), report);
+        System.out.printf("Report written to %s%n", resultFile.toAbsolutePath());
+
+        boolean failed = report.getResults().stream().anyMatch(result -> result.getErrors() > 0);
+        if (baselineFile != null && Files.isRegularFile(baselineFile)) {
+            LoadTestReport baseline = objectMapper.readValue(baselineFile.toFile(), LoadTestReport.class);
+            BaselineComparison comparison = new BaselineComparison(baseline, report, maxRegression);
+            System.out.printf("%nCompared with %s:%n", baselineFile);
+            comparison.getLines().forEach(System.out::println);
+            comparison.getRegressions().forEach(regression -> System.out.printf("REGRESSION: %s%n", regression));
+            failed |= comparison.hasRegressions();
+        } else if (baselineFile != null) {
+            System.out.printf("No baseline at %s, copy the report there to compare later runs with it%n", baselineFile);
+        }
+        System.exit(failed ? 1 : 0);
+    }
+
+    /**
+     * Command-line arguments take precedence over application.properties, unlike default properties.
+     * The analysis cache is off so that every analyze/all request does the full work.
+     */
+    private static ConfigurableApplicationContext startApplication(Path workDir) {
+        return SpringApplication.run(ChunkAnalyzerApplication.class,
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--files.split.default.location=" + workDir + File.separator,
+                "--files.analyze.cache.enabled=false",
+                "--files.log.findings.enabled=false",
+                "--logging.level.root=WARN");
+    }
+
+    private static void print(LoadTestReport report) {
+        System.out.printf("%nSettings: %s%n", report.getSettings());
+        System.out.printf("%-12s %9s %7s %10s %10s %10s %10s %10s %10s%n",
+                "endpoint", "requests", "errors", "req/s", "MB/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (EndpointResult result : report.getResults()) {
+            System.out.printf("%-12s %9d %7d %10.2f %10.2f %10.2f %10.2f %10.2f %10.2f%n",
+                    result.getEndpoint().getLabel(), result.getRequests(), result.getErrors(),
+                    result.getRequestsPerSecond(), result.getMegabytesPerSecond(),
+                    result.getP50Millis(), result.getP95Millis(), result.getP99Millis(), result.getMaxMillis());
+        }
+    }
+}
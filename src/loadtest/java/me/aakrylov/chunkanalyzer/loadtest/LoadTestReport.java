@@ -0,0 +1,20 @@
+package me.aakrylov.chunkanalyzer.loadtest;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@SuperBuilder(setterPrefix = "set")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LoadTestReport {
+
+    private LoadTestSettings settings;
+    private List<EndpointResult> results;
+}
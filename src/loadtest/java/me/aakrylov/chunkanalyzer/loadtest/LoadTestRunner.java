@@ -0,0 +1,250 @@
+package me.aakrylov.chunkanalyzer.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Drives the endpoints one after another, each with all clients at once.
+ * <p>
+ * Every client first sends its warmup requests, then all clients wait for each other and the measured
+ * requests start together; requests per second and MB/s are taken over the wall-clock time of that phase.
+ * Work that is not part of a request, such as removing the parts of a split, is left out of both latencies
+ * and requests per second.
+ */
+public class LoadTestRunner {
+
+    private static final String BASE_PATH = "/file-process";
+    private static final String ERROR_STATUS = "ERROR";
+    private static final double NANOS_IN_MILLI = 1_000_000;
+    private static final double NANOS_IN_SECOND = 1_000_000_000;
+    private static final double BYTES_IN_MEGABYTE = 1024 * 1024;
+
+    private final LoadTestSettings settings;
+    private final URI baseUri;
+    private final Path workDir;
+    private final byte[] content;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * @param workDir split location of the application under test
+     */
+    public LoadTestRunner(LoadTestSettings settings, URI baseUri, Path workDir) {
+        this.settings = settings;
+        this.baseUri = baseUri;
+        this.workDir = workDir;
+        this.content = LoadData.generate(settings.getFileSize(), settings.getDirtiness());
+    }
+
+    public LoadTestReport run() throws Exception {
+        List<Path> clientDirs = new ArrayList<>();
+        for (int clientIndx = 0; clientIndx < settings.getClients(); clientIndx++) {
+            String fileName = String.format("client-%d.txt", clientIndx);
+            check(send(split(fileName)), Endpoint.SPLIT);
+            clientDirs.add(workDir.resolve(fileName.replace(".", "_")));
+        }
+        List<EndpointResult> results = new ArrayList<>();
+        for (Endpoint endpoint : settings.getEndpoints()) {
+            results.add(run(endpoint, clientDirs));
+        }
+        return LoadTestReport.builder()
+                .setSettings(settings)
+                .setResults(results)
+                .build();
+    }
+
+    /**
+     * Each client deletes the parts of its splits between requests. That time is taken out of the client's
+     * share of the window, and the window ends when the slowest client is done, so neither latencies nor
+     * requests per second include the cleanup.
+     */
+    private EndpointResult run(Endpoint endpoint, List<Path> clientDirs) throws Exception {
+        int clients = settings.getClients();
+        int requests = settings.getRequests();
+        long[] latencies = new long[clients * requests];
+        long[] busyNanos = new long[clients];
+        AtomicLong measureStart = new AtomicLong();
+        CyclicBarrier warmedUp = new CyclicBarrier(clients, () -> measureStart.set(System.nanoTime()));
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        try {
+            List<Future<Integer>> errors = new ArrayList<>();
+            for (int clientIndx = 0; clientIndx < clients; clientIndx++) {
+                int client = clientIndx;
+                errors.add(executor.submit(() -> {
+                    Path clientDir = clientDirs.get(client);
+                    for (int indx = 0; indx < settings.getWarmup(); indx++) {
+                        String fileName = splitFileName();
+                        call(endpoint, clientDir, fileName, null, -1);
+                        cleanUp(endpoint, fileName);
+                    }
+                    warmedUp.await();
+                    int failed = 0;
+                    long cleanupNanos = 0;
+                    for (int indx = 0; indx < requests; indx++) {
+                        String fileName = splitFileName();
+                        failed += call(endpoint, clientDir, fileName, latencies, client * requests + indx) ? 0 : 1;
+                        cleanupNanos += cleanUp(endpoint, fileName);
+                    }
+                    busyNanos[client] = System.nanoTime() - measureStart.get() - cleanupNanos;
+                    return failed;
+                }));
+            }
+            int failed = 0;
+            for (Future<Integer> error : errors) {
+                failed += error.get();
+            }
+            return toResult(endpoint, latencies, failed, Arrays.stream(busyNanos).max().orElse(0));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Sends one request and stores its latency into {@code latencies[slot]}, unless warming up without an array.
+     *
+     * @param fileName name of the uploaded file of a split
+     * @return whether the request succeeded
+     */
+    private boolean call(Endpoint endpoint, Path clientDir, String fileName, long[] latencies, int slot)
+            throws IOException, InterruptedException {
+        HttpRequest request = switch (endpoint) {
+            case SPLIT -> split(fileName);
+            case ANALYZE -> multipart("/analyze", "analyze.txt");
+            case ANALYZE_ALL -> HttpRequest.newBuilder(uri("/analyze/all?dir=" + encode(clientDir)))
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build();
+            case ASSEMBLE -> HttpRequest.newBuilder(uri("/assemble?deleteSource=false&dir=" + encode(clientDir)))
+                    .GET()
+                    .build();
+        };
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response = send(request);
+        if (latencies != null) {
+            latencies[slot] = System.nanoTime() - start;
+        }
+        return isSuccess(response);
+    }
+
+    /**
+     * Deletes the parts written by a split request.
+     *
+     * @return time spent deleting
+     */
+    private long cleanUp(Endpoint endpoint, String fileName) throws IOException {
+        if (endpoint != Endpoint.SPLIT) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        deleteRecursively(workDir.resolve(fileName.replace(".", "_")));
+        return System.nanoTime() - start;
+    }
+
+    private static String splitFileName() {
+        return String.format("split-%s.txt", UUID.randomUUID());
+    }
+
+    private HttpRequest split(String fileName) {
+        return multipart("/split?chunkSize=" + settings.getChunkSize(), fileName);
+    }
+
+    private HttpRequest multipart(String path, String fileName) {
+        String boundary = UUID.randomUUID().toString();
+        String head = String.format("--%s\r\nContent-Disposition: form-data; name=\"file\"; filename=\"%s\"\r\n"
+                + "Content-Type: application/octet-stream\r\n\r\n", boundary, fileName);
+        String tail = String.format("\r\n--%s--\r\n", boundary);
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArrays(List.of(
+                        head.getBytes(StandardCharsets.US_ASCII), content, tail.getBytes(StandardCharsets.US_ASCII))))
+                .build();
+    }
+
+    private HttpResponse<byte[]> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private boolean isSuccess(HttpResponse<byte[]> response) throws IOException {
+        if (response.statusCode() != 200) {
+            return false;
+        }
+        JsonNode status = objectMapper.readTree(response.body()).get("status");
+        return status == null || !ERROR_STATUS.equals(status.asText());
+    }
+
+    private void check(HttpResponse<byte[]> response, Endpoint endpoint) throws IOException {
+        if (!isSuccess(response)) {
+            throw new IllegalStateException(String.format("Setup %s failed with %d: %s", endpoint.getLabel(),
+                    response.statusCode(), new String(response.body(), StandardCharsets.UTF_8)));
+        }
+    }
+
+    private EndpointResult toResult(Endpoint endpoint, long[] latencies, int errors, long nanos) {
+        Arrays.sort(latencies);
+        double seconds = nanos / NANOS_IN_SECOND;
+        return EndpointResult.builder()
+                .setEndpoint(endpoint)
+                .setRequests(latencies.length)
+                .setErrors(errors)
+                .setRequestsPerSecond(round(latencies.length / seconds))
+                .setMegabytesPerSecond(round((double) latencies.length * content.length / BYTES_IN_MEGABYTE / seconds))
+                .setP50Millis(percentile(latencies, 0.50))
+                .setP95Millis(percentile(latencies, 0.95))
+                .setP99Millis(percentile(latencies, 0.99))
+                .setMaxMillis(round(latencies[latencies.length - 1] / NANOS_IN_MILLI))
+                .build();
+    }
+
+    /**
+     * Nearest-rank percentile of sorted latencies, in milliseconds.
+     */
+    static double percentile(long[] sortedNanos, double quantile) {
+        int rank = (int) Math.ceil(quantile * sortedNanos.length);
+        return round(sortedNanos[Math.max(0, rank - 1)] / NANOS_IN_MILLI);
+    }
+
+    private URI uri(String path) {
+        return baseUri.resolve(BASE_PATH + path);
+    }
+
+    private static String encode(Path path) {
+        return URLEncoder.encode(path.toString(), StandardCharsets.UTF_8);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    static void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(path)) {
+            for (Path file : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+}
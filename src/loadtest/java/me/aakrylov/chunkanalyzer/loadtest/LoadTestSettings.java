@@ -0,0 +1,86 @@
+package me.aakrylov.chunkanalyzer.loadtest;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Parameters of a run, given as {@code --name=value} arguments. They are written into the report,
+ * so a baseline is only compared with runs of the same shape.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@SuperBuilder(setterPrefix = "set")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LoadTestSettings {
+
+    private int fileSize;
+    /**
+     * Share of incorrect bytes in the generated file.
+     */
+    private double dirtiness;
+    /**
+     * Split chunk size in kilobytes, as the chunkSize request parameter.
+     */
+    private int chunkSize;
+    private int clients;
+    /**
+     * Requests per client before measuring starts.
+     */
+    private int warmup;
+    /**
+     * Measured requests per client and endpoint.
+     */
+    private int requests;
+    private List<Endpoint> endpoints;
+
+    public static LoadTestSettings defaults() {
+        return LoadTestSettings.builder()
+                .setFileSize(8 * 1024 * 1024)
+                .setDirtiness(0.001)
+                .setChunkSize(1024)
+                .setClients(8)
+                .setWarmup(5)
+                .setRequests(50)
+                .setEndpoints(Arrays.asList(Endpoint.values()))
+                .build();
+    }
+
+    /**
+     * Applies a {@code --name=value} argument.
+     *
+     * @return {@code false} if the argument is not a setting
+     */
+    public boolean apply(String name, String value) {
+        switch (name) {
+            case "file-size" -> fileSize = positive(name, Integer.parseInt(value));
+            case "dirtiness" -> dirtiness = Double.parseDouble(value);
+            case "chunk-size" -> chunkSize = positive(name, Integer.parseInt(value));
+            case "clients" -> clients = positive(name, Integer.parseInt(value));
+            case "warmup" -> warmup = Integer.parseInt(value);
+            case "requests" -> requests = positive(name, Integer.parseInt(value));
+            case "endpoints" -> endpoints = Arrays.stream(value.split(","))
+                    .map(String::trim)
+                    .map(Endpoint::forLabel)
+                    .collect(Collectors.toList());
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int positive(String name, int value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException(String.format("--%s must be positive, got %d", name, value));
+        }
+        return value;
+    }
+}
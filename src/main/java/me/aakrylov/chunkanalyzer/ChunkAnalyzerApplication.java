@@ -1,13 +1,20 @@
 package me.aakrylov.chunkanalyzer;
 
+import me.aakrylov.chunkanalyzer.batch.BatchCommandRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Profiles;
 
 @SpringBootApplication
 public class ChunkAnalyzerApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(ChunkAnalyzerApplication.class, args);
+        ConfigurableApplicationContext context = SpringApplication.run(ChunkAnalyzerApplication.class, args);
+        if (context.getEnvironment().acceptsProfiles(Profiles.of(BatchCommandRunner.BATCH_PROFILE))) {
+            // Executor threads are not daemons, so the batch has to close the context to let the JVM exit
+            System.exit(SpringApplication.exit(context));
+        }
     }
 
 }
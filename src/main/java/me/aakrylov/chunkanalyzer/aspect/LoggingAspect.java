@@ -2,51 +2,58 @@ package me.aakrylov.chunkanalyzer.aspect;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+/**
+ * Logs calls of {@link me.aakrylov.chunkanalyzer.annotation.Loggable} methods at DEBUG level.
+ * Arguments are rendered only when DEBUG is enabled, so the aspect costs nothing on the hot path otherwise.
+ * <p>
+ * Rendering serializes arbitrary arguments by reflection, so the batch profile leaves the aspect out.
+ */
 @Aspect
 @Component
+@ConditionalOnProperty(name = "files.log.calls.enabled", havingValue = "true", matchIfMissing = true)
 @Slf4j
-@RequiredArgsConstructor
 public class LoggingAspect {
 
-    private final ObjectMapper objectMapper;
+    private final ObjectWriter argumentWriter;
+
+    public LoggingAspect(ObjectMapper objectMapper) {
+        this.argumentWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+    }
 
     @Around("@annotation(me.aakrylov.chunkanalyzer.annotation.Loggable)")
-    public Object loggableCall(ProceedingJoinPoint joinPoint) {
+    public Object loggableCall(ProceedingJoinPoint joinPoint) throws Throwable {
         MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        String args = Arrays.stream(joinPoint.getArgs())
-                .map(this::toString)
-                .collect(Collectors.joining(","));
-
-        StringBuilder sb = new StringBuilder();
-        sb.append("{Class: ");
-        sb.append(joinPoint.getTarget().getClass().getSimpleName());
-        sb.append(", Method: ");
-        sb.append(signature.getMethod().getName());
-        sb.append(", Args: [");
-        sb.append(args);
-        sb.append("]}");
-
-        log.info(sb.toString());
-
+        if (log.isDebugEnabled()) {
+            String args = Arrays.stream(joinPoint.getArgs())
+                    .map(this::toString)
+                    .collect(Collectors.joining(","));
+            log.debug("{Class: {}, Method: {}, Args: [{}]}",
+                    joinPoint.getTarget().getClass().getSimpleName(), signature.getMethod().getName(), args);
+        }
         try {
             Object retval = joinPoint.proceed();
-            log.info("Finished executing {}", signature.getMethod().toGenericString());
+            log.debug("Finished executing {}", signature.getMethod().getName());
             return retval;
         } catch (Throwable e) {
             log.error("Error executing {}", signature.getMethod().toGenericString(), e);
-            return null;
+            throw e;
         }
     }
 
@@ -54,12 +61,16 @@ public class LoggingAspect {
         try {
             if (object instanceof MultipartFile file) {
                 return String.format("File: %s", file.getOriginalFilename());
+            } else if (object instanceof InputStream || object instanceof Consumer) {
+                return object.getClass().getSimpleName();
+            } else if (object == null || object instanceof Path || object instanceof Number
+                    || object instanceof Boolean) {
+                return String.valueOf(object);
             } else {
-                return objectMapper.writeValueAsString(object);
+                return argumentWriter.writeValueAsString(object);
             }
         } catch (JsonProcessingException e) {
-            log.error("Error converting object to string.");
-            log.error(e.getMessage());
+            log.error("Error converting object to string: {}", e.getMessage());
             return null;
         }
     }
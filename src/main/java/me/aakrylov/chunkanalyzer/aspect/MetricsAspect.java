@@ -0,0 +1,113 @@
+package me.aakrylov.chunkanalyzer.aspect;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import me.aakrylov.chunkanalyzer.model.FileOperationResult;
+import me.aakrylov.chunkanalyzer.model.FindingsReport;
+import me.aakrylov.chunkanalyzer.type.FileOperationStatus;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records latency and volume of every {@link me.aakrylov.chunkanalyzer.annotation.Loggable} operation.
+ * <p>
+ * All meters are tagged with the operation (method name); the latency timer is also tagged with the result status.
+ * Only numbers already present in the {@link FileOperationResult} are recorded, nothing is serialized.
+ */
+@Aspect
+@Component
+public class MetricsAspect {
+
+    static final String OPERATION_TIMER = "chunkanalyzer.operation";
+    static final String BYTES_SUMMARY = "chunkanalyzer.operation.bytes";
+    static final String THROUGHPUT_SUMMARY = "chunkanalyzer.operation.throughput";
+    static final String CHUNKS_SUMMARY = "chunkanalyzer.operation.chunks";
+    static final String FINDINGS_COUNTER = "chunkanalyzer.findings";
+    static final String ERRORS_COUNTER = "chunkanalyzer.operation.errors";
+
+    private static final String OPERATION_TAG = "operation";
+    private static final String STATUS_TAG = "status";
+    private static final String EXCEPTION_STATUS = "EXCEPTION";
+
+    private final MeterRegistry registry;
+
+    public MetricsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("@annotation(me.aakrylov.chunkanalyzer.annotation.Loggable)")
+    public Object measuredCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        String operation = joinPoint.getSignature().getName();
+        Timer.Sample sample = Timer.start(registry);
+        Object retval;
+        try {
+            retval = joinPoint.proceed();
+        } catch (Throwable e) {
+            sample.stop(timer(operation, EXCEPTION_STATUS));
+            errors(operation, e.getClass().getSimpleName()).increment();
+            throw e;
+        }
+        if (retval instanceof FileOperationResult result) {
+            FileOperationStatus status = result.getStatus();
+            sample.stop(timer(operation, String.valueOf(status)));
+            record(operation, result);
+        } else {
+            sample.stop(timer(operation, "UNKNOWN"));
+        }
+        return retval;
+    }
+
+    private void record(String operation, FileOperationResult result) {
+        if (FileOperationStatus.ERROR.equals(result.getStatus())) {
+            errors(operation, FileOperationStatus.ERROR.name()).increment();
+        }
+        if (result.getBytesProcessed() != null) {
+            DistributionSummary.builder(BYTES_SUMMARY)
+                    .baseUnit("bytes")
+                    .tag(OPERATION_TAG, operation)
+                    .register(registry)
+                    .record(result.getBytesProcessed());
+        }
+        if (result.getThroughput() != null) {
+            DistributionSummary.builder(THROUGHPUT_SUMMARY)
+                    .baseUnit("megabytes.per.second")
+                    .tag(OPERATION_TAG, operation)
+                    .register(registry)
+                    .record(result.getThroughput());
+        }
+        if (result.getChunkCount() != null) {
+            DistributionSummary.builder(CHUNKS_SUMMARY)
+                    .baseUnit("chunks")
+                    .tag(OPERATION_TAG, operation)
+                    .register(registry)
+                    .record(result.getChunkCount());
+        }
+        FindingsReport findings = result.getFindings();
+        if (findings != null && findings.getTotalSymbols() > 0) {
+            Counter.builder(FINDINGS_COUNTER)
+                    .baseUnit("symbols")
+                    .tag(OPERATION_TAG, operation)
+                    .register(registry)
+                    .increment(findings.getTotalSymbols());
+        }
+    }
+
+    private Timer timer(String operation, String status) {
+        return Timer.builder(OPERATION_TIMER)
+                .tag(OPERATION_TAG, operation)
+                .tag(STATUS_TAG, status)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private Counter errors(String operation, String reason) {
+        return Counter.builder(ERRORS_COUNTER)
+                .tag(OPERATION_TAG, operation)
+                .tag("reason", reason)
+                .register(registry);
+    }
+}
@@ -0,0 +1,121 @@
+package me.aakrylov.chunkanalyzer.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import me.aakrylov.chunkanalyzer.model.BatchSummary;
+import me.aakrylov.chunkanalyzer.service.api.BatchService;
+import me.aakrylov.chunkanalyzer.type.BatchCommand;
+import me.aakrylov.chunkanalyzer.type.ContentCharset;
+import me.aakrylov.chunkanalyzer.type.FileOperationStatus;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Command-line entry point of the {@value #BATCH_PROFILE} profile, which starts without the web stack:
+ * <pre>
+ * java -jar chunk-analyzer.jar --spring.profiles.active=batch split --chunk-size=1024 /data/a.log /data/logs
+ * java -jar chunk-analyzer.jar --spring.profiles.active=batch analyze --charset=UTF-8 /splitFiles/a_log
+ * java -jar chunk-analyzer.jar --spring.profiles.active=batch assemble --delete-source /splitFiles/a_log
+ * java -jar chunk-analyzer.jar --spring.profiles.active=batch verify /splitFiles/a_log /splitFiles/b_log
+ * </pre>
+ * The {@link BatchSummary} is printed to stdout as a single JSON line; the profile sends log lines to stderr
+ * (see logback-spring.xml), so stdout holds nothing else. The exit code is 0 when every item
+ * succeeded, 1 when some failed and 2 when the command line is invalid.
+ */
+@Component
+@Profile(BatchCommandRunner.BATCH_PROFILE)
+public class BatchCommandRunner implements ApplicationRunner, ExitCodeGenerator {
+
+    public static final String BATCH_PROFILE = "batch";
+
+    private static final int EXIT_FAILED_ITEMS = 1;
+    private static final int EXIT_USAGE = 2;
+
+    private static final int DEFAULT_CHUNK_SIZE = 5120;
+    private static final String USAGE = "Usage: (split [--chunk-size=<kilobytes>] [--compress[=false]]"
+            + " | analyze [--charset=<name>] | assemble [--delete-source] | verify) <path>...";
+
+    private final BatchService batchService;
+    private final ObjectWriter summaryWriter;
+    private int exitCode;
+
+    public BatchCommandRunner(BatchService batchService, ObjectMapper objectMapper) {
+        this.batchService = batchService;
+        this.summaryWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        List<String> words = args.getNonOptionArgs();
+        BatchSummary summary;
+        try {
+            if (words.size() < 2) {
+                throw new IllegalArgumentException("Command and at least one path are required");
+            }
+            BatchCommand command = BatchCommand.valueOf(words.get(0).toUpperCase(Locale.ROOT));
+            List<Path> paths = words.subList(1, words.size()).stream()
+                    .map(Path::of)
+                    .collect(Collectors.toList());
+            summary = switch (command) {
+                case SPLIT -> batchService.split(paths, chunkSize(args), flag(args, "compress"));
+                case ANALYZE -> batchService.analyze(paths, charset(args));
+                case ASSEMBLE -> batchService.assemble(paths, Boolean.TRUE.equals(flag(args, "delete-source")));
+                case VERIFY -> batchService.verify(paths);
+            };
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            exitCode = EXIT_USAGE;
+            return;
+        }
+        System.out.println(summaryWriter.writeValueAsString(summary));
+        exitCode = FileOperationStatus.ERROR.equals(summary.getStatus()) ? EXIT_FAILED_ITEMS : 0;
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    private static int chunkSize(ApplicationArguments args) {
+        String value = option(args, "chunk-size");
+        if (value == null) {
+            return DEFAULT_CHUNK_SIZE;
+        }
+        int chunkSize = Integer.parseInt(value);
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException(String.format("Chunk size must be positive, got %d", chunkSize));
+        }
+        return chunkSize;
+    }
+
+    private static ContentCharset charset(ApplicationArguments args) {
+        String value = option(args, "charset");
+        return value == null ? null : ContentCharset.forName(value.trim());
+    }
+
+    /**
+     * @return {@code null} if the option is absent, {@code true} if it is given without a value
+     */
+    private static Boolean flag(ApplicationArguments args, String name) {
+        if (!args.containsOption(name)) {
+            return null;
+        }
+        String value = option(args, name);
+        return value == null || Boolean.parseBoolean(value);
+    }
+
+    private static String option(ApplicationArguments args, String name) {
+        List<String> values = args.getOptionValues(name);
+        return values == null || values.isEmpty() ? null : values.get(values.size() - 1);
+    }
+}
@@ -0,0 +1,240 @@
+package me.aakrylov.chunkanalyzer.component;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import me.aakrylov.chunkanalyzer.model.CachedAnalysis;
+import me.aakrylov.chunkanalyzer.model.FileOperationResult;
+import me.aakrylov.chunkanalyzer.util.Checksums;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers analysis results of files that did not change since they were analyzed.
+ * <p>
+ * A file is identified by its absolute path, size and modification time, so a lookup costs a single stat.
+ * With content hashing enabled the SHA-256 of the content replaces the path and time instead:
+ * the file is read once more but not scanned, and moved or copied files hit the same entry. A weaker checksum
+ * is not enough here, a collision would silently return the analysis of another file.
+ * Results are kept serialized, so every lookup returns a fresh copy that callers may change, and an entry
+ * weighs the bytes of its key and JSON. Entries live in an LRU map evicted down to a byte budget and are saved
+ * to an index file that is loaded on start-up.
+ */
+@Slf4j
+@Component
+public class AnalysisCache {
+
+    private static final int ENTRY_OVERHEAD = 96;
+    private static final byte[] INDEX_KEY = "{\"key\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] INDEX_RESULT = ",\"result\":".getBytes(StandardCharsets.US_ASCII);
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter writer;
+    private final boolean enabled;
+    private final long maxBytes;
+    private final boolean contentHash;
+    private final Path indexFile;
+    private final LinkedHashMap<String, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private long bytes;
+    private boolean dirty;
+
+    public AnalysisCache(ObjectMapper objectMapper,
+                         @Value("${files.analyze.cache.enabled:true}") boolean enabled,
+                         @Value("${files.analyze.cache.max.bytes:33554432}") long maxBytes,
+                         @Value("${files.analyze.cache.content.hash:false}") boolean contentHash,
+                         @Value("${files.analyze.cache.index:}") String indexFile) {
+        this.objectMapper = objectMapper;
+        this.writer = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        this.enabled = enabled && maxBytes > 0;
+        this.maxBytes = maxBytes;
+        this.contentHash = contentHash;
+        this.indexFile = indexFile.isBlank() ? null : Paths.get(indexFile);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Builds the cache key of a file. {@code variant} must describe every setting the result depends on.
+     */
+    public String key(Path file, BasicFileAttributes attributes, String variant) throws IOException {
+        if (contentHash) {
+            return String.format("sha256:%d:%s|%s", attributes.size(), Checksums.sha256(file), variant);
+        }
+        return String.format("%s:%d:%d|%s", file.toAbsolutePath(), attributes.size(),
+                attributes.lastModifiedTime().toMillis(), variant);
+    }
+
+    /**
+     * Builds the cache key of a chunk of the chunk store, whose name already is the hash of its content.
+     */
+    public String contentKey(String sha256, String variant) {
+        return String.format("sha256:%s|%s", sha256, variant);
+    }
+
+    public Optional<FileOperationResult> get(String key) {
+        byte[] json;
+        synchronized (entries) {
+            json = entries.get(key);
+        }
+        if (json != null) {
+            try {
+                FileOperationResult result = objectMapper.readValue(json, FileOperationResult.class);
+                hits.incrementAndGet();
+                return Optional.of(result);
+            } catch (IOException e) {
+                log.warn("Could not read cached analysis result [{}]: {}", key, e.toString());
+            }
+        }
+        misses.incrementAndGet();
+        return Optional.empty();
+    }
+
+    /**
+     * Stores a copy of the result; a result heavier than the whole budget is not cached.
+     */
+    public void put(String key, FileOperationResult result) {
+        byte[] json;
+        try {
+            json = writer.writeValueAsBytes(result);
+        } catch (IOException e) {
+            log.warn("Could not cache analysis result [{}]: {}", key, e.toString());
+            return;
+        }
+        if (weight(key, json) > maxBytes) {
+            return;
+        }
+        synchronized (entries) {
+            byte[] previous = entries.put(key, json);
+            if (previous != null) {
+                bytes -= weight(key, previous);
+            }
+            bytes += weight(key, json);
+            Iterator<Map.Entry<String, byte[]>> eldest = entries.entrySet().iterator();
+            while (bytes > maxBytes) {
+                Map.Entry<String, byte[]> entry = eldest.next();
+                bytes -= weight(entry.getKey(), entry.getValue());
+                eldest.remove();
+            }
+            dirty = true;
+        }
+    }
+
+    /**
+     * @return weight of all entries, counted against {@code files.analyze.cache.max.bytes}
+     */
+    public long getBytes() {
+        synchronized (entries) {
+            return bytes;
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @PostConstruct
+    public void load() {
+        if (!enabled || indexFile == null || !Files.isRegularFile(indexFile)) {
+            return;
+        }
+        try {
+            List<CachedAnalysis> index = objectMapper.readValue(indexFile.toFile(), new TypeReference<>() {
+            });
+            index.forEach(entry -> put(entry.getKey(), entry.getResult()));
+            synchronized (entries) {
+                dirty = false;
+            }
+            log.info("Loaded {} cached analysis results from [{}]", index.size(), indexFile);
+        } catch (IOException e) {
+            log.warn("Could not load analysis cache index [{}]: {}", indexFile, e.toString());
+        }
+    }
+
+    /**
+     * Saves the index if anything was added since the last save. The index is replaced atomically.
+     * Entries are kept serialized, so their JSON is written as it is, without reading it back.
+     */
+    @PreDestroy
+    public void flush() {
+        if (!enabled || indexFile == null) {
+            return;
+        }
+        Map<String, byte[]> snapshot;
+        synchronized (entries) {
+            if (!dirty) {
+                return;
+            }
+            snapshot = new LinkedHashMap<>(entries);
+            dirty = false;
+        }
+        try {
+            Path temp = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+            Files.createDirectories(indexFile.toAbsolutePath().getParent());
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                writeIndex(out, snapshot);
+            }
+            Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Saved {} cached analysis results to [{}]", snapshot.size(), indexFile);
+        } catch (IOException e) {
+            synchronized (entries) {
+                dirty = true;
+            }
+            log.warn("Could not save analysis cache index [{}]: {}", indexFile, e.toString());
+        }
+    }
+
+    /**
+     * Writes the entries as the JSON array of {@link CachedAnalysis} that {@link #load} reads.
+     */
+    private void writeIndex(OutputStream out, Map<String, byte[]> snapshot) throws IOException {
+        out.write('[');
+        boolean first = true;
+        for (Map.Entry<String, byte[]> entry : snapshot.entrySet()) {
+            if (!first) {
+                out.write(',');
+            }
+            first = false;
+            out.write(INDEX_KEY);
+            out.write(writer.writeValueAsBytes(entry.getKey()));
+            out.write(INDEX_RESULT);
+            out.write(entry.getValue());
+            out.write('}');
+        }
+        out.write(']');
+    }
+
+    /**
+     * Key and JSON bytes plus a rough per-entry overhead of the map node, the key object and the array.
+     */
+    private static long weight(String key, byte[] json) {
+        return ENTRY_OVERHEAD + 2L * key.length() + json.length;
+    }
+}
@@ -0,0 +1,232 @@
+package me.aakrylov.chunkanalyzer.component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Shared pool of the heap windows used to copy content between streams, under one memory budget.
+ * <p>
+ * It covers only the copying paths: streamed and multipart uploads, upload parts, inflating compressed parts,
+ * deflating new ones and reading spooled temp files that must not be mapped. Splitting and analyzing local files
+ * maps them and takes no window, so {@code files.buffers.max.bytes} bounds the copy windows, not all IO memory.
+ * <p>
+ * Windows come in power-of-two size classes from {@value #MIN_CLASS_SIZE} bytes to {@value #MAX_CLASS_SIZE} bytes
+ * and go back to the pool when their lease is closed. The budget counts leased and idle windows together;
+ * idle windows of other classes are dropped to make room before an acquirer waits. An acquirer waits at most
+ * {@code files.buffers.acquire.timeout.millis}, zero fails fast.
+ * <p>
+ * The windows are heap arrays rather than direct buffers: their users hand them to streams, the deflater
+ * and the inflater, which all take arrays, so a direct buffer would only add one more copy.
+ */
+@Slf4j
+@Component
+public class BufferPool implements MeterBinder {
+
+    private static final int MIN_CLASS_SIZE = 4 * 1024;
+    private static final int MAX_CLASS_SIZE = 1024 * 1024;
+    private static final int CLASS_COUNT = Integer.numberOfTrailingZeros(MAX_CLASS_SIZE / MIN_CLASS_SIZE) + 1;
+
+    private final long maxBytes;
+    private final long acquireTimeoutNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private final Deque<byte[]>[] idle;
+    private long leasedBytes;
+    private long idleBytes;
+    private final AtomicLong acquired = new AtomicLong();
+    private final AtomicLong allocated = new AtomicLong();
+    private final AtomicLong waited = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    public BufferPool(@Value("${files.buffers.max.bytes:67108864}") long maxBytes,
+                      @Value("${files.buffers.acquire.timeout.millis:10000}") long acquireTimeoutMillis) {
+        if (maxBytes < MAX_CLASS_SIZE) {
+            throw new IllegalArgumentException(String.format("Buffer budget must be at least %d bytes, got %d",
+                    MAX_CLASS_SIZE, maxBytes));
+        }
+        this.maxBytes = maxBytes;
+        this.acquireTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMillis);
+        this.idle = new Deque[CLASS_COUNT];
+        for (int indx = 0; indx < CLASS_COUNT; indx++) {
+            idle[indx] = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * Leases a window of at least {@code size} bytes, or of the largest class if {@code size} is bigger.
+     *
+     * @throws IOException if the budget stays exhausted for the whole acquire timeout
+     */
+    public Lease acquire(int size) throws IOException {
+        int length = Math.max(1, Math.min(size, MAX_CLASS_SIZE));
+        int sizeClass = sizeClass(length);
+        int capacity = MIN_CLASS_SIZE << sizeClass;
+        long remaining = acquireTimeoutNanos;
+        lock.lock();
+        try {
+            acquired.incrementAndGet();
+            while (true) {
+                byte[] window = idle[sizeClass].pollFirst();
+                if (window != null) {
+                    idleBytes -= capacity;
+                    leasedBytes += capacity;
+                    return new Lease(window, length);
+                }
+                if (leasedBytes + idleBytes + capacity > maxBytes) {
+                    dropIdle(leasedBytes + idleBytes + capacity - maxBytes);
+                }
+                if (leasedBytes + idleBytes + capacity <= maxBytes) {
+                    leasedBytes += capacity;
+                    allocated.incrementAndGet();
+                    break;
+                }
+                if (remaining <= 0) {
+                    rejected.incrementAndGet();
+                    throw new IOException(String.format("Buffer budget of %d bytes is exhausted", maxBytes));
+                }
+                waited.incrementAndGet();
+                remaining = released.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a buffer");
+        } finally {
+            lock.unlock();
+        }
+        return new Lease(new byte[capacity], length);
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public long getLeasedBytes() {
+        lock.lock();
+        try {
+            return leasedBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getIdleBytes() {
+        lock.lock();
+        try {
+            return idleBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("chunkanalyzer.buffers.leased", this, BufferPool::getLeasedBytes)
+                .baseUnit("bytes")
+                .description("Bytes of windows currently leased from the buffer pool")
+                .register(registry);
+        Gauge.builder("chunkanalyzer.buffers.idle", this, BufferPool::getIdleBytes)
+                .baseUnit("bytes")
+                .description("Bytes of windows kept in the buffer pool for reuse")
+                .register(registry);
+        Gauge.builder("chunkanalyzer.buffers.max", this, BufferPool::getMaxBytes)
+                .baseUnit("bytes")
+                .description("Memory budget of the buffer pool")
+                .register(registry);
+        FunctionCounter.builder("chunkanalyzer.buffers.acquired", acquired, AtomicLong::get)
+                .description("Windows leased from the buffer pool")
+                .register(registry);
+        FunctionCounter.builder("chunkanalyzer.buffers.allocated", allocated, AtomicLong::get)
+                .description("Windows allocated because none of their size was idle")
+                .register(registry);
+        FunctionCounter.builder("chunkanalyzer.buffers.waits", waited, AtomicLong::get)
+                .description("Times a lease waited for the budget")
+                .register(registry);
+        FunctionCounter.builder("chunkanalyzer.buffers.rejected", rejected, AtomicLong::get)
+                .description("Leases refused after the acquire timeout")
+                .register(registry);
+    }
+
+    private void release(byte[] window) {
+        int sizeClass = sizeClass(window.length);
+        lock.lock();
+        try {
+            leasedBytes -= window.length;
+            idleBytes += window.length;
+            idle[sizeClass].addFirst(window);
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops idle windows, largest first, until {@code bytes} are freed or nothing is idle.
+     */
+    private void dropIdle(long bytes) {
+        long dropped = 0;
+        for (int sizeClass = CLASS_COUNT - 1; sizeClass >= 0 && dropped < bytes; sizeClass--) {
+            while (dropped < bytes && idle[sizeClass].pollFirst() != null) {
+                dropped += MIN_CLASS_SIZE << sizeClass;
+            }
+        }
+        idleBytes -= dropped;
+        if (dropped > 0) {
+            log.trace("Dropped {} idle buffer bytes", dropped);
+        }
+    }
+
+    private static int sizeClass(int size) {
+        if (size <= MIN_CLASS_SIZE) {
+            return 0;
+        }
+        return 32 - Integer.numberOfLeadingZeros(size - 1) - Integer.numberOfTrailingZeros(MIN_CLASS_SIZE);
+    }
+
+    /**
+     * A leased window; the first {@link #length()} bytes of {@link #array()} are the requested size.
+     * Closing the lease returns the window, which must not be used afterwards.
+     */
+    public final class Lease implements AutoCloseable {
+
+        private final byte[] window;
+        private final int length;
+        private boolean closed;
+
+        private Lease(byte[] window, int length) {
+            this.window = window;
+            this.length = length;
+        }
+
+        public byte[] array() {
+            return window;
+        }
+
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            release(window);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package me.aakrylov.chunkanalyzer.component;
+
+import lombok.extern.slf4j.Slf4j;
+import me.aakrylov.chunkanalyzer.util.ChunkNames;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Builds a file back from its parts.
+ * <p>
+ * The target is preallocated, every part gets its offset up front and is copied with
+ * {@link FileChannel#transferFrom}, so parts can be written in parallel without going through the heap.
+ * Compressed parts are inflated straight into their range of the target, also in parallel.
+ * Any failed part fails the whole assembly.
+ */
+@Slf4j
+@Component
+public class ChunkAssembler {
+
+    private static final int INFLATE_WINDOW_SIZE = 64 * 1024;
+
+    private final PartCodec partCodec;
+    private final BufferPool bufferPool;
+    private final ExecutorService ioExecutor;
+    private final boolean parallel;
+
+    public ChunkAssembler(PartCodec partCodec,
+                          BufferPool bufferPool,
+                          @Qualifier("ioExecutor") ExecutorService ioExecutor,
+                          @Value("${files.assemble.parallel:true}") boolean parallel) {
+        this.partCodec = partCodec;
+        this.bufferPool = bufferPool;
+        this.ioExecutor = ioExecutor;
+        this.parallel = parallel;
+    }
+
+    /**
+     * Lists the parts of a directory ordered by their numeric part index.
+     */
+    public List<Path> listParts(Path directory) throws IOException {
+        List<Path> parts = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory,
+                file -> ChunkNames.partIndex(file) > 0 && Files.isRegularFile(file))) {
+            files.forEach(parts::add);
+        }
+        parts.sort(Comparator.comparingInt(ChunkNames::partIndex));
+        for (int indx = 1; indx < parts.size(); indx++) {
+            if (ChunkNames.partIndex(parts.get(indx)) == ChunkNames.partIndex(parts.get(indx - 1))) {
+                throw new IOException(String.format("Parts [%s] and [%s] have the same index",
+                        parts.get(indx - 1).getFileName(), parts.get(indx).getFileName()));
+            }
+        }
+        return parts;
+    }
+
+    /**
+     * Writes the parts one after another into the target, replacing it if it exists.
+     *
+     * @return size of the assembled file
+     */
+    public long assemble(List<Path> parts, Path target) throws IOException {
+        return assemble(parts, target, null);
+    }
+
+    /**
+     * Same as {@link #assemble(List, Path)}, adding the time spent decompressing parts to {@code codecNanos}.
+     */
+    public long assemble(List<Path> parts, Path target, LongAdder codecNanos) throws IOException {
+        long[] offsets = new long[parts.size() + 1];
+        for (int indx = 0; indx < parts.size(); indx++) {
+            offsets[indx + 1] = offsets[indx] + partCodec.contentSize(parts.get(indx));
+        }
+        long totalSize = offsets[parts.size()];
+        try (RandomAccessFile file = new RandomAccessFile(target.toFile(), "rw")) {
+            file.setLength(0);
+            file.setLength(totalSize);
+        }
+        log.debug("Assembling {} parts into [{}], {} bytes", parts.size(), target, totalSize);
+        ProgressTracker progress = ProgressTracker.current();
+        try (FileChannel targetChannel = FileChannel.open(target, StandardOpenOption.WRITE)) {
+            if (parallel && parts.size() > 1) {
+                copyInParallel(parts, offsets, targetChannel, codecNanos, progress);
+            } else {
+                for (int indx = 0; indx < parts.size(); indx++) {
+                    copyPart(parts.get(indx), offsets[indx + 1] - offsets[indx], targetChannel, offsets[indx],
+                            codecNanos, progress);
+                }
+            }
+        }
+        return totalSize;
+    }
+
+    private void copyInParallel(List<Path> parts, long[] offsets, FileChannel targetChannel, LongAdder codecNanos,
+                                ProgressTracker progress) throws IOException {
+        List<Future<?>> copies = new ArrayList<>(parts.size());
+        try {
+            for (int indx = 0; indx < parts.size(); indx++) {
+                Path part = parts.get(indx);
+                long size = offsets[indx + 1] - offsets[indx];
+                long offset = offsets[indx];
+                copies.add(ioExecutor.submit(() -> {
+                    copyPart(part, size, targetChannel, offset, codecNanos, progress);
+                    return null;
+                }));
+            }
+            for (Future<?> copy : copies) {
+                copy.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e.getCause() instanceof IOException cause ? cause : new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while assembling file", e);
+        } finally {
+            copies.forEach(copy -> copy.cancel(true));
+        }
+    }
+
+    private void copyPart(Path part, long size, FileChannel target, long offset, LongAdder codecNanos,
+                          ProgressTracker progress) throws IOException {
+        progress.checkCancelled();
+        log.trace("Copying part [{}] to offset {}", part.getFileName(), offset);
+        if (ChunkNames.isCompressed(part)) {
+            inflatePart(part, size, target, offset, codecNanos);
+            progress.advance(size);
+            return;
+        }
+        try (FileChannel source = FileChannel.open(part, StandardOpenOption.READ)) {
+            long copied = 0;
+            while (copied < size) {
+                long transferred = target.transferFrom(source, offset + copied, size - copied);
+                if (transferred <= 0) {
+                    throw new IOException(String.format("Part [%s] ended after %d of %d bytes",
+                            part.getFileName(), copied, size));
+                }
+                copied += transferred;
+            }
+        }
+        progress.advance(size);
+    }
+
+    private void inflatePart(Path part, long size, FileChannel target, long offset,
+                             LongAdder codecNanos) throws IOException {
+        long copied = 0;
+        try (BufferPool.Lease lease = bufferPool.acquire((int) Math.min(INFLATE_WINDOW_SIZE, Math.max(size, 1)));
+             InputStream in = partCodec.open(part, codecNanos)) {
+            byte[] window = lease.array();
+            int bytesAmount;
+            while ((bytesAmount = in.read(window, 0, lease.length())) >= 0) {
+                if (copied + bytesAmount > size) {
+                    throw new IOException(String.format("Part [%s] has more than %d bytes", part.getFileName(), size));
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(window, 0, bytesAmount);
+                while (buffer.hasRemaining()) {
+                    copied += target.write(buffer, offset + copied);
+                }
+            }
+        }
+        if (copied != size) {
+            throw new IOException(String.format("Part [%s] ended after %d of %d bytes", part.getFileName(), copied, size));
+        }
+    }
+}
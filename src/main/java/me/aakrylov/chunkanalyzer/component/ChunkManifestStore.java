@@ -0,0 +1,106 @@
+package me.aakrylov.chunkanalyzer.component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import me.aakrylov.chunkanalyzer.model.ChunkManifest;
+import me.aakrylov.chunkanalyzer.model.ChunkRecipe;
+import me.aakrylov.chunkanalyzer.model.ManifestPart;
+import me.aakrylov.chunkanalyzer.util.ChunkNames;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads and writes the {@link ChunkNames#MANIFEST} file of a split directory
+ * and the {@link ChunkNames#RECIPE} file of a content-defined split.
+ */
+@Slf4j
+@Component
+public class ChunkManifestStore {
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter compactWriter;
+
+    public ChunkManifestStore(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.compactWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    /**
+     * Writes the manifest next to the parts. A temp file is moved over the old manifest,
+     * so readers never see a half-written one.
+     */
+    public void write(Path directory, ChunkManifest manifest) throws IOException {
+        writeAtomically(directory, ChunkNames.MANIFEST, manifest);
+        log.debug("Wrote manifest of [{}] with {} parts", manifest.getFileName(), manifest.getPartCount());
+    }
+
+    public Optional<ChunkManifest> read(Path directory) throws IOException {
+        return read(directory.resolve(ChunkNames.MANIFEST), ChunkManifest.class);
+    }
+
+    public void writeRecipe(Path directory, ChunkRecipe recipe) throws IOException {
+        writeAtomically(directory, ChunkNames.RECIPE, recipe);
+        log.debug("Wrote recipe of [{}] with {} chunks", recipe.getFileName(), recipe.getChunks().size());
+    }
+
+    public Optional<ChunkRecipe> readRecipe(Path directory) throws IOException {
+        return read(directory.resolve(ChunkNames.RECIPE), ChunkRecipe.class);
+    }
+
+    /**
+     * Resolves the parts of the manifest in assembly order and checks their sizes with a stat call,
+     * without reading the content.
+     *
+     * @throws IOException if a part is missing or has a different size
+     */
+    public List<Path> resolveParts(Path directory, ChunkManifest manifest) throws IOException {
+        if (manifest.getParts() == null || manifest.getParts().size() != manifest.getPartCount()) {
+            throw new IOException(String.format("Manifest of [%s] lists %d parts instead of %d",
+                    manifest.getFileName(), manifest.getParts() == null ? 0 : manifest.getParts().size(),
+                    manifest.getPartCount()));
+        }
+        List<Path> parts = new ArrayList<>(manifest.getPartCount());
+        long totalSize = 0;
+        for (ManifestPart part : manifest.getParts()) {
+            Path file = directory.resolve(part.getName());
+            if (!Files.isRegularFile(file)) {
+                throw new IOException(String.format("Part [%s] is missing", part.getName()));
+            }
+            long size = Files.size(file);
+            if (size != part.fileSize()) {
+                throw new IOException(String.format("Part [%s] has %d bytes, manifest expects %d",
+                        part.getName(), size, part.fileSize()));
+            }
+            parts.add(file);
+            totalSize += part.getSize();
+        }
+        if (totalSize != manifest.getTotalSize()) {
+            throw new IOException(String.format("Parts of [%s] have %d bytes, manifest expects %d",
+                    manifest.getFileName(), totalSize, manifest.getTotalSize()));
+        }
+        return parts;
+    }
+
+    private void writeAtomically(Path directory, String fileName, Object value) throws IOException {
+        Path target = directory.resolve(fileName);
+        Path temp = directory.resolve(fileName + ".tmp");
+        Files.write(temp, compactWriter.writeValueAsBytes(value));
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private <T> Optional<T> read(Path file, Class<T> type) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        return Optional.of(objectMapper.readValue(Files.readAllBytes(file), type));
+    }
+}
@@ -0,0 +1,302 @@
+package me.aakrylov.chunkanalyzer.component;
+
+import lombok.extern.slf4j.Slf4j;
+import me.aakrylov.chunkanalyzer.model.ChunkManifest;
+import me.aakrylov.chunkanalyzer.model.ManifestPart;
+import me.aakrylov.chunkanalyzer.type.ContentCharset;
+import me.aakrylov.chunkanalyzer.util.ChunkNames;
+import me.aakrylov.chunkanalyzer.util.FileRanges;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Splits a local file into parts of a fixed size.
+ * <p>
+ * Every part is a memory-mapped byte range of the source written straight to the part file,
+ * so the data never passes through the heap and parts can be written concurrently.
+ * The CRC32C of every part is computed during the copy and returned in a {@link ChunkManifest}.
+ * <p>
+ * Compressed parts are deflated by {@link PartCodec}, each on its own thread; the checksum then covers
+ * the compressed bytes as they are stored.
+ * <p>
+ * A source that is deleted right after the split, such as a spooled upload, is copied through a pooled
+ * buffer instead of mapped: a mapping holds the file until it is garbage collected, and Windows cannot
+ * delete it meanwhile.
+ */
+@Slf4j
+@Component
+public class ChunkSplitter {
+
+    private final ContentAnalyzer contentAnalyzer;
+    private final PartCodec partCodec;
+    private final BufferPool bufferPool;
+    private final ExecutorService ioExecutor;
+    private final boolean parallel;
+    private final int windowSize;
+
+    public ChunkSplitter(ContentAnalyzer contentAnalyzer,
+                         PartCodec partCodec,
+                         BufferPool bufferPool,
+                         @Qualifier("ioExecutor") ExecutorService ioExecutor,
+                         @Value("${files.split.parallel:true}") boolean parallel,
+                         @Value("${files.analyze.window.size:65536}") int windowSize) {
+        this.contentAnalyzer = contentAnalyzer;
+        this.partCodec = partCodec;
+        this.bufferPool = bufferPool;
+        this.ioExecutor = ioExecutor;
+        this.parallel = parallel;
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Writes the parts of {@code source} into an existing destination directory.
+     *
+     * @param codecNanos counter of the time spent compressing, may be {@code null}
+     * @return manifest of the written parts
+     */
+    public ChunkManifest split(Path source, String fileName, Path destinationDir, long partSize,
+                               boolean compress, LongAdder codecNanos) throws IOException {
+        return split(source, fileName, destinationDir, partSize, compress, codecNanos, true);
+    }
+
+    /**
+     * @param mapSource whether part ranges are memory-mapped or copied through a buffer;
+     *                  pass {@code false} for a source that is deleted right afterwards
+     */
+    public ChunkManifest split(Path source, String fileName, Path destinationDir, long partSize,
+                               boolean compress, LongAdder codecNanos, boolean mapSource) throws IOException {
+        ProgressTracker progress = ProgressTracker.current();
+        try (FileChannel sourceChannel = FileChannel.open(source, StandardOpenOption.READ)) {
+            long size = sourceChannel.size();
+            int partCount = (int) ((size + partSize - 1) / partSize);
+            ManifestPart[] parts = new ManifestPart[partCount];
+            if (parallel && partCount > 1) {
+                writeInParallel(sourceChannel, fileName, destinationDir, partSize, compress, codecNanos, mapSource,
+                        parts, progress);
+            } else {
+                for (int partIndex = 1; partIndex <= partCount; partIndex++) {
+                    parts[partIndex - 1] = writePart(sourceChannel, fileName, destinationDir, partSize, partIndex,
+                            compress, codecNanos, mapSource, progress);
+                }
+            }
+            return manifest(fileName, size, partSize, compress, Arrays.asList(parts));
+        }
+    }
+
+    /**
+     * Writes parts while the content is still arriving, one window at a time.
+     * When a listener is given, every window is analyzed for the charset in the same pass
+     * with offsets relative to the stream start.
+     *
+     * @param codecNanos counter of the time spent compressing, may be {@code null}
+     * @return manifest of the written parts
+     */
+    public ChunkManifest split(InputStream content, String fileName, Path destinationDir, long partSize,
+                               boolean compress, ContentCharset charset, FindingListener listener,
+                               LongAdder codecNanos) throws IOException {
+        ProgressTracker progress = ProgressTracker.current();
+        ContentScanner scanner = listener == null ? null : contentAnalyzer.scanner(charset);
+        BufferPool.Lease lease = bufferPool.acquire(windowSize);
+        byte[] window = lease.array();
+        List<ManifestPart> parts = new ArrayList<>();
+        CRC32C crc = new CRC32C();
+        long offset = 0;
+        OutputStream part = null;
+        try {
+            int bytesAmount;
+            while ((bytesAmount = content.read(window, 0, lease.length())) >= 0) {
+                progress.checkCancelled();
+                if (scanner != null) {
+                    scanner.scan(window, 0, bytesAmount, offset, listener);
+                }
+                int written = 0;
+                while (written < bytesAmount) {
+                    long partOffset = offset % partSize;
+                    if (partOffset == 0) {
+                        if (part != null) {
+                            part.close();
+                            parts.add(completedPart(destinationDir, fileName, parts.size() + 1, partSize, compress, crc));
+                        }
+                        log.trace("Splitting file {}, part {}", fileName, parts.size() + 1);
+                        part = openPart(destinationDir.resolve(ChunkNames.partName(fileName, parts.size() + 1, compress)),
+                                compress, crc, codecNanos);
+                    }
+                    int length = (int) Math.min(bytesAmount - written, partSize - partOffset);
+                    part.write(window, written, length);
+                    written += length;
+                    offset += length;
+                }
+                progress.advance(bytesAmount);
+            }
+        } finally {
+            lease.close();
+            if (part != null) {
+                part.close();
+            }
+        }
+        if (scanner != null) {
+            scanner.finish(listener);
+        }
+        if (part != null) {
+            long lastPartSize = offset - (long) parts.size() * partSize;
+            parts.add(completedPart(destinationDir, fileName, parts.size() + 1, lastPartSize, compress, crc));
+        }
+        return manifest(fileName, offset, partSize, compress, parts);
+    }
+
+    /**
+     * Opens a part file of the streaming split or of an unmapped source; the checksum sees the bytes as they
+     * are written to disk.
+     */
+    private OutputStream openPart(Path file, boolean compress, CRC32C crc, LongAdder codecNanos) throws IOException {
+        OutputStream out = new CheckedOutputStream(Files.newOutputStream(file), crc);
+        return compress ? partCodec.compressing(out, codecNanos) : out;
+    }
+
+    private void writeInParallel(FileChannel sourceChannel, String fileName, Path destinationDir, long partSize,
+                                 boolean compress, LongAdder codecNanos, boolean mapSource, ManifestPart[] parts,
+                                 ProgressTracker progress) throws IOException {
+        List<Future<?>> writes = new ArrayList<>(parts.length);
+        try {
+            for (int partIndex = 1; partIndex <= parts.length; partIndex++) {
+                int index = partIndex;
+                writes.add(ioExecutor.submit(() -> {
+                    parts[index - 1] = writePart(sourceChannel, fileName, destinationDir, partSize, index,
+                            compress, codecNanos, mapSource, progress);
+                    return null;
+                }));
+            }
+            for (Future<?> write : writes) {
+                write.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e.getCause() instanceof IOException cause ? cause : new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while splitting file", e);
+        } finally {
+            writes.forEach(write -> write.cancel(true));
+        }
+    }
+
+    /**
+     * Maps the byte range of the part once: the checksum is computed over the mapping
+     * and the same mapping is written to the part file.
+     */
+    private ManifestPart writePart(FileChannel source, String fileName, Path destinationDir, long partSize,
+                                   int partIndex, boolean compress, LongAdder codecNanos, boolean mapSource,
+                                   ProgressTracker progress) throws IOException {
+        progress.checkCancelled();
+        long offset = (partIndex - 1) * partSize;
+        long size = Math.min(partSize, source.size() - offset);
+        String partName = ChunkNames.partName(fileName, partIndex, compress);
+        log.trace("Splitting file {}, part {}", fileName, partIndex);
+        if (!mapSource) {
+            ManifestPart part = copyPart(source, offset, size, destinationDir.resolve(partName), partIndex,
+                    compress, codecNanos);
+            progress.advance(size);
+            return part;
+        }
+        MappedByteBuffer region = source.map(FileChannel.MapMode.READ_ONLY, offset, size);
+        if (compress) {
+            ManifestPart part = writeCompressedPart(region, destinationDir.resolve(partName), partIndex, codecNanos);
+            progress.advance(size);
+            return part;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(region.duplicate());
+        try (FileChannel target = FileChannel.open(destinationDir.resolve(partName), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (region.hasRemaining()) {
+                target.write(region);
+            }
+        }
+        progress.advance(size);
+        return new ManifestPart(partIndex, partName, size, crc.getValue(), null);
+    }
+
+    /**
+     * Deflates the mapped region window by window; the deflater needs a heap array, so this is the one
+     * place where split copies the content.
+     */
+    private ManifestPart writeCompressedPart(MappedByteBuffer region, Path file, int partIndex,
+                                             LongAdder codecNanos) throws IOException {
+        long size = region.remaining();
+        CRC32C crc = new CRC32C();
+        try (BufferPool.Lease lease = bufferPool.acquire((int) Math.min(windowSize, size));
+             OutputStream out = partCodec.compressing(new CheckedOutputStream(Files.newOutputStream(file), crc), codecNanos)) {
+            byte[] window = lease.array();
+            while (region.hasRemaining()) {
+                int length = Math.min(lease.length(), region.remaining());
+                region.get(window, 0, length);
+                out.write(window, 0, length);
+            }
+        }
+        return new ManifestPart(partIndex, file.getFileName().toString(), size, crc.getValue(), Files.size(file));
+    }
+
+    /**
+     * Reads the byte range of the part window by window and writes it through {@link #openPart}.
+     */
+    private ManifestPart copyPart(FileChannel source, long offset, long size, Path file, int partIndex,
+                                  boolean compress, LongAdder codecNanos) throws IOException {
+        CRC32C crc = new CRC32C();
+        try (BufferPool.Lease lease = bufferPool.acquire((int) Math.min(windowSize, size));
+             OutputStream out = openPart(file, compress, crc, codecNanos)) {
+            ByteBuffer window = ByteBuffer.wrap(lease.array());
+            long copied = 0;
+            while (copied < size) {
+                window.clear().limit((int) Math.min(lease.length(), size - copied));
+                FileRanges.readFully(source, window, offset + copied);
+                out.write(lease.array(), 0, window.limit());
+                copied += window.limit();
+            }
+        }
+        Long storedSize = compress ? Files.size(file) : null;
+        return new ManifestPart(partIndex, file.getFileName().toString(), size, crc.getValue(), storedSize);
+    }
+
+    private ManifestPart completedPart(Path destinationDir, String fileName, int partIndex, long size,
+                                       boolean compress, CRC32C crc) throws IOException {
+        String partName = ChunkNames.partName(fileName, partIndex, compress);
+        Long storedSize = compress ? Files.size(destinationDir.resolve(partName)) : null;
+        ManifestPart part = new ManifestPart(partIndex, partName, size, crc.getValue(), storedSize);
+        crc.reset();
+        return part;
+    }
+
+    private ChunkManifest manifest(String fileName, long totalSize, long partSize, boolean compress,
+                                   List<ManifestPart> parts) {
+        return ChunkManifest.builder()
+                .setFileName(fileName)
+                .setTotalSize(totalSize)
+                .setPartSize(partSize)
+                .setPartCount(parts.size())
+                .setCompression(compress ? PartCodec.GZIP : null)
+                .setParts(parts)
+                .build();
+    }
+}
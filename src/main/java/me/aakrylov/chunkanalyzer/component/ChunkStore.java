@@ -0,0 +1,100 @@
+package me.aakrylov.chunkanalyzer.component;
+
+import lombok.extern.slf4j.Slf4j;
+import me.aakrylov.chunkanalyzer.model.ChunkRecipe;
+import me.aakrylov.chunkanalyzer.model.RecipeChunk;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Content-addressed store of chunks: a chunk lives at {@code <store>/<first two hash digits>/<hash>}
+ * and is written only once, however many files or versions contain it.
+ * <p>
+ * A chunk is written to a temp file and moved into place, so a chunk that exists is always complete;
+ * two writers of the same chunk race harmlessly because they write the same bytes.
+ */
+@Slf4j
+@Component
+public class ChunkStore {
+
+    private final Path root;
+
+    public ChunkStore(@Value("${files.cdc.store.location:${files.split.default.location}chunk-store}") String location) {
+        this.root = Paths.get(location);
+    }
+
+    public Path path(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    /**
+     * Stores the remaining bytes of the buffer under the hash unless the store already has them.
+     * The buffer position is left untouched.
+     *
+     * @return whether the chunk was written
+     */
+    public boolean put(String hash, ByteBuffer content) throws IOException {
+        Path target = path(hash);
+        if (Files.isRegularFile(target)) {
+            return false;
+        }
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), hash, ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer source = content.duplicate();
+                while (source.hasRemaining()) {
+                    channel.write(source);
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            log.trace("Chunk {} was stored concurrently", hash);
+            return false;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return true;
+    }
+
+    /**
+     * Resolves the chunks of the recipe in file order and checks their sizes with a stat call.
+     *
+     * @throws IOException if a chunk is missing or has a different size
+     */
+    public List<Path> resolve(ChunkRecipe recipe) throws IOException {
+        List<Path> chunks = new ArrayList<>(recipe.getChunks().size());
+        long totalSize = 0;
+        for (RecipeChunk chunk : recipe.getChunks()) {
+            Path file = path(chunk.getHash());
+            if (!Files.isRegularFile(file)) {
+                throw new IOException(String.format("Chunk [%s] at offset %d is missing from the store",
+                        chunk.getHash(), chunk.getOffset()));
+            }
+            long size = Files.size(file);
+            if (size != chunk.getSize()) {
+                throw new IOException(String.format("Chunk [%s] has %d bytes, recipe expects %d",
+                        chunk.getHash(), size, chunk.getSize()));
+            }
+            chunks.add(file);
+            totalSize += size;
+        }
+        if (totalSize != recipe.getTotalSize()) {
+            throw new IOException(String.format("Chunks of [%s] have %d bytes, recipe expects %d",
+                    recipe.getFileName(), totalSize, recipe.getTotalSize()));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,82 @@
+package me.aakrylov.chunkanalyzer.component;
+
+import lombok.extern.slf4j.Slf4j;
+import me.aakrylov.chunkanalyzer.model.ChunkManifest;
+import me.aakrylov.chunkanalyzer.model.ManifestPart;
+import me.aakrylov.chunkanalyzer.util.Checksums;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Checks the parts of a split directory against their manifest.
+ * Parts are checksummed concurrently on the IO executor.
+ */
+@Slf4j
+@Component
+public class ChunkVerifier {
+
+    private final ExecutorService ioExecutor;
+
+    public ChunkVerifier(@Qualifier("ioExecutor") ExecutorService ioExecutor) {
+        this.ioExecutor = ioExecutor;
+    }
+
+    /**
+     * @return one message per missing, truncated or corrupted part, empty if every part matches
+     */
+    public List<String> verify(Path directory, ChunkManifest manifest) throws IOException {
+        ProgressTracker progress = ProgressTracker.current();
+        List<Future<String>> checks = new ArrayList<>(manifest.getParts().size());
+        List<String> problems = new ArrayList<>();
+        try {
+            for (ManifestPart part : manifest.getParts()) {
+                checks.add(ioExecutor.submit(() -> verifyPart(directory, part, progress)));
+            }
+            for (Future<String> check : checks) {
+                String problem = check.get();
+                if (problem != null) {
+                    problems.add(problem);
+                }
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e.getCause() instanceof IOException cause ? cause : new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while verifying parts", e);
+        } finally {
+            checks.forEach(check -> check.cancel(true));
+        }
+        return problems;
+    }
+
+    private String verifyPart(Path directory, ManifestPart part, ProgressTracker progress) throws IOException {
+        progress.checkCancelled();
+        Path file = directory.resolve(part.getName());
+        if (!Files.isRegularFile(file)) {
+            return String.format("Part [%s] is missing", part.getName());
+        }
+        long size = Files.size(file);
+        if (size != part.fileSize()) {
+            return String.format("Part [%s] has %d bytes, manifest expects %d", part.getName(), size, part.fileSize());
+        }
+        long crc = Checksums.crc32c(file);
+        progress.advance(size);
+        if (crc != part.getCrc32c()) {
+            return String.format("Part [%s] has CRC32C %08x, manifest expects %08x", part.getName(), crc, part.getCrc32c());
+        }
+        log.trace("Part [{}] matches the manifest", part.getName());
+        return null;
+    }
+}
@@ -0,0 +1,76 @@
+package me.aakrylov.chunkanalyzer.component;
+
+import me.aakrylov.chunkanalyzer.type.ContentCharset;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Scans content for incorrect symbols in fixed-size windows, so memory use does not depend on the content size.
+ * Offsets passed to the {@link FindingListener} are absolute byte offsets from the start of the stream.
+ */
+@Component
+public class ContentAnalyzer {
+
+    private final SymbolClassifier symbolClassifier;
+    private final BufferPool bufferPool;
+    private final int windowSize;
+
+    public ContentAnalyzer(SymbolClassifier symbolClassifier,
+                           BufferPool bufferPool,
+                           @Value("${files.analyze.window.size:65536}") int windowSize) {
+        this.symbolClassifier = symbolClassifier;
+        this.bufferPool = bufferPool;
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Reads the stream to the end and reports every incorrect US-ASCII symbol.
+     *
+     * @return number of bytes analyzed
+     */
+    public long analyze(InputStream in, FindingListener listener) throws IOException {
+        return analyze(in, symbolClassifier, 0, listener);
+    }
+
+    /**
+     * Reads the stream to the end and reports every byte that is not a correct symbol of the charset.
+     *
+     * @return number of bytes analyzed
+     */
+    public long analyze(InputStream in, ContentCharset charset, FindingListener listener) throws IOException {
+        return analyze(in, scanner(charset), 0, listener);
+    }
+
+    /**
+     * Reads the stream to the end with the given scanner; {@code baseOffset} is the offset of the first byte.
+     *
+     * @return number of bytes analyzed
+     */
+    public long analyze(InputStream in, ContentScanner scanner, long baseOffset, FindingListener listener)
+            throws IOException {
+        ProgressTracker progress = ProgressTracker.current();
+        long offset = baseOffset;
+        try (BufferPool.Lease lease = bufferPool.acquire(windowSize)) {
+            byte[] window = lease.array();
+            int bytesAmount;
+            while ((bytesAmount = in.read(window, 0, lease.length())) >= 0) {
+                progress.checkCancelled();
+                scanner.scan(window, 0, bytesAmount, offset, listener);
+                offset += bytesAmount;
+                progress.advance(bytesAmount);
+            }
+        }
+        scanner.finish(listener);
+        return offset - baseOffset;
+    }
+
+    /**
+     * @return scanner of a whole content in the given charset
+     */
+    public ContentScanner scanner(ContentCharset charset) {
+        return charset == ContentCharset.US_ASCII ? symbolClassifier : ContentScanner.of(charset);
+    }
+}
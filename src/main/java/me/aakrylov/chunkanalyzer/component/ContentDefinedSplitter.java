@@ -0,0 +1,150 @@
+package me.aakrylov.chunkanalyzer.component;
+
+import lombok.extern.slf4j.Slf4j;
+import me.aakrylov.chunkanalyzer.model.ChunkRecipe;
+import me.aakrylov.chunkanalyzer.model.RecipeChunk;
+import me.aakrylov.chunkanalyzer.util.Checksums;
+import me.aakrylov.chunkanalyzer.util.FileRanges;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Splits a local file at content-defined boundaries into the {@link ChunkStore}.
+ * <p>
+ * Boundaries are found in one sequential pass over memory-mapped windows of the source; every chunk is then
+ * hashed and stored on the IO executor straight from the mapping. An edit of the file only changes the chunks
+ * around it, so a new version of a file stores just those.
+ * <p>
+ * A source that is deleted right after the split, such as a spooled upload, is read into heap windows instead,
+ * and every window is stored before the next one is read: a mapping holds the file until it is garbage
+ * collected, and Windows cannot delete it meanwhile.
+ */
+@Slf4j
+@Component
+public class ContentDefinedSplitter {
+
+    private static final long MAP_WINDOW_SIZE = 64 * 1024 * 1024;
+    private static final long READ_WINDOW_SIZE = 8 * 1024 * 1024;
+
+    private final GearChunker chunker;
+    private final ChunkStore chunkStore;
+    private final ExecutorService ioExecutor;
+
+    public ContentDefinedSplitter(GearChunker chunker, ChunkStore chunkStore,
+                                  @Qualifier("ioExecutor") ExecutorService ioExecutor) {
+        this.chunker = chunker;
+        this.chunkStore = chunkStore;
+        this.ioExecutor = ioExecutor;
+    }
+
+    /**
+     * @param storedBytes counter of the bytes of chunks that were new to the store, may be {@code null}
+     * @return recipe of the file
+     */
+    public ChunkRecipe split(Path source, String fileName, LongAdder storedBytes) throws IOException {
+        return split(source, fileName, storedBytes, true);
+    }
+
+    /**
+     * @param mapSource whether windows are memory-mapped or read into the heap;
+     *                  pass {@code false} for a source that is deleted right afterwards
+     */
+    public ChunkRecipe split(Path source, String fileName, LongAdder storedBytes, boolean mapSource)
+            throws IOException {
+        ProgressTracker progress = ProgressTracker.current();
+        Set<String> claimed = ConcurrentHashMap.newKeySet();
+        List<Future<RecipeChunk>> chunks = new ArrayList<>();
+        long size;
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            size = channel.size();
+            long windowSize = Math.max(mapSource ? MAP_WINDOW_SIZE : READ_WINDOW_SIZE, 2L * chunker.getMaxSize());
+            long offset = 0;
+            while (offset < size) {
+                progress.checkCancelled();
+                long windowEnd = Math.min(size, offset + windowSize);
+                ByteBuffer window = mapSource
+                        ? channel.map(FileChannel.MapMode.READ_ONLY, offset, windowEnd - offset)
+                        : read(channel, offset, (int) (windowEnd - offset));
+                int firstChunk = chunks.size();
+                int limit = window.capacity();
+                int position = 0;
+                while (position < limit && (windowEnd == size || limit - position >= chunker.getMaxSize())) {
+                    int length = chunker.cut(window, position, limit);
+                    ByteBuffer chunk = window.slice(position, length);
+                    long chunkOffset = offset + position;
+                    chunks.add(ioExecutor.submit(() -> storeChunk(chunk, chunkOffset, claimed, storedBytes, progress)));
+                    position += length;
+                }
+                if (!mapSource) {
+                    await(chunks.subList(firstChunk, chunks.size()));
+                }
+                offset += position;
+            }
+            return ChunkRecipe.builder()
+                    .setFileName(fileName)
+                    .setTotalSize(size)
+                    .setMinSize(chunker.getMinSize())
+                    .setAvgSize(chunker.getAvgSize())
+                    .setMaxSize(chunker.getMaxSize())
+                    .setChunks(stored(chunks))
+                    .build();
+        } finally {
+            chunks.forEach(chunk -> chunk.cancel(true));
+        }
+    }
+
+    private RecipeChunk storeChunk(ByteBuffer chunk, long offset, Set<String> claimed, LongAdder storedBytes,
+                                   ProgressTracker progress) throws IOException {
+        progress.checkCancelled();
+        String hash = Checksums.sha256(chunk);
+        if (claimed.add(hash) && chunkStore.put(hash, chunk) && storedBytes != null) {
+            storedBytes.add(chunk.remaining());
+        }
+        progress.advance(chunk.remaining());
+        return new RecipeChunk(hash, offset, chunk.remaining());
+    }
+
+    private static ByteBuffer read(FileChannel channel, long offset, int length) throws IOException {
+        ByteBuffer window = ByteBuffer.allocate(length);
+        FileRanges.readFully(channel, window, offset);
+        return window.flip();
+    }
+
+    private List<RecipeChunk> stored(List<Future<RecipeChunk>> chunks) throws IOException {
+        List<RecipeChunk> recipeChunks = await(chunks);
+        log.debug("Stored {} content-defined chunks", recipeChunks.size());
+        return recipeChunks;
+    }
+
+    private List<RecipeChunk> await(List<Future<RecipeChunk>> chunks) throws IOException {
+        List<RecipeChunk> recipeChunks = new ArrayList<>(chunks.size());
+        try {
+            for (Future<RecipeChunk> chunk : chunks) {
+                recipeChunks.add(chunk.get());
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e.getCause() instanceof IOException cause ? cause : new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while storing chunks", e);
+        }
+        return recipeChunks;
+    }
+}
@@ -0,0 +1,46 @@
+package me.aakrylov.chunkanalyzer.component;
+
+import me.aakrylov.chunkanalyzer.type.ContentCharset;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Scans one content for incorrect symbols, range after range in offset order.
+ * Offsets reported to the listener are byte offsets; {@code baseOffset} is the offset of {@code from}.
+ * <p>
+ * Single-byte charsets keep no state between ranges. Multi-byte charsets carry an unfinished sequence
+ * over to the next range, so a sequence cut by a window or chunk boundary is still validated as a whole.
+ */
+public interface ContentScanner {
+
+    void scan(byte[] content, int from, int to, long baseOffset, FindingListener listener);
+
+    void scan(ByteBuffer content, int from, int to, long baseOffset, FindingListener listener);
+
+    /**
+     * Called after the last range; reports a sequence cut off by the end of the content.
+     */
+    default void finish(FindingListener listener) {
+    }
+
+    /**
+     * Scanner of a whole content.
+     */
+    static ContentScanner of(ContentCharset charset) {
+        return of(charset, Long.MIN_VALUE, Long.MAX_VALUE, true);
+    }
+
+    /**
+     * Scanner of a part of a bigger content. The caller may pass up to {@code maxSequenceLength - 1} bytes
+     * before {@code ownedFrom} and after {@code ownedTo}; only sequences starting in {@code [ownedFrom, ownedTo)}
+     * are reported, so neighbouring parts scanned this way report every sequence exactly once.
+     *
+     * @param endOfContent whether {@code ownedTo} is the end of the whole content
+     */
+    static ContentScanner of(ContentCharset charset, long ownedFrom, long ownedTo, boolean endOfContent) {
+        if (charset == ContentCharset.UTF_8) {
+            return new Utf8Scanner(ownedFrom, ownedTo, endOfContent);
+        }
+        return SymbolClassifier.forCharset(charset);
+    }
+}
@@ -0,0 +1,7 @@
+package me.aakrylov.chunkanalyzer.component;
+
+@FunctionalInterface
+public interface FindingListener {
+
+    void onIncorrectSymbol(long offset, byte symbol);
+}
@@ -0,0 +1,65 @@
+package me.aakrylov.chunkanalyzer.component;
+
+import me.aakrylov.chunkanalyzer.model.FileOperationResult;
+import me.aakrylov.chunkanalyzer.model.FindingsReport;
+import me.aakrylov.chunkanalyzer.type.FileOperationStatus;
+
+import java.nio.file.Path;
+import java.util.TreeMap;
+
+/**
+ * Sums the analysis results of the parts or chunks of one file into a single report and describes every one
+ * that failed or has findings on its own line. The finding lists stay in the results of the parts.
+ * Not thread-safe.
+ */
+public class FindingsAggregator {
+
+    private static final String FILE_ERROR = "Error in file [%s]: %s";
+    private static final String CHUNK_ERROR = "Error in chunk [%s] at offset [%d]: %s";
+
+    private final FindingsReport totals = FindingsReport.builder()
+            .setHistogram(new TreeMap<>())
+            .build();
+    private final StringBuilder description = new StringBuilder();
+
+    public void addFile(Path file, FileOperationResult result) {
+        merge(result.getFindings());
+        if (isReported(result)) {
+            description.append(String.format(FILE_ERROR, file, result.getDescription())).append("\r\n");
+        }
+    }
+
+    public void addChunk(String hash, long offset, FileOperationResult result) {
+        merge(result.getFindings());
+        if (isReported(result)) {
+            description.append(String.format(CHUNK_ERROR, hash, offset, result.getDescription())).append("\r\n");
+        }
+    }
+
+    public FindingsReport getTotals() {
+        return totals;
+    }
+
+    /**
+     * @return one line per part that failed or has findings, {@code null} if there are none
+     */
+    public String getDescription() {
+        return description.length() == 0 ? null : description.toString();
+    }
+
+    private void merge(FindingsReport findings) {
+        if (findings == null) {
+            return;
+        }
+        totals.setTotalSymbols(totals.getTotalSymbols() + findings.getTotalSymbols());
+        totals.setTotalRuns(totals.getTotalRuns() + findings.getTotalRuns());
+        if (findings.getHistogram() != null) {
+            findings.getHistogram().forEach((symbol, count) -> totals.getHistogram().merge(symbol, count, Long::sum));
+        }
+    }
+
+    private static boolean isReported(FileOperationResult result) {
+        return FileOperationStatus.ERROR.equals(result.getStatus())
+                || result.getDescription() != null && !result.getDescription().isEmpty();
+    }
+}
@@ -0,0 +1,108 @@
+package me.aakrylov.chunkanalyzer.component;
+
+import me.aakrylov.chunkanalyzer.model.Finding;
+import me.aakrylov.chunkanalyzer.model.FindingsReport;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Coalesces incorrect symbols into runs of identical consecutive bytes and keeps per-symbol totals.
+ * <p>
+ * At most {@code limit} runs are kept for the report; every run is also handed to the optional sink
+ * as soon as it is complete, so callers can stream findings without keeping them. Symbols must be
+ * reported in offset order. Not thread-safe.
+ */
+public class FindingsCollector implements FindingListener {
+
+    private final int limit;
+    private final Consumer<Finding> sink;
+    private final long[] histogram = new long[256];
+    private final List<Finding> findings = new ArrayList<>();
+    private Finding first;
+    private long totalSymbols;
+    private long totalRuns;
+
+    private long runOffset = -1;
+    private int runSymbol;
+    private long runLength;
+
+    public FindingsCollector(int limit) {
+        this(limit, null);
+    }
+
+    public FindingsCollector(int limit, Consumer<Finding> sink) {
+        this.limit = limit;
+        this.sink = sink;
+    }
+
+    @Override
+    public void onIncorrectSymbol(long offset, byte symbol) {
+        int value = symbol & 0xFF;
+        histogram[value]++;
+        totalSymbols++;
+        if (runOffset >= 0 && value == runSymbol && offset == runOffset + runLength) {
+            runLength++;
+            return;
+        }
+        flushRun();
+        runOffset = offset;
+        runSymbol = value;
+        runLength = 1;
+    }
+
+    public long getTotalSymbols() {
+        return totalSymbols;
+    }
+
+    public long getTotalRuns() {
+        flushRun();
+        return totalRuns;
+    }
+
+    /**
+     * @return first run or {@code null} if nothing was found
+     */
+    public Finding first() {
+        flushRun();
+        return first;
+    }
+
+    public FindingsReport toReport() {
+        flushRun();
+        Map<String, Long> symbolCounts = new TreeMap<>();
+        for (int value = 0; value < histogram.length; value++) {
+            if (histogram[value] > 0) {
+                symbolCounts.put(String.format("0x%02X", value), histogram[value]);
+            }
+        }
+        return FindingsReport.builder()
+                .setTotalSymbols(totalSymbols)
+                .setTotalRuns(totalRuns)
+                .setTruncated(limit > 0 && totalRuns > findings.size())
+                .setHistogram(symbolCounts)
+                .setFindings(limit > 0 ? new ArrayList<>(findings) : null)
+                .build();
+    }
+
+    private void flushRun() {
+        if (runOffset < 0) {
+            return;
+        }
+        Finding finding = new Finding(runOffset, runSymbol, runLength);
+        totalRuns++;
+        if (first == null) {
+            first = finding;
+        }
+        if (findings.size() < limit) {
+            findings.add(finding);
+        }
+        if (sink != null) {
+            sink.accept(finding);
+        }
+        runOffset = -1;
+    }
+}
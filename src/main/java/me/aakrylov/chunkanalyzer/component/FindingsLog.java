@@ -0,0 +1,183 @@
+package me.aakrylov.chunkanalyzer.component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import me.aakrylov.chunkanalyzer.model.Finding;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Audit log of every finding, written off the analysis threads.
+ * <p>
+ * Analyzers only offer records to a bounded ring buffer; when it is full the record is dropped and counted,
+ * the analyzer never waits. A background thread drains the buffer and writes up to {@code files.log.bundle.size}
+ * records with a single logger call to the {@value #FINDINGS_LOGGER} logger.
+ */
+@Slf4j
+@Component
+public class FindingsLog implements MeterBinder {
+
+    public static final String FINDINGS_LOGGER = "me.aakrylov.chunkanalyzer.findings";
+
+    private static final long FLUSH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long STOP_TIMEOUT_MILLIS = 5000;
+
+    private final Logger findingsLogger = LoggerFactory.getLogger(FINDINGS_LOGGER);
+    private final boolean enabled;
+    private final int bundleSize;
+    private final BlockingQueue<Entry> buffer;
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean running;
+    private Thread writer;
+
+    public FindingsLog(@Value("${files.log.findings.enabled:true}") boolean enabled,
+                       @Value("${files.log.bundle.size:250}") int bundleSize,
+                       @Value("${files.log.findings.buffer.capacity:65536}") int capacity) {
+        this.enabled = enabled;
+        this.bundleSize = Math.max(bundleSize, 1);
+        this.buffer = new ArrayBlockingQueue<>(Math.max(capacity, 1));
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled || writer != null) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::writeBundles, "findings-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stops the writer after the records already in the buffer are written.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.interrupt();
+        writer.join(STOP_TIMEOUT_MILLIS);
+        writer = null;
+    }
+
+    /**
+     * @return sink that logs the findings of {@code source}, or {@code null} if the log is disabled
+     */
+    public Consumer<Finding> sink(String source) {
+        if (!enabled) {
+            return null;
+        }
+        return finding -> offer(new Entry(source, finding));
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("chunkanalyzer.findings.log.written", written, AtomicLong::get)
+                .description("Findings written to the findings log")
+                .register(registry);
+        FunctionCounter.builder("chunkanalyzer.findings.log.dropped", dropped, AtomicLong::get)
+                .description("Findings dropped because the findings log buffer was full")
+                .register(registry);
+    }
+
+    private void offer(Entry entry) {
+        if (!buffer.offer(entry)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private void writeBundles() {
+        List<Entry> bundle = new ArrayList<>(bundleSize);
+        try {
+            while (running) {
+                Entry head = buffer.poll(FLUSH_INTERVAL_NANOS, TimeUnit.NANOSECONDS);
+                if (head == null) {
+                    continue;
+                }
+                bundle.add(head);
+                fillBundle(bundle);
+                write(bundle);
+            }
+        } catch (InterruptedException e) {
+            log.debug("Findings log is stopping");
+        }
+        do {
+            buffer.drainTo(bundle, bundleSize - bundle.size());
+            write(bundle);
+        } while (!buffer.isEmpty());
+    }
+
+    /**
+     * Waits up to the flush interval for the bundle to fill up, so a slow trickle of findings
+     * is still written in bundles and a burst is written as soon as a bundle is full.
+     */
+    private void fillBundle(List<Entry> bundle) throws InterruptedException {
+        long deadline = System.nanoTime() + FLUSH_INTERVAL_NANOS;
+        while (bundle.size() < bundleSize) {
+            buffer.drainTo(bundle, bundleSize - bundle.size());
+            long remaining = deadline - System.nanoTime();
+            if (bundle.size() >= bundleSize || remaining <= 0) {
+                return;
+            }
+            Entry next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            bundle.add(next);
+        }
+    }
+
+    private void write(List<Entry> bundle) {
+        if (bundle.isEmpty()) {
+            return;
+        }
+        StringBuilder text = new StringBuilder(bundle.size() * 64);
+        for (Entry entry : bundle) {
+            text.append(System.lineSeparator())
+                    .append(entry.source)
+                    .append(" offset=").append(entry.finding.getOffset())
+                    .append(" symbol=").append(String.format("0x%02X", entry.finding.getSymbol()))
+                    .append(" length=").append(entry.finding.getLength());
+        }
+        findingsLogger.info("{} findings:{}", bundle.size(), text);
+        written.addAndGet(bundle.size());
+        bundle.clear();
+    }
+
+    private static final class Entry {
+
+        private final String source;
+        private final Finding finding;
+
+        private Entry(String source, Finding finding) {
+            this.source = source;
+            this.finding = finding;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package me.aakrylov.chunkanalyzer.component;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+
+/**
+ * Finds content-defined chunk boundaries with the Gear rolling hash, as in FastCDC.
+ * <p>
+ * The hash is shifted left by one bit per byte, so its top bits depend on the last 64 bytes only and a boundary
+ * moves together with the content around it. The first {@code minSize} bytes of a chunk are skipped without
+ * hashing. Before {@code avgSize} a boundary needs more zero bits than after it, which pulls chunk sizes towards
+ * the average; a chunk is cut at {@code maxSize} at the latest.
+ * <p>
+ * The gear table comes from a fixed seed: changing it would move every boundary and defeat deduplication
+ * against chunks that are already stored.
+ */
+@Component
+public class GearChunker {
+
+    private static final long GEAR_SEED = 0x5EED_C0DE_CDC0_0001L;
+    private static final long[] GEAR = new long[256];
+
+    static {
+        SplittableRandom random = new SplittableRandom(GEAR_SEED);
+        for (int indx = 0; indx < GEAR.length; indx++) {
+            GEAR[indx] = random.nextLong();
+        }
+    }
+
+    private final int minSize;
+    private final int avgSize;
+    private final int maxSize;
+    private final long strictMask;
+    private final long looseMask;
+
+    public GearChunker(@Value("${files.cdc.min.size:16384}") int minSize,
+                       @Value("${files.cdc.avg.size:65536}") int avgSize,
+                       @Value("${files.cdc.max.size:262144}") int maxSize) {
+        if (minSize <= 0 || minSize >= avgSize || avgSize >= maxSize) {
+            throw new IllegalArgumentException(String.format(
+                    "Chunk sizes must satisfy 0 < min < avg < max, got %d, %d, %d", minSize, avgSize, maxSize));
+        }
+        this.minSize = minSize;
+        this.avgSize = avgSize;
+        this.maxSize = maxSize;
+        int bits = 31 - Integer.numberOfLeadingZeros(avgSize);
+        this.strictMask = topBits(bits + 1);
+        this.looseMask = topBits(bits - 1);
+    }
+
+    public int getMinSize() {
+        return minSize;
+    }
+
+    public int getAvgSize() {
+        return avgSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Finds the end of the chunk that starts at {@code from}. The caller passes at least {@code maxSize} bytes
+     * unless the content ends at {@code to}.
+     *
+     * @return length of the chunk
+     */
+    public int cut(ByteBuffer content, int from, int to) {
+        int length = to - from;
+        if (length <= minSize) {
+            return length;
+        }
+        int normalEnd = from + Math.min(length, avgSize);
+        int end = from + Math.min(length, maxSize);
+        long fingerprint = 0;
+        int indx = from + minSize;
+        for (; indx < normalEnd; indx++) {
+            fingerprint = (fingerprint << 1) + GEAR[content.get(indx) & 0xFF];
+            if ((fingerprint & strictMask) == 0) {
+                return indx - from + 1;
+            }
+        }
+        for (; indx < end; indx++) {
+            fingerprint = (fingerprint << 1) + GEAR[content.get(indx) & 0xFF];
+            if ((fingerprint & looseMask) == 0) {
+                return indx - from + 1;
+            }
+        }
+        return end - from;
+    }
+
+    private static long topBits(int count) {
+        return count <= 0 ? 0 : -1L << (Long.SIZE - count);
+    }
+}
@@ -0,0 +1,281 @@
+package me.aakrylov.chunkanalyzer.component;
+
+import lombok.extern.slf4j.Slf4j;
+import me.aakrylov.chunkanalyzer.type.ContentCharset;
+import me.aakrylov.chunkanalyzer.util.FileRanges;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Analyzes a single local file on a {@link ForkJoinPool}.
+ * <p>
+ * The file is split into byte ranges, every range is memory-mapped and scanned independently,
+ * and the per-range findings are replayed to the listener in file order with global offsets,
+ * so the listener sees exactly what a sequential scan would report.
+ * <p>
+ * A range keeps its findings as runs of identical consecutive bytes, at most {@code maxSegmentRuns} of them.
+ * A range with more runs drops what it has collected, stops scanning and is scanned again during the replay,
+ * straight into the listener, so the heap stays bounded however dirty the file is.
+ * <p>
+ * A file that is deleted right after the analysis, such as a spooled upload, is read through the channel
+ * instead: a mapping holds the file until it is garbage collected, and Windows cannot delete it meanwhile.
+ */
+@Slf4j
+@Component
+public class ParallelContentAnalyzer {
+
+    private static final long MAX_SEGMENT_SIZE = Integer.MAX_VALUE - 2 * Long.BYTES;
+    private static final int SEGMENTS_PER_THREAD = 4;
+    private static final int SCAN_WINDOW_SIZE = 1024 * 1024;
+
+    private final SymbolClassifier symbolClassifier;
+    private final int parallelism;
+    private final long minSegmentSize;
+    private final int maxSegmentRuns;
+    private final ForkJoinPool pool;
+
+    public ParallelContentAnalyzer(SymbolClassifier symbolClassifier,
+                                   @Value("${files.analyze.parallelism:0}") int parallelism,
+                                   @Value("${files.analyze.min.segment.size:8388608}") long minSegmentSize,
+                                   @Value("${files.analyze.segment.max.runs:65536}") int maxSegmentRuns) {
+        this.symbolClassifier = symbolClassifier;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.minSegmentSize = Math.min(Math.max(minSegmentSize, Long.BYTES), MAX_SEGMENT_SIZE);
+        this.maxSegmentRuns = Math.max(maxSegmentRuns, 1);
+        this.pool = new ForkJoinPool(this.parallelism);
+    }
+
+    /**
+     * Files smaller than two segments are cheaper to scan sequentially.
+     */
+    public boolean isParallelizable(long size) {
+        return parallelism > 1 && size >= 2 * minSegmentSize;
+    }
+
+    /**
+     * Scans the file and reports every incorrect US-ASCII symbol in offset order.
+     *
+     * @return number of bytes analyzed
+     */
+    public long analyze(Path file, FindingListener listener) throws IOException {
+        return analyze(file, ContentCharset.US_ASCII, listener);
+    }
+
+    /**
+     * Scans the file and reports every byte that is not a correct symbol of the charset, in offset order.
+     * For multi-byte charsets every segment also maps the few bytes around it, so sequences crossing
+     * a segment boundary are validated whole and reported by the segment they start in.
+     *
+     * @return number of bytes analyzed
+     */
+    public long analyze(Path file, ContentCharset charset, FindingListener listener) throws IOException {
+        return analyze(file, charset, listener, true);
+    }
+
+    /**
+     * @param map whether segments are memory-mapped or read through the channel window by window;
+     *            pass {@code false} for a file that is deleted right afterwards
+     * @return number of bytes analyzed
+     */
+    public long analyze(Path file, ContentCharset charset, FindingListener listener, boolean map)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long segmentSize = segmentSize(size);
+            int segmentCount = (int) ((size + segmentSize - 1) / segmentSize);
+            log.debug("Analyzing {} bytes of [{}] in {} segments", size, file, segmentCount);
+            ProgressTracker progress = ProgressTracker.current();
+            if (segmentCount == 1) {
+                progress.checkCancelled();
+                scan(channel, charset, map, size, 0, size, listener, null);
+                progress.advance(size);
+                return size;
+            }
+            SegmentFindings[] findings = new SegmentFindings[segmentCount];
+            try {
+                pool.invoke(new SegmentTask(channel, charset, map, size, segmentSize, findings, progress,
+                        0, segmentCount));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            for (int indx = 0; indx < segmentCount; indx++) {
+                if (findings[indx].isOverflowed()) {
+                    long start = indx * segmentSize;
+                    log.debug("Segment at {} of [{}] has over {} runs, scanning it again", start, file, maxSegmentRuns);
+                    scan(channel, charset, map, size, start, Math.min(size, start + segmentSize), listener, null);
+                } else {
+                    findings[indx].replay(listener);
+                }
+            }
+            return size;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private long segmentSize(long size) {
+        long perThread = (size + parallelism * SEGMENTS_PER_THREAD - 1) / (parallelism * SEGMENTS_PER_THREAD);
+        return Math.min(Math.max(perThread, minSegmentSize), MAX_SEGMENT_SIZE);
+    }
+
+    private class SegmentTask extends RecursiveAction {
+
+        private final FileChannel channel;
+        private final ContentCharset charset;
+        private final boolean map;
+        private final long size;
+        private final long segmentSize;
+        private final SegmentFindings[] findings;
+        private final ProgressTracker progress;
+        private final int from;
+        private final int to;
+
+        private SegmentTask(FileChannel channel, ContentCharset charset, boolean map, long size, long segmentSize,
+                            SegmentFindings[] findings, ProgressTracker progress, int from, int to) {
+            this.channel = channel;
+            this.charset = charset;
+            this.map = map;
+            this.size = size;
+            this.segmentSize = segmentSize;
+            this.findings = findings;
+            this.progress = progress;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new SegmentTask(channel, charset, map, size, segmentSize, findings, progress, from, middle),
+                        new SegmentTask(channel, charset, map, size, segmentSize, findings, progress, middle, to));
+                return;
+            }
+            if (to > from) {
+                findings[from] = scan(from * segmentSize);
+            }
+        }
+
+        private SegmentFindings scan(long start) {
+            progress.checkCancelled();
+            long end = Math.min(size, start + segmentSize);
+            SegmentFindings segmentFindings = new SegmentFindings(maxSegmentRuns);
+            try {
+                ParallelContentAnalyzer.this.scan(channel, charset, map, size, start, end, segmentFindings,
+                        segmentFindings::isOverflowed);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            progress.advance(end - start);
+            return segmentFindings;
+        }
+    }
+
+    /**
+     * Scans the range window by window together with the few bytes around it that multi-byte sequences
+     * crossing its bounds need. The scanners keep their state between calls, so this reports the same findings
+     * as scanning the range at once.
+     *
+     * @param stop checked after every window, may be {@code null}
+     */
+    private void scan(FileChannel channel, ContentCharset charset, boolean map, long size, long start, long end,
+                      FindingListener listener, BooleanSupplier stop) throws IOException {
+        int margin = charset.getMaxSequenceLength() - 1;
+        long scanStart = Math.max(0, start - margin);
+        int scanLength = (int) (Math.min(size, end + margin) - scanStart);
+        ContentScanner scanner = charset == ContentCharset.US_ASCII
+                ? symbolClassifier
+                : ContentScanner.of(charset, start, end, end == size);
+        ByteBuffer buffer = map
+                ? channel.map(FileChannel.MapMode.READ_ONLY, scanStart, scanLength)
+                : ByteBuffer.allocate(Math.min(SCAN_WINDOW_SIZE, scanLength));
+        int position = 0;
+        while (position < scanLength) {
+            int length = Math.min(SCAN_WINDOW_SIZE, scanLength - position);
+            if (map) {
+                scanner.scan(buffer, position, position + length, scanStart + position, listener);
+            } else {
+                buffer.clear().limit(length);
+                FileRanges.readFully(channel, buffer, scanStart + position);
+                scanner.scan(buffer, 0, length, scanStart + position, listener);
+            }
+            position += length;
+            if (stop != null && stop.getAsBoolean()) {
+                return;
+            }
+        }
+        scanner.finish(listener);
+    }
+
+    /**
+     * Findings of one range as runs, in offset order.
+     */
+    private static class SegmentFindings implements FindingListener {
+
+        private final int maxRuns;
+        private long[] offsets = new long[16];
+        private int[] lengths = new int[16];
+        private byte[] symbols = new byte[16];
+        private int count;
+        private boolean overflowed;
+
+        private SegmentFindings(int maxRuns) {
+            this.maxRuns = maxRuns;
+        }
+
+        @Override
+        public void onIncorrectSymbol(long offset, byte symbol) {
+            if (overflowed) {
+                return;
+            }
+            int last = count - 1;
+            if (last >= 0 && symbols[last] == symbol && offsets[last] + lengths[last] == offset) {
+                lengths[last]++;
+                return;
+            }
+            if (count == maxRuns) {
+                overflowed = true;
+                offsets = null;
+                lengths = null;
+                symbols = null;
+                return;
+            }
+            if (count == offsets.length) {
+                int capacity = (int) Math.min((long) count * 2, maxRuns);
+                offsets = Arrays.copyOf(offsets, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+                symbols = Arrays.copyOf(symbols, capacity);
+            }
+            offsets[count] = offset;
+            lengths[count] = 1;
+            symbols[count++] = symbol;
+        }
+
+        private boolean isOverflowed() {
+            return overflowed;
+        }
+
+        private void replay(FindingListener listener) {
+            for (int indx = 0; indx < count; indx++) {
+                for (int pos = 0; pos < lengths[indx]; pos++) {
+                    listener.onIncorrectSymbol(offsets[indx] + pos, symbols[indx]);
+                }
+            }
+        }
+    }
+}
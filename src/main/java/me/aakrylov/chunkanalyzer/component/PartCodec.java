@@ -0,0 +1,171 @@
+package me.aakrylov.chunkanalyzer.component;
+
+import me.aakrylov.chunkanalyzer.util.ChunkNames;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes and reads GZIP-compressed parts with the JDK {@link java.util.zip.Deflater}.
+ * <p>
+ * Every compressed part is a single gzip member, so it can be decompressed on its own and in parallel with
+ * the other parts. Raw parts pass through untouched. Streams can add the time spent in them to a counter,
+ * which is how split, assemble and analyzeAll report the CPU cost of compression.
+ */
+@Component
+public class PartCodec {
+
+    public static final String GZIP = "gzip";
+
+    private static final int GZIP_TRAILER_SIZE = 8;
+    private static final long GZIP_SIZE_MODULO = 1L << 32;
+
+    private final int level;
+    private final int bufferSize;
+
+    public PartCodec(@Value("${files.split.compression.level:6}") int level,
+                     @Value("${files.analyze.window.size:65536}") int bufferSize) {
+        this.level = level;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Wraps the part file stream into a compressing one; closing it finishes the gzip member and closes {@code out}.
+     *
+     * @param codecNanos counter of the time spent in the stream, may be {@code null}
+     */
+    public OutputStream compressing(OutputStream out, LongAdder codecNanos) throws IOException {
+        OutputStream compressing = new GZIPOutputStream(out, bufferSize) {
+            {
+                def.setLevel(level);
+            }
+        };
+        return codecNanos == null ? compressing : new TimedOutputStream(compressing, codecNanos);
+    }
+
+    /**
+     * Opens the content of a part, decompressing it on the fly if the part is compressed.
+     *
+     * @param codecNanos counter of the time spent reading a compressed part, may be {@code null}
+     */
+    public InputStream open(Path part, LongAdder codecNanos) throws IOException {
+        InputStream in = Files.newInputStream(part);
+        if (!ChunkNames.isCompressed(part)) {
+            return in;
+        }
+        try {
+            InputStream decompressing = new GZIPInputStream(in, bufferSize);
+            return codecNanos == null ? decompressing : new TimedInputStream(decompressing, codecNanos);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Size of the part content. For a compressed part it is taken from the gzip trailer, which stores
+     * the size modulo 2^32; parts are always smaller than that, so the value is exact.
+     */
+    public long contentSize(Path part) throws IOException {
+        if (!ChunkNames.isCompressed(part)) {
+            return Files.size(part);
+        }
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.READ)) {
+            if (channel.size() < GZIP_TRAILER_SIZE) {
+                throw new IOException(String.format("Part [%s] is not a gzip file", part.getFileName()));
+            }
+            ByteBuffer size = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            long position = channel.size() - Integer.BYTES;
+            while (size.hasRemaining()) {
+                if (channel.read(size, position + size.position()) < 0) {
+                    throw new IOException(String.format("Part [%s] is truncated", part.getFileName()));
+                }
+            }
+            return size.getInt(0) & (GZIP_SIZE_MODULO - 1);
+        }
+    }
+
+    private static class TimedInputStream extends FilterInputStream {
+
+        private final LongAdder nanos;
+
+        private TimedInputStream(InputStream in, LongAdder nanos) {
+            super(in);
+            this.nanos = nanos;
+        }
+
+        @Override
+        public int read() throws IOException {
+            long start = System.nanoTime();
+            try {
+                return in.read();
+            } finally {
+                nanos.add(System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            long start = System.nanoTime();
+            try {
+                return in.read(b, off, len);
+            } finally {
+                nanos.add(System.nanoTime() - start);
+            }
+        }
+    }
+
+    private static class TimedOutputStream extends FilterOutputStream {
+
+        private final LongAdder nanos;
+
+        private TimedOutputStream(OutputStream out, LongAdder nanos) {
+            super(out);
+            this.nanos = nanos;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            long start = System.nanoTime();
+            try {
+                out.write(b);
+            } finally {
+                nanos.add(System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            long start = System.nanoTime();
+            try {
+                out.write(b, off, len);
+            } finally {
+                nanos.add(System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            long start = System.nanoTime();
+            try {
+                out.close();
+            } finally {
+                nanos.add(System.nanoTime() - start);
+            }
+        }
+    }
+}
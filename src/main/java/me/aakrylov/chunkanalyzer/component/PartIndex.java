@@ -0,0 +1,74 @@
+package me.aakrylov.chunkanalyzer.component;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Offsets of the parts of a split file within the logical file, so that a byte range can be mapped
+ * to the parts covering it without reading any of them.
+ */
+public class PartIndex {
+
+    private final String fileName;
+    private final List<Path> parts;
+    /**
+     * Start of every part followed by the total size.
+     */
+    private final long[] offsets;
+
+    public PartIndex(String fileName, List<Path> parts, long[] offsets) {
+        if (offsets.length != parts.size() + 1) {
+            throw new IllegalArgumentException(String.format("%d parts need %d offsets, got %d",
+                    parts.size(), parts.size() + 1, offsets.length));
+        }
+        this.fileName = fileName;
+        this.parts = List.copyOf(parts);
+        this.offsets = offsets.clone();
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public long getTotalSize() {
+        return offsets[parts.size()];
+    }
+
+    public int getPartCount() {
+        return parts.size();
+    }
+
+    public Path part(int indx) {
+        return parts.get(indx);
+    }
+
+    public long offset(int indx) {
+        return offsets[indx];
+    }
+
+    public long size(int indx) {
+        return offsets[indx + 1] - offsets[indx];
+    }
+
+    /**
+     * Finds the part holding the byte at {@code position} of the logical file.
+     *
+     * @throws IndexOutOfBoundsException if the position is outside the file
+     */
+    public int partAt(long position) {
+        if (position < 0 || position >= getTotalSize()) {
+            throw new IndexOutOfBoundsException(String.format("Position %d is outside of [%s], %d bytes",
+                    position, fileName, getTotalSize()));
+        }
+        int found = Arrays.binarySearch(offsets, 0, parts.size(), position);
+        if (found >= 0) {
+            // Empty parts share their offset with the next one, take the last part starting there.
+            while (found + 1 < parts.size() && offsets[found + 1] == position) {
+                found++;
+            }
+            return found;
+        }
+        return -found - 2;
+    }
+}
@@ -0,0 +1,69 @@
+package me.aakrylov.chunkanalyzer.component;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress and cancellation state of a long-running operation.
+ * <p>
+ * The tracker is bound to the thread running the operation, so processing components can report
+ * progress without every {@code FileService} method taking an extra argument. Components that hand work
+ * to other threads capture {@link #current()} first and {@link #bind()} it in the worker.
+ * Outside of a bound scope {@link #current()} returns a tracker that only counts.
+ */
+public class ProgressTracker {
+
+    private static final ThreadLocal<ProgressTracker> CURRENT = new ThreadLocal<>();
+
+    private final AtomicLong bytesProcessed = new AtomicLong();
+    private volatile boolean cancelled;
+
+    public static ProgressTracker current() {
+        ProgressTracker tracker = CURRENT.get();
+        return tracker != null ? tracker : new ProgressTracker();
+    }
+
+    public Scope bind() {
+        ProgressTracker previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        };
+    }
+
+    public void advance(long bytes) {
+        bytesProcessed.addAndGet(bytes);
+    }
+
+    public long getBytesProcessed() {
+        return bytesProcessed.get();
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @throws CancellationException if the operation was cancelled
+     */
+    public void checkCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Operation was cancelled");
+        }
+    }
+
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
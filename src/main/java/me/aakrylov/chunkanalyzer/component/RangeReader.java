@@ -0,0 +1,156 @@
+package me.aakrylov.chunkanalyzer.component;
+
+import lombok.extern.slf4j.Slf4j;
+import me.aakrylov.chunkanalyzer.model.ChunkManifest;
+import me.aakrylov.chunkanalyzer.model.ChunkRecipe;
+import me.aakrylov.chunkanalyzer.model.ManifestPart;
+import me.aakrylov.chunkanalyzer.model.RecipeChunk;
+import me.aakrylov.chunkanalyzer.util.ChunkNames;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads a byte range of a split file straight from its parts.
+ * <p>
+ * The {@link PartIndex} comes from the recipe or the manifest, so building it touches no part. A directory
+ * without either is not served: its files were not written by a split and may be anything. Raw parts are sent with
+ * {@link FileChannel#transferTo}, compressed ones are inflated up to the range and copied from there.
+ */
+@Slf4j
+@Component
+public class RangeReader {
+
+    private static final int INFLATE_WINDOW_SIZE = 64 * 1024;
+
+    private final ChunkManifestStore manifestStore;
+    private final ChunkStore chunkStore;
+    private final PartCodec partCodec;
+    private final BufferPool bufferPool;
+
+    public RangeReader(ChunkManifestStore manifestStore, ChunkStore chunkStore, PartCodec partCodec,
+                       BufferPool bufferPool) {
+        this.manifestStore = manifestStore;
+        this.chunkStore = chunkStore;
+        this.partCodec = partCodec;
+        this.bufferPool = bufferPool;
+    }
+
+    /**
+     * @throws NoSuchFileException if the directory holds no manifest or recipe
+     */
+    public PartIndex index(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            throw new NoSuchFileException(directory.toString(), null, "not a directory");
+        }
+        Optional<ChunkRecipe> recipe = manifestStore.readRecipe(directory);
+        if (recipe.isPresent()) {
+            return recipeIndex(recipe.get());
+        }
+        Optional<ChunkManifest> manifest = manifestStore.read(directory);
+        if (manifest.isPresent()) {
+            return manifestIndex(directory, manifest.get());
+        }
+        throw new NoSuchFileException(directory.toString(), null, "no manifest or recipe");
+    }
+
+    /**
+     * Writes {@code length} bytes of the logical file starting at {@code from} to the target.
+     * Only the parts covering the range are opened.
+     *
+     * @return number of bytes written
+     * @throws IndexOutOfBoundsException if the range is outside the file
+     */
+    public long transfer(PartIndex index, long from, long length, WritableByteChannel target) throws IOException {
+        if (from < 0 || length < 0 || from + length > index.getTotalSize()) {
+            throw new IndexOutOfBoundsException(String.format("Range %d+%d is outside of [%s], %d bytes",
+                    from, length, index.getFileName(), index.getTotalSize()));
+        }
+        long written = 0;
+        int indx = length == 0 ? index.getPartCount() : index.partAt(from);
+        while (written < length) {
+            long position = from + written - index.offset(indx);
+            long count = Math.min(index.size(indx) - position, length - written);
+            Path part = index.part(indx);
+            log.trace("Sending {} bytes of part [{}] from {}", count, part.getFileName(), position);
+            if (ChunkNames.isCompressed(part)) {
+                inflateRange(part, position, count, target);
+            } else {
+                transferRange(part, position, count, target);
+            }
+            written += count;
+            indx++;
+        }
+        return written;
+    }
+
+    private PartIndex recipeIndex(ChunkRecipe recipe) {
+        List<RecipeChunk> chunks = recipe.getChunks();
+        List<Path> parts = new ArrayList<>(chunks.size());
+        long[] offsets = new long[chunks.size() + 1];
+        for (int indx = 0; indx < chunks.size(); indx++) {
+            RecipeChunk chunk = chunks.get(indx);
+            parts.add(chunkStore.path(chunk.getHash()));
+            offsets[indx] = chunk.getOffset();
+            offsets[indx + 1] = chunk.getOffset() + chunk.getSize();
+        }
+        return new PartIndex(recipe.getFileName(), parts, offsets);
+    }
+
+    private PartIndex manifestIndex(Path directory, ChunkManifest manifest) {
+        List<ManifestPart> manifestParts = manifest.getParts();
+        List<Path> parts = new ArrayList<>(manifestParts.size());
+        long[] offsets = new long[manifestParts.size() + 1];
+        for (int indx = 0; indx < manifestParts.size(); indx++) {
+            parts.add(directory.resolve(manifestParts.get(indx).getName()));
+            offsets[indx + 1] = offsets[indx] + manifestParts.get(indx).getSize();
+        }
+        return new PartIndex(manifest.getFileName(), parts, offsets);
+    }
+
+    private void transferRange(Path part, long position, long count, WritableByteChannel target) throws IOException {
+        try (FileChannel source = FileChannel.open(part, StandardOpenOption.READ)) {
+            long sent = 0;
+            while (sent < count) {
+                long transferred = source.transferTo(position + sent, count - sent, target);
+                if (transferred <= 0) {
+                    throw new IOException(String.format("Part [%s] ended after %d bytes",
+                            part.getFileName(), position + sent));
+                }
+                sent += transferred;
+            }
+        }
+    }
+
+    private void inflateRange(Path part, long position, long count, WritableByteChannel target) throws IOException {
+        try (BufferPool.Lease lease = bufferPool.acquire((int) Math.min(INFLATE_WINDOW_SIZE, Math.max(count, 1)));
+             InputStream in = partCodec.open(part, null)) {
+            byte[] window = lease.array();
+            in.skipNBytes(position);
+            long sent = 0;
+            while (sent < count) {
+                int bytesAmount = in.read(window, 0, (int) Math.min(lease.length(), count - sent));
+                if (bytesAmount < 0) {
+                    throw new IOException(String.format("Part [%s] ended after %d bytes",
+                            part.getFileName(), position + sent));
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(window, 0, bytesAmount);
+                while (buffer.hasRemaining()) {
+                    target.write(buffer);
+                }
+                sent += bytesAmount;
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package me.aakrylov.chunkanalyzer.component;
+
+import me.aakrylov.chunkanalyzer.type.ContentCharset;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Classifies raw bytes as correct or incorrect symbols.
+ * <p>
+ * The rules are precompiled into a 256-entry table, so a lookup never boxes or allocates.
+ * Bulk scans check eight bytes at a time and only fall back to the table for words
+ * that contain something outside the printable ASCII range.
+ * <p>
+ * The bean validates US-ASCII; {@link #forCharset} gives classifiers of the other single-byte charsets.
+ */
+@Component
+public class SymbolClassifier implements ContentScanner {
+
+    private static final String NUMBERS = "1234567890";
+    private static final String LATIN = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    private static final String SPECIAL = " !\"#$%&'()*+,-./:;<=>?@[\\]^_`{|}~\r\n\t";
+
+    private static final VarHandle LONG_VIEW = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final long PRINTABLE_LOW = 0x2020202020202020L;
+    /**
+     * The only byte without a character in windows-1251.
+     */
+    private static final int WINDOWS_1251_UNDEFINED = 0x98;
+    private static final Map<ContentCharset, SymbolClassifier> SINGLE_BYTE_CLASSIFIERS = new EnumMap<>(ContentCharset.class);
+
+    static {
+        SINGLE_BYTE_CLASSIFIERS.put(ContentCharset.US_ASCII, new SymbolClassifier());
+        SymbolClassifier windows1251 = new SymbolClassifier();
+        for (int symbol = 0x80; symbol < 256; symbol++) {
+            windows1251.correct[symbol] = symbol != WINDOWS_1251_UNDEFINED;
+        }
+        SINGLE_BYTE_CLASSIFIERS.put(ContentCharset.WINDOWS_1251, windows1251);
+    }
+
+    private final boolean[] correct = new boolean[256];
+
+    public SymbolClassifier() {
+        for (char symbol : (NUMBERS + LATIN + SPECIAL).toCharArray()) {
+            correct[symbol] = true;
+        }
+        for (int symbol = 32; symbol < 128; symbol++) {
+            correct[symbol] = true;
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the charset is not a single-byte one
+     */
+    public static SymbolClassifier forCharset(ContentCharset charset) {
+        SymbolClassifier classifier = SINGLE_BYTE_CLASSIFIERS.get(charset);
+        if (classifier == null) {
+            throw new IllegalArgumentException(String.format("%s is not a single-byte charset", charset.getCharsetName()));
+        }
+        return classifier;
+    }
+
+    public boolean isCorrect(byte symbol) {
+        return correct[symbol & 0xFF];
+    }
+
+    /**
+     * Finds the first incorrect byte in {@code content[from, to)}.
+     *
+     * @return index of the first incorrect byte or {@code -1} if the range is clean
+     */
+    public int nextIncorrect(byte[] content, int from, int to) {
+        int indx = from;
+        int lastWord = to - Long.BYTES;
+        while (indx <= lastWord) {
+            if (isPrintableWord((long) LONG_VIEW.get(content, indx))) {
+                indx += Long.BYTES;
+                continue;
+            }
+            for (int wordEnd = indx + Long.BYTES; indx < wordEnd; indx++) {
+                if (!correct[content[indx] & 0xFF]) {
+                    return indx;
+                }
+            }
+        }
+        for (; indx < to; indx++) {
+            if (!correct[content[indx] & 0xFF]) {
+                return indx;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Same as {@link #nextIncorrect(byte[], int, int)} but for absolute positions of a buffer.
+     * The buffer position and limit are left untouched.
+     */
+    public int nextIncorrect(ByteBuffer content, int from, int to) {
+        int indx = from;
+        int lastWord = to - Long.BYTES;
+        while (indx <= lastWord) {
+            if (isPrintableWord(content.getLong(indx))) {
+                indx += Long.BYTES;
+                continue;
+            }
+            for (int wordEnd = indx + Long.BYTES; indx < wordEnd; indx++) {
+                if (!correct[content.get(indx) & 0xFF]) {
+                    return indx;
+                }
+            }
+        }
+        for (; indx < to; indx++) {
+            if (!correct[content.get(indx) & 0xFF]) {
+                return indx;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void scan(byte[] content, int from, int to, long baseOffset, FindingListener listener) {
+        int indx = nextIncorrect(content, from, to);
+        while (indx >= 0) {
+            listener.onIncorrectSymbol(baseOffset + indx - from, content[indx]);
+            indx = nextIncorrect(content, indx + 1, to);
+        }
+    }
+
+    @Override
+    public void scan(ByteBuffer content, int from, int to, long baseOffset, FindingListener listener) {
+        int indx = nextIncorrect(content, from, to);
+        while (indx >= 0) {
+            listener.onIncorrectSymbol(baseOffset + indx - from, content.get(indx));
+            indx = nextIncorrect(content, indx + 1, to);
+        }
+    }
+
+    /**
+     * True when every byte of the word lies in [0x20, 0x7F]. Bytes with the high bit set are caught
+     * directly; bytes below 0x20 borrow on subtraction and set the high bit of their lane.
+     * Byte order does not matter because all lanes are tested together.
+     */
+    private static boolean isPrintableWord(long word) {
+        return ((word | (word - PRINTABLE_LOW)) & HIGH_BITS) == 0;
+    }
+}
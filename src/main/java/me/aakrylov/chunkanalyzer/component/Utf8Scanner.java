@@ -0,0 +1,145 @@
+package me.aakrylov.chunkanalyzer.component;
+
+import me.aakrylov.chunkanalyzer.type.ContentCharset;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Validates UTF-8 directly on bytes, without decoding into a {@code String}.
+ * <p>
+ * Runs of printable ASCII are skipped eight bytes at a time; everything else goes through a small state machine
+ * that follows the well-formed byte sequences of the Unicode standard (table 3-7), so overlong forms, surrogates
+ * and code points above U+10FFFF are malformed. A malformed sequence is reported byte by byte at the offsets
+ * of its maximal valid prefix, and the byte that broke it starts the next sequence. Well-formed C0 and C1
+ * control characters other than TAB, LF and CR are reported as disallowed. Not thread-safe.
+ */
+public class Utf8Scanner implements ContentScanner {
+
+    private static final SymbolClassifier ASCII = SymbolClassifier.forCharset(ContentCharset.US_ASCII);
+    private static final int C1_FIRST = 0x80;
+    private static final int C1_LAST = 0x9F;
+
+    private final long ownedFrom;
+    private final long ownedTo;
+    private final boolean endOfContent;
+
+    private final byte[] sequence = new byte[4];
+    private int sequenceLength;
+    private long sequenceOffset;
+    private int remaining;
+    private int lower;
+    private int upper;
+    private int codePoint;
+
+    Utf8Scanner(long ownedFrom, long ownedTo, boolean endOfContent) {
+        this.ownedFrom = ownedFrom;
+        this.ownedTo = ownedTo;
+        this.endOfContent = endOfContent;
+    }
+
+    @Override
+    public void scan(byte[] content, int from, int to, long baseOffset, FindingListener listener) {
+        int indx = from;
+        while (indx < to) {
+            if (remaining == 0) {
+                indx = ASCII.nextIncorrect(content, indx, to);
+                if (indx < 0) {
+                    return;
+                }
+            }
+            accept(content[indx], baseOffset + indx - from, listener);
+            indx++;
+        }
+    }
+
+    @Override
+    public void scan(ByteBuffer content, int from, int to, long baseOffset, FindingListener listener) {
+        int indx = from;
+        while (indx < to) {
+            if (remaining == 0) {
+                indx = ASCII.nextIncorrect(content, indx, to);
+                if (indx < 0) {
+                    return;
+                }
+            }
+            accept(content.get(indx), baseOffset + indx - from, listener);
+            indx++;
+        }
+    }
+
+    @Override
+    public void finish(FindingListener listener) {
+        if (remaining > 0 && endOfContent) {
+            reportSequence(listener);
+        }
+        remaining = 0;
+    }
+
+    private void accept(byte symbol, long offset, FindingListener listener) {
+        if (remaining == 0) {
+            start(symbol, offset, listener);
+            return;
+        }
+        int value = symbol & 0xFF;
+        if (value < lower || value > upper) {
+            reportSequence(listener);
+            remaining = 0;
+            start(symbol, offset, listener);
+            return;
+        }
+        sequence[sequenceLength++] = symbol;
+        codePoint = (codePoint << 6) | (value & 0x3F);
+        lower = 0x80;
+        upper = 0xBF;
+        if (--remaining == 0 && codePoint >= C1_FIRST && codePoint <= C1_LAST) {
+            reportSequence(listener);
+        }
+    }
+
+    private void start(byte symbol, long offset, FindingListener listener) {
+        int value = symbol & 0xFF;
+        if (value < 0x80) {
+            if (!ASCII.isCorrect(symbol)) {
+                report(offset, symbol, listener);
+            }
+            return;
+        }
+        if (value >= 0xC2 && value <= 0xDF) {
+            begin(symbol, offset, 1, 0x80, 0xBF, value & 0x1F);
+        } else if (value >= 0xE0 && value <= 0xEF) {
+            begin(symbol, offset, 2, value == 0xE0 ? 0xA0 : 0x80, value == 0xED ? 0x9F : 0xBF, value & 0x0F);
+        } else if (value >= 0xF0 && value <= 0xF4) {
+            begin(symbol, offset, 3, value == 0xF0 ? 0x90 : 0x80, value == 0xF4 ? 0x8F : 0xBF, value & 0x07);
+        } else {
+            report(offset, symbol, listener);
+        }
+    }
+
+    private void begin(byte lead, long offset, int continuations, int lower, int upper, int bits) {
+        sequence[0] = lead;
+        sequenceLength = 1;
+        sequenceOffset = offset;
+        remaining = continuations;
+        this.lower = lower;
+        this.upper = upper;
+        codePoint = bits;
+    }
+
+    private void reportSequence(FindingListener listener) {
+        if (isOwned(sequenceOffset)) {
+            for (int indx = 0; indx < sequenceLength; indx++) {
+                listener.onIncorrectSymbol(sequenceOffset + indx, sequence[indx]);
+            }
+        }
+    }
+
+    private void report(long offset, byte symbol, FindingListener listener) {
+        if (isOwned(offset)) {
+            listener.onIncorrectSymbol(offset, symbol);
+        }
+    }
+
+    private boolean isOwned(long offset) {
+        return offset >= ownedFrom && offset < ownedTo;
+    }
+}
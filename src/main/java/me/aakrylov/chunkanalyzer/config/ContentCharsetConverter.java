@@ -0,0 +1,17 @@
+package me.aakrylov.chunkanalyzer.config;
+
+import me.aakrylov.chunkanalyzer.type.ContentCharset;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Accepts both the charset name ({@code UTF-8}) and the constant name ({@code UTF_8}) in request parameters.
+ */
+@Component
+public class ContentCharsetConverter implements Converter<String, ContentCharset> {
+
+    @Override
+    public ContentCharset convert(String source) {
+        return ContentCharset.forName(source.trim());
+    }
+}
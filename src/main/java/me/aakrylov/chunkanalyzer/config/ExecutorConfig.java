@@ -0,0 +1,47 @@
+package me.aakrylov.chunkanalyzer.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class ExecutorConfig {
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService analysisExecutor(@Value("${files.analyze.all.threads:0}") int threads) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return Executors.newFixedThreadPool(poolSize, new CustomizableThreadFactory("chunk-analysis-"));
+    }
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService ioExecutor(@Value("${files.io.threads:4}") int threads) {
+        return Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("chunk-io-"));
+    }
+
+    /**
+     * Runs the items of a batch; the operations themselves still fan out to the analysis and io executors.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService batchExecutor(@Value("${files.batch.threads:0}") int threads) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return Executors.newFixedThreadPool(poolSize, new CustomizableThreadFactory("chunk-batch-"));
+    }
+
+    /**
+     * Rejects new jobs once the queue is full instead of letting a burst of uploads pile up.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService jobExecutor(@Value("${files.jobs.threads:2}") int threads,
+                                       @Value("${files.jobs.queue.capacity:16}") int queueCapacity) {
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("chunk-job-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
@@ -2,10 +2,30 @@ package me.aakrylov.chunkanalyzer.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import me.aakrylov.chunkanalyzer.model.BatchItem;
+import me.aakrylov.chunkanalyzer.model.BatchSummary;
+import me.aakrylov.chunkanalyzer.model.CachedAnalysis;
+import me.aakrylov.chunkanalyzer.model.ChunkManifest;
+import me.aakrylov.chunkanalyzer.model.ChunkRecipe;
+import me.aakrylov.chunkanalyzer.model.FileOperationResult;
+import me.aakrylov.chunkanalyzer.model.Finding;
+import me.aakrylov.chunkanalyzer.model.FindingsReport;
+import me.aakrylov.chunkanalyzer.model.ManifestPart;
+import me.aakrylov.chunkanalyzer.model.RecipeChunk;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.nativex.hint.TypeAccess;
+import org.springframework.nativex.hint.TypeHint;
 
+/**
+ * The type hint registers the models that this mapper reads and writes outside of Spring MVC
+ * (manifests, recipes, the analysis cache index and the batch summary) for reflection in a native image.
+ */
 @Configuration
+@TypeHint(types = {
+        BatchSummary.class, BatchItem.class, FileOperationResult.class, FindingsReport.class, Finding.class,
+        ChunkManifest.class, ManifestPart.class, ChunkRecipe.class, RecipeChunk.class, CachedAnalysis.class
+}, access = {TypeAccess.DECLARED_CONSTRUCTORS, TypeAccess.DECLARED_FIELDS, TypeAccess.PUBLIC_METHODS})
 public class JsonConfig {
 
     @Bean
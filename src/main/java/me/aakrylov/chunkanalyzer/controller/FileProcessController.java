@@ -1,42 +1,127 @@
 package me.aakrylov.chunkanalyzer.controller;
 
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.extern.slf4j.Slf4j;
+import me.aakrylov.chunkanalyzer.component.PartIndex;
 import me.aakrylov.chunkanalyzer.model.FileOperationResult;
 import me.aakrylov.chunkanalyzer.service.api.FileService;
+import me.aakrylov.chunkanalyzer.type.ContentCharset;
 import me.aakrylov.chunkanalyzer.type.FileOperationStatus;
+import me.aakrylov.chunkanalyzer.util.LocalPaths;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.util.List;
 
+@ConditionalOnWebApplication
 @RestController
 @RequestMapping("/file-process")
 @Slf4j
-@RequiredArgsConstructor
 public class FileProcessController {
 
 
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
     private final FileService fileService;
+    private final ObjectMapper objectMapper;
+    private final Path localRoot;
+
+    public FileProcessController(FileService fileService, ObjectMapper objectMapper,
+                                 @Value("${files.analyze.local.root:${files.split.default.location}}") String localRoot) {
+        this.fileService = fileService;
+        this.objectMapper = objectMapper;
+        this.localRoot = Path.of(localRoot);
+    }
 
     @PostMapping("/split")
     public ResponseEntity<FileOperationResult> split(@RequestParam("file") MultipartFile file,
-                                        @RequestParam(name = "chunkSize", defaultValue = "5120") int chunkSize) {
-        FileOperationResult result = fileService.split(file, chunkSize);
+                                        @RequestParam(name = "chunkSize", defaultValue = "5120") int chunkSize,
+                                        @RequestParam(name = "compress", required = false) Boolean compress) {
+        FileOperationResult result = fileService.split(file, chunkSize, compress);
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+    /**
+     * Splits the file at content-defined boundaries into the deduplicating chunk store.
+     */
+    @PostMapping("/split/cdc")
+    public ResponseEntity<FileOperationResult> splitContentDefined(@RequestParam("file") MultipartFile file) {
+        FileOperationResult result = fileService.splitContentDefined(file);
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+    /**
+     * Splits the raw request body while it is being received, without spooling it to a multipart temp file first.
+     */
+    @PostMapping(value = "/split/stream", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<FileOperationResult> splitStream(HttpServletRequest request,
+                                                           @RequestParam("fileName") String fileName,
+                                                           @RequestParam(name = "chunkSize", defaultValue = "5120") int chunkSize,
+                                                           @RequestParam(name = "analyze", defaultValue = "false") boolean analyze,
+                                                           @RequestParam(name = "compress", required = false) Boolean compress) throws IOException {
+        FileOperationResult result = fileService.split(request.getInputStream(), fileName, chunkSize, analyze, compress);
         return new ResponseEntity<>(result, HttpStatus.OK);
     }
 
     @PostMapping("/analyze")
-    public ResponseEntity<FileOperationResult> analyze(@RequestParam("file") MultipartFile file) {
-        FileOperationResult result = fileService.analyze(file);
+    public ResponseEntity<FileOperationResult> analyze(@RequestParam("file") MultipartFile file,
+                                                       @RequestParam(name = "charset", required = false) ContentCharset charset) {
+        FileOperationResult result = fileService.analyze(file, charset, null);
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+    /**
+     * Streams every finding as one JSON line while the file is analyzed; the last line is the findings summary.
+     */
+    @PostMapping(value = "/analyze/stream", produces = APPLICATION_NDJSON_VALUE)
+    public void analyzeStream(@RequestParam("file") MultipartFile file,
+                              @RequestParam(name = "charset", required = false) ContentCharset charset,
+                              HttpServletResponse response) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        response.setContentType(APPLICATION_NDJSON_VALUE);
+        try (OutputStream out = new BufferedOutputStream(response.getOutputStream())) {
+            FileOperationResult result = fileService.analyze(file, charset, finding -> writeLine(writer, out, finding));
+            writeLine(writer, out, result);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Analyzes a file that is already on the server, inside {@code files.analyze.local.root}.
+     */
+    @PostMapping("/analyze/local")
+    public ResponseEntity<FileOperationResult> analyzeLocal(@RequestParam("path") Path path,
+                                                            @RequestParam(name = "charset", required = false) ContentCharset charset)
+            throws AccessDeniedException {
+        FileOperationResult result = fileService.analyze(LocalPaths.requireUnder(localRoot, path), charset);
         return new ResponseEntity<>(result, HttpStatus.OK);
     }
 
     @PostMapping("/analyze/all")
-    public ResponseEntity<FileOperationResult> analyzeAll(@RequestParam("dir") Path directory) {
-        FileOperationResult result = fileService.analyzeAll(directory);
+    public ResponseEntity<FileOperationResult> analyzeAll(@RequestParam("dir") Path directory,
+                                                          @RequestParam(name = "charset", required = false) ContentCharset charset) {
+        FileOperationResult result = fileService.analyzeAll(directory, charset);
         return new ResponseEntity<>(result, HttpStatus.OK);
     }
 
@@ -46,4 +131,94 @@ public class FileProcessController {
         FileOperationResult result = fileService.assemble(directory, deleteSource);
         return new ResponseEntity<>(result, HttpStatus.OK);
     }
+
+    @GetMapping("/verify")
+    public ResponseEntity<FileOperationResult> verify(@RequestParam("dir") Path directory) {
+        FileOperationResult result = fileService.verify(directory);
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+    /**
+     * Serves the split file straight from its parts, without assembling it. A single byte range
+     * is answered with 206 and only the parts covering it are read; several ranges get the whole file,
+     * and so does a Range header that does not parse, as RFC 7233 asks.
+     */
+    @GetMapping("/read")
+    public void read(@RequestParam("dir") Path directory,
+                     @RequestHeader(name = HttpHeaders.RANGE, required = false) String rangeHeader,
+                     HttpServletResponse response) throws IOException {
+        PartIndex index;
+        try {
+            index = fileService.index(directory);
+        } catch (AccessDeniedException e) {
+            response.sendError(HttpStatus.FORBIDDEN.value(),
+                    String.format("[%s] is outside of the split location", directory));
+            return;
+        } catch (NoSuchFileException e) {
+            response.sendError(HttpStatus.NOT_FOUND.value(), String.format("No split file in [%s]", directory));
+            return;
+        }
+        long totalSize = index.getTotalSize();
+        long from = 0;
+        long length = totalSize;
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        List<HttpRange> ranges = parseRanges(rangeHeader);
+        if (ranges.size() == 1) {
+            try {
+                from = ranges.get(0).getRangeStart(totalSize);
+                // HttpRange does not check the start against the length, an empty file satisfies no range
+                if (totalSize == 0 || from >= totalSize) {
+                    throw new IllegalArgumentException(String.format("Range starts at %d of %d bytes",
+                            from, totalSize));
+                }
+                length = ranges.get(0).getRangeEnd(totalSize) - from + 1;
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + totalSize);
+                response.sendError(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE,
+                    String.format("bytes %d-%d/%d", from, from + length - 1, totalSize));
+        }
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setContentLengthLong(length);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(index.getFileName()).build().toString());
+        fileService.read(index, from, length, Channels.newChannel(response.getOutputStream()));
+        response.flushBuffer();
+    }
+
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<FileOperationResult> forbidden(AccessDeniedException e) {
+        FileOperationResult result = FileOperationResult.builder()
+                .setStatus(FileOperationStatus.ERROR)
+                .setDescription(String.format("[%s] is outside of the local root", e.getFile()))
+                .build();
+        return new ResponseEntity<>(result, HttpStatus.FORBIDDEN);
+    }
+
+    /**
+     * @return no ranges if there is no header or it does not parse
+     */
+    private List<HttpRange> parseRanges(String rangeHeader) {
+        if (rangeHeader == null) {
+            return List.of();
+        }
+        try {
+            return HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            log.debug("Ignoring invalid Range header [{}]: {}", rangeHeader, e.getMessage());
+            return List.of();
+        }
+    }
+
+    private void writeLine(ObjectWriter writer, OutputStream out, Object value) {
+        try {
+            out.write(writer.writeValueAsBytes(value));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -0,0 +1,84 @@
+package me.aakrylov.chunkanalyzer.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.aakrylov.chunkanalyzer.model.FileOperationResult;
+import me.aakrylov.chunkanalyzer.model.JobStatus;
+import me.aakrylov.chunkanalyzer.service.api.JobService;
+import me.aakrylov.chunkanalyzer.type.FileOperationStatus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+@ConditionalOnWebApplication
+@RestController
+@RequestMapping("/jobs")
+@Slf4j
+@RequiredArgsConstructor
+public class JobController {
+
+    private final JobService jobService;
+
+    @PostMapping("/split")
+    public ResponseEntity<JobStatus> split(@RequestParam("file") MultipartFile file,
+                                           @RequestParam(name = "chunkSize", defaultValue = "5120") int chunkSize) throws IOException {
+        return new ResponseEntity<>(jobService.submitSplit(file, chunkSize), HttpStatus.ACCEPTED);
+    }
+
+    @PostMapping("/analyze")
+    public ResponseEntity<JobStatus> analyze(@RequestParam("file") MultipartFile file) throws IOException {
+        return new ResponseEntity<>(jobService.submitAnalyze(file), HttpStatus.ACCEPTED);
+    }
+
+    @PostMapping("/analyze/all")
+    public ResponseEntity<JobStatus> analyzeAll(@RequestParam("dir") Path directory) {
+        return new ResponseEntity<>(jobService.submitAnalyzeAll(directory), HttpStatus.ACCEPTED);
+    }
+
+    @PostMapping("/assemble")
+    public ResponseEntity<JobStatus> assemble(@RequestParam("dir") Path directory,
+                                              @RequestParam(name = "deleteSource", defaultValue = "false") boolean deleteSource) {
+        return new ResponseEntity<>(jobService.submitAssemble(directory, deleteSource), HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<JobStatus> status(@PathVariable String jobId) {
+        return toResponse(jobService.status(jobId));
+    }
+
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<JobStatus> cancel(@PathVariable String jobId) {
+        return toResponse(jobService.cancel(jobId));
+    }
+
+    @GetMapping("/{jobId}/result")
+    public ResponseEntity<FileOperationResult> result(@PathVariable String jobId) {
+        if (jobService.status(jobId).isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return jobService.result(jobId)
+                .map(result -> new ResponseEntity<>(result, HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.CONFLICT));
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<FileOperationResult> queueFull(RejectedExecutionException e) {
+        FileOperationResult result = FileOperationResult.builder()
+                .setStatus(FileOperationStatus.ERROR)
+                .setDescription("Job queue is full, retry later")
+                .build();
+        return new ResponseEntity<>(result, HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    private ResponseEntity<JobStatus> toResponse(Optional<JobStatus> status) {
+        return status.map(jobStatus -> new ResponseEntity<>(jobStatus, HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+}
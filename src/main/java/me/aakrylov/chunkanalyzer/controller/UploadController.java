@@ -0,0 +1,86 @@
+package me.aakrylov.chunkanalyzer.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.aakrylov.chunkanalyzer.model.FileOperationResult;
+import me.aakrylov.chunkanalyzer.model.UploadStatus;
+import me.aakrylov.chunkanalyzer.service.api.UploadService;
+import me.aakrylov.chunkanalyzer.type.ContentCharset;
+import me.aakrylov.chunkanalyzer.type.FileOperationStatus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Resumable uploads: create a session, PUT its parts in any order and in parallel, look up the missing ones
+ * after a failure, then complete it. The result is a split directory that assemble, verify and read accept.
+ */
+@ConditionalOnWebApplication
+@RestController
+@RequestMapping("/uploads")
+@Slf4j
+@RequiredArgsConstructor
+public class UploadController {
+
+    private final UploadService uploadService;
+
+    @PostMapping
+    public ResponseEntity<UploadStatus> create(@RequestParam("fileName") String fileName,
+                                               @RequestParam("totalSize") long totalSize,
+                                               @RequestParam("partSize") long partSize) throws IOException {
+        return new ResponseEntity<>(uploadService.create(fileName, totalSize, partSize), HttpStatus.CREATED);
+    }
+
+    @PutMapping(value = "/{uploadId}/parts/{partIndex}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<FileOperationResult> putPart(@PathVariable String uploadId,
+                                                       @PathVariable int partIndex,
+                                                       @RequestParam(name = "analyze", defaultValue = "false") boolean analyze,
+                                                       @RequestParam(name = "charset", required = false) ContentCharset charset,
+                                                       HttpServletRequest request) throws IOException {
+        return toResponse(uploadService.putPart(uploadId, partIndex, request.getInputStream(), analyze, charset));
+    }
+
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<UploadStatus> status(@PathVariable String uploadId) {
+        return toResponse(uploadService.status(uploadId));
+    }
+
+    @PostMapping("/{uploadId}/complete")
+    public ResponseEntity<FileOperationResult> complete(@PathVariable String uploadId) throws IOException {
+        return toResponse(uploadService.complete(uploadId));
+    }
+
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<UploadStatus> abort(@PathVariable String uploadId) throws IOException {
+        return toResponse(uploadService.abort(uploadId));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<FileOperationResult> badRequest(IllegalArgumentException e) {
+        return errorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<FileOperationResult> conflict(IllegalStateException e) {
+        return errorResponse(e.getMessage(), HttpStatus.CONFLICT);
+    }
+
+    private ResponseEntity<FileOperationResult> errorResponse(String description, HttpStatus status) {
+        FileOperationResult result = FileOperationResult.builder()
+                .setStatus(FileOperationStatus.ERROR)
+                .setDescription(description)
+                .build();
+        return new ResponseEntity<>(result, status);
+    }
+
+    private <T> ResponseEntity<T> toResponse(Optional<T> body) {
+        return body.map(value -> new ResponseEntity<>(value, HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+}
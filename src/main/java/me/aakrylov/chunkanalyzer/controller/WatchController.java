@@ -0,0 +1,61 @@
+package me.aakrylov.chunkanalyzer.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.aakrylov.chunkanalyzer.model.WatchStatus;
+import me.aakrylov.chunkanalyzer.service.api.DirectoryWatchService;
+import me.aakrylov.chunkanalyzer.type.ContentCharset;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Directories whose analysis is kept up to date as parts land in them, instead of polling /analyze/all.
+ */
+@ConditionalOnWebApplication
+@RestController
+@RequestMapping("/watches")
+@Slf4j
+@RequiredArgsConstructor
+public class WatchController {
+
+    private final DirectoryWatchService watchService;
+
+    @PostMapping
+    public ResponseEntity<WatchStatus> watch(@RequestParam("dir") Path directory,
+                                             @RequestParam(name = "charset", required = false) ContentCharset charset) throws IOException {
+        return new ResponseEntity<>(watchService.watch(directory, charset), HttpStatus.CREATED);
+    }
+
+    @GetMapping(params = "dir")
+    public ResponseEntity<WatchStatus> status(@RequestParam("dir") Path directory) {
+        return toResponse(watchService.status(directory));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<WatchStatus>> watches() {
+        return new ResponseEntity<>(watchService.watches(), HttpStatus.OK);
+    }
+
+    @DeleteMapping
+    public ResponseEntity<WatchStatus> unwatch(@RequestParam("dir") Path directory) {
+        return toResponse(watchService.unwatch(directory));
+    }
+
+    @ExceptionHandler(NoSuchFileException.class)
+    public ResponseEntity<WatchStatus> notFound(NoSuchFileException e) {
+        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    }
+
+    private ResponseEntity<WatchStatus> toResponse(Optional<WatchStatus> status) {
+        return status.map(watchStatus -> new ResponseEntity<>(watchStatus, HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+}
@@ -0,0 +1,43 @@
+package me.aakrylov.chunkanalyzer.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+import me.aakrylov.chunkanalyzer.type.BatchCommand;
+import me.aakrylov.chunkanalyzer.type.FileOperationStatus;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@SuperBuilder(setterPrefix = "set")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchSummary {
+
+    private BatchCommand command;
+    /**
+     * {@code ERROR} if any item failed, {@code SUCCESS} otherwise.
+     */
+    private FileOperationStatus status;
+    private int items;
+    private int failed;
+    /**
+     * Sum over all items.
+     */
+    private long bytesProcessed;
+    /**
+     * Wall-clock time of the whole batch.
+     */
+    private long durationMillis;
+    /**
+     * Megabytes per second over the wall-clock time of the whole batch.
+     */
+    private double throughput;
+    /**
+     * Item results in the order the paths were given.
+     */
+    private List<BatchItem> results;
+}
@@ -0,0 +1,17 @@
+package me.aakrylov.chunkanalyzer.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entry of the on-disk analysis cache index.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CachedAnalysis {
+
+    private String key;
+    private FileOperationResult result;
+}
@@ -0,0 +1,30 @@
+package me.aakrylov.chunkanalyzer.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.util.List;
+
+/**
+ * Description of a split directory: the original file and every part in assembly order.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@SuperBuilder(setterPrefix = "set")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChunkManifest {
+
+    private String fileName;
+    private long totalSize;
+    private long partSize;
+    private int partCount;
+    /**
+     * Compression of the parts, {@code null} for raw parts.
+     */
+    private String compression;
+    private List<ManifestPart> parts;
+}
@@ -0,0 +1,28 @@
+package me.aakrylov.chunkanalyzer.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.util.List;
+
+/**
+ * Description of a file split by content: the chunks of the chunk store that make up the file, in file order.
+ * A chunk that occurs several times in the file is listed at every offset.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@SuperBuilder(setterPrefix = "set")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChunkRecipe {
+
+    private String fileName;
+    private long totalSize;
+    private int minSize;
+    private int avgSize;
+    private int maxSize;
+    private List<RecipeChunk> chunks;
+}
@@ -16,4 +16,37 @@ public class FileOperationResult {
 
     private FileOperationStatus status;
     private String description;
+    private FindingsReport findings;
+    private Long bytesProcessed;
+    /**
+     * Parts written by split, assembled, verified or analyzed by analyzeAll.
+     */
+    private Integer chunkCount;
+    private Long durationMillis;
+    /**
+     * Megabytes per second.
+     */
+    private Double throughput;
+    /**
+     * Files whose analysis result was taken from the analysis cache, set only when the cache is enabled.
+     */
+    private Long cacheHits;
+    private Long cacheMisses;
+    /**
+     * Bytes of compressed parts on disk, set together with the ratio and codec time only when compressed parts
+     * were written or read. For a content-defined split, bytes of the chunks that were new to the chunk store.
+     */
+    private Long storedBytes;
+    /**
+     * Content bytes per stored byte.
+     */
+    private Double compressionRatio;
+    /**
+     * Time spent compressing or decompressing, summed over all threads.
+     */
+    private Long codecMillis;
+    /**
+     * Content bytes that were not written or scanned again because the same chunk was already stored or analyzed.
+     */
+    private Long dedupBytes;
 }
@@ -0,0 +1,18 @@
+package me.aakrylov.chunkanalyzer.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Run of identical incorrect bytes.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class Finding {
+
+    private long offset;
+    private int symbol;
+    private long length;
+}
@@ -0,0 +1,30 @@
+package me.aakrylov.chunkanalyzer.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@SuperBuilder(setterPrefix = "set")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FindingsReport {
+
+    private long totalSymbols;
+    private long totalRuns;
+    /**
+     * True when more runs were found than the configured limit allows to report.
+     */
+    private boolean truncated;
+    /**
+     * Incorrect symbol counts keyed by hex byte value.
+     */
+    private Map<String, Long> histogram;
+    private List<Finding> findings;
+}
@@ -0,0 +1,33 @@
+package me.aakrylov.chunkanalyzer.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+import me.aakrylov.chunkanalyzer.type.JobState;
+import me.aakrylov.chunkanalyzer.type.JobType;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@SuperBuilder(setterPrefix = "set")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class JobStatus {
+
+    private String id;
+    private JobType type;
+    private JobState state;
+    private long bytesProcessed;
+    /**
+     * Known for single-file jobs only.
+     */
+    private Long totalBytes;
+    /**
+     * Megabytes per second since the job started.
+     */
+    private Double throughput;
+    private Long submittedAt;
+    private Long startedAt;
+    private Long finishedAt;
+}
@@ -0,0 +1,32 @@
+package me.aakrylov.chunkanalyzer.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ManifestPart {
+
+    private int index;
+    private String name;
+    /**
+     * Size of the part content.
+     */
+    private long size;
+    /**
+     * Checksum of the part file as stored, compressed or not.
+     */
+    private long crc32c;
+    /**
+     * Size of the part file, set only for compressed parts.
+     */
+    private Long storedSize;
+
+    public long fileSize() {
+        return storedSize == null ? size : storedSize;
+    }
+}
@@ -0,0 +1,18 @@
+package me.aakrylov.chunkanalyzer.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RecipeChunk {
+
+    /**
+     * SHA-256 of the chunk content, hex-encoded; the address of the chunk in the store.
+     */
+    private String hash;
+    private long offset;
+    private int size;
+}
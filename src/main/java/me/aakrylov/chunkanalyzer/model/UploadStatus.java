@@ -0,0 +1,35 @@
+package me.aakrylov.chunkanalyzer.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+import me.aakrylov.chunkanalyzer.type.UploadState;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@SuperBuilder(setterPrefix = "set")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UploadStatus {
+
+    private String id;
+    private String fileName;
+    private UploadState state;
+    private long totalSize;
+    /**
+     * Size of every part but the last one, which holds the remainder.
+     */
+    private long partSize;
+    private int partCount;
+    private long bytesReceived;
+    /**
+     * Indexes of the parts not received yet, starting from 1.
+     */
+    private List<Integer> missingParts;
+    private Long createdAt;
+    private Long completedAt;
+}
@@ -0,0 +1,30 @@
+package me.aakrylov.chunkanalyzer.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+import me.aakrylov.chunkanalyzer.type.ContentCharset;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@SuperBuilder(setterPrefix = "set")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class WatchStatus {
+
+    private String directory;
+    private ContentCharset charset;
+    /**
+     * Parts that changed and wait for their writer to go quiet before they are analyzed.
+     */
+    private int pendingParts;
+    private long analyzedParts;
+    private Long watchedSince;
+    private Long lastAnalyzedAt;
+    /**
+     * Current totals over all parts of the directory, in the shape of an analyzeAll result.
+     */
+    private FileOperationResult result;
+}
@@ -0,0 +1,158 @@
+package me.aakrylov.chunkanalyzer.service;
+
+import lombok.extern.slf4j.Slf4j;
+import me.aakrylov.chunkanalyzer.model.BatchItem;
+import me.aakrylov.chunkanalyzer.model.BatchSummary;
+import me.aakrylov.chunkanalyzer.model.FileOperationResult;
+import me.aakrylov.chunkanalyzer.service.api.BatchService;
+import me.aakrylov.chunkanalyzer.service.api.FileService;
+import me.aakrylov.chunkanalyzer.type.BatchCommand;
+import me.aakrylov.chunkanalyzer.type.ContentCharset;
+import me.aakrylov.chunkanalyzer.type.FileOperationStatus;
+import me.aakrylov.chunkanalyzer.util.Throughput;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+@Slf4j
+public class DefaultBatchService implements BatchService {
+
+    private static final String DUPLICATE_FILE_NAME = "Another file named %s is split in the same batch";
+
+    private final FileService fileService;
+    private final ExecutorService batchExecutor;
+
+    public DefaultBatchService(FileService fileService,
+                               @Qualifier("batchExecutor") ExecutorService batchExecutor) {
+        this.fileService = fileService;
+        this.batchExecutor = batchExecutor;
+    }
+
+    @Override
+    public BatchSummary split(List<Path> paths, int chunkSize, Boolean compress) {
+        List<Path> files = expandDirectories(paths);
+        // Parts go to a directory named after the file, so two sources with the same name would overwrite each other
+        Set<String> fileNames = new HashSet<>();
+        Set<Path> duplicates = new HashSet<>();
+        for (Path file : files) {
+            if (!fileNames.add(fileName(file))) {
+                duplicates.add(file);
+            }
+        }
+        return run(BatchCommand.SPLIT, files, file -> duplicates.contains(file)
+                ? errorResult(String.format(DUPLICATE_FILE_NAME, fileName(file)))
+                : fileService.split(file, fileName(file), chunkSize, compress));
+    }
+
+    @Override
+    public BatchSummary analyze(List<Path> paths, ContentCharset charset) {
+        return run(BatchCommand.ANALYZE, paths, path -> Files.isDirectory(path)
+                ? fileService.analyzeAll(path, charset)
+                : fileService.analyze(path, charset));
+    }
+
+    @Override
+    public BatchSummary assemble(List<Path> directories, boolean deleteSource) {
+        return run(BatchCommand.ASSEMBLE, directories, directory -> fileService.assemble(directory, deleteSource));
+    }
+
+    @Override
+    public BatchSummary verify(List<Path> directories) {
+        return run(BatchCommand.VERIFY, directories, fileService::verify);
+    }
+
+    private BatchSummary run(BatchCommand command, List<Path> paths, Function<Path, FileOperationResult> operation) {
+        long start = System.nanoTime();
+        List<CompletableFuture<BatchItem>> items = new ArrayList<>(paths.size());
+        for (Path path : paths) {
+            items.add(CompletableFuture.supplyAsync(() -> BatchItem.builder()
+                    .setPath(path.toString())
+                    .setResult(apply(operation, path))
+                    .build(), batchExecutor));
+        }
+        List<BatchItem> results = items.stream()
+                .map(CompletableFuture::join)
+                .collect(Collectors.toList());
+        long nanos = System.nanoTime() - start;
+
+        long bytesProcessed = 0;
+        int failed = 0;
+        for (BatchItem item : results) {
+            FileOperationResult result = item.getResult();
+            if (FileOperationStatus.ERROR.equals(result.getStatus())) {
+                failed++;
+            }
+            if (result.getBytesProcessed() != null) {
+                bytesProcessed += result.getBytesProcessed();
+            }
+        }
+        log.info("Batch {} of {} items finished, {} failed.", command, results.size(), failed);
+        return BatchSummary.builder()
+                .setCommand(command)
+                .setStatus(failed > 0 ? FileOperationStatus.ERROR : FileOperationStatus.SUCCESS)
+                .setItems(results.size())
+                .setFailed(failed)
+                .setBytesProcessed(bytesProcessed)
+                .setDurationMillis(nanos / 1_000_000)
+                .setThroughput(Throughput.megabytesPerSecond(bytesProcessed, nanos))
+                .setResults(results)
+                .build();
+    }
+
+    private FileOperationResult apply(Function<Path, FileOperationResult> operation, Path path) {
+        try {
+            return operation.apply(path);
+        } catch (RuntimeException e) {
+            log.error("Error processing {} in batch: ", path, e);
+            return errorResult(e.toString());
+        }
+    }
+
+    /**
+     * Replaces every directory with the regular files directly inside it, in name order.
+     * A directory that cannot be listed is kept as is and fails as a non-file.
+     */
+    private List<Path> expandDirectories(List<Path> paths) {
+        List<Path> files = new ArrayList<>();
+        for (Path path : paths) {
+            if (!Files.isDirectory(path)) {
+                files.add(path);
+                continue;
+            }
+            try (Stream<Path> children = Files.list(path)) {
+                children.filter(Files::isRegularFile)
+                        .sorted()
+                        .forEach(files::add);
+            } catch (IOException e) {
+                log.error("Error listing {}: ", path, e);
+                files.add(path);
+            }
+        }
+        return files;
+    }
+
+    private static String fileName(Path file) {
+        Path name = file.getFileName();
+        return name == null ? file.toString() : name.toString();
+    }
+
+    private FileOperationResult errorResult(String description) {
+        return FileOperationResult.builder()
+                .setStatus(FileOperationStatus.ERROR)
+                .setDescription(description)
+                .build();
+    }
+}
@@ -0,0 +1,321 @@
+package me.aakrylov.chunkanalyzer.service;
+
+import lombok.extern.slf4j.Slf4j;
+import me.aakrylov.chunkanalyzer.component.FindingsAggregator;
+import me.aakrylov.chunkanalyzer.model.FileOperationResult;
+import me.aakrylov.chunkanalyzer.model.WatchStatus;
+import me.aakrylov.chunkanalyzer.service.api.DirectoryWatchService;
+import me.aakrylov.chunkanalyzer.service.api.FileService;
+import me.aakrylov.chunkanalyzer.type.ContentCharset;
+import me.aakrylov.chunkanalyzer.type.FileOperationStatus;
+import me.aakrylov.chunkanalyzer.util.ChunkNames;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Watches split directories with a {@link WatchService} on a single background thread.
+ * <p>
+ * A change only marks its part as pending. The part is analyzed once no event has arrived for it during
+ * the debounce interval, so a part that is still being written is analyzed once, after its writer is done.
+ * With a multi-byte charset the neighbours of a changed part are analyzed again too, because a character
+ * may be split between them. Results are kept per part and summed up when the status is asked for.
+ */
+@Service
+@Slf4j
+public class DefaultDirectoryWatchService implements DirectoryWatchService {
+
+    private static final long STOP_TIMEOUT_MILLIS = 5000;
+    // Event time of parts queued without debounce, compared by value since it overflows a nanoTime difference
+    private static final long SETTLED = Long.MIN_VALUE;
+    private static final Comparator<Path> PART_ORDER = Comparator.comparingInt(ChunkNames::partIndex)
+            .thenComparing(Comparator.naturalOrder());
+
+    private final FileService fileService;
+    private final ContentCharset defaultCharset;
+    private final long debounceNanos;
+    private final Map<Path, Watch> watches = new ConcurrentHashMap<>();
+    private final Map<WatchKey, Watch> watchesByKey = new ConcurrentHashMap<>();
+    private WatchService watchService;
+    private Thread watcher;
+
+    public DefaultDirectoryWatchService(FileService fileService,
+                                        @Value("${files.analyze.charset:US-ASCII}") String defaultCharset,
+                                        @Value("${files.watch.debounce.millis:500}") long debounceMillis) {
+        this.fileService = fileService;
+        this.defaultCharset = ContentCharset.forName(defaultCharset);
+        this.debounceNanos = TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (watcher != null) {
+            return;
+        }
+        watchService = FileSystems.getDefault().newWatchService();
+        watcher = new Thread(this::watchLoop, "directory-watch");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        if (watcher == null) {
+            return;
+        }
+        watchService.close();
+        watcher.interrupt();
+        watcher.join(STOP_TIMEOUT_MILLIS);
+        watcher = null;
+    }
+
+    @Override
+    public WatchStatus watch(Path directory, ContentCharset charset) throws IOException {
+        Path key = directory.toAbsolutePath().normalize();
+        if (!Files.isDirectory(key)) {
+            throw new NoSuchFileException(directory.toString(), null, "not a directory");
+        }
+        ContentCharset contentCharset = charset == null ? defaultCharset : charset;
+        Watch watch = watches.computeIfAbsent(key, Watch::new);
+        synchronized (watch) {
+            if (watch.watchKey == null) {
+                watch.reset(contentCharset, List.of());
+                watch.watchKey = key.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+                watchesByKey.put(watch.watchKey, watch);
+                log.info("Watching directory [{}]", key);
+            }
+        }
+        watch.reset(contentCharset, listParts(key));
+        return watch.toStatus();
+    }
+
+    @Override
+    public Optional<WatchStatus> status(Path directory) {
+        return Optional.ofNullable(watches.get(directory.toAbsolutePath().normalize())).map(Watch::toStatus);
+    }
+
+    @Override
+    public List<WatchStatus> watches() {
+        return watches.values().stream()
+                .map(Watch::toStatus)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Optional<WatchStatus> unwatch(Path directory) {
+        Watch watch = watches.remove(directory.toAbsolutePath().normalize());
+        if (watch == null) {
+            return Optional.empty();
+        }
+        cancel(watch);
+        log.info("Stopped watching directory [{}]", watch.directory);
+        return Optional.of(watch.toStatus());
+    }
+
+    private void watchLoop() {
+        long pollNanos = Math.max(debounceNanos / 2, TimeUnit.MILLISECONDS.toNanos(10));
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.poll(pollNanos, TimeUnit.NANOSECONDS);
+                while (key != null) {
+                    handleEvents(key);
+                    key = watchService.poll();
+                }
+                for (Watch watch : watches.values()) {
+                    try {
+                        analyzeSettled(watch);
+                    } catch (RuntimeException e) {
+                        log.error("Error analyzing changed parts of [{}]:", watch.directory, e);
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            log.debug("Directory watch is stopping");
+        }
+    }
+
+    private void handleEvents(WatchKey key) {
+        Watch watch = watchesByKey.get(key);
+        if (watch == null) {
+            key.cancel();
+            return;
+        }
+        long now = System.nanoTime();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                log.warn("Missed events in [{}], analyzing every part again", watch.directory);
+                try {
+                    watch.markPending(listParts(watch.directory), now);
+                } catch (IOException e) {
+                    log.warn("Could not list parts of [{}]: {}", watch.directory, e.toString());
+                }
+                continue;
+            }
+            Path file = watch.directory.resolve((Path) event.context());
+            if (ChunkNames.partIndex(file) > 0) {
+                watch.markPending(List.of(file), now);
+            }
+        }
+        if (!key.reset()) {
+            log.info("Directory [{}] is gone, stopping its watch", watch.directory);
+            watches.remove(watch.directory, watch);
+            cancel(watch);
+        }
+    }
+
+    private void analyzeSettled(Watch watch) {
+        List<Path> settled = watch.takeSettled(System.nanoTime() - debounceNanos);
+        if (settled.isEmpty()) {
+            return;
+        }
+        ContentCharset charset = watch.getCharset();
+        for (Path part : settled) {
+            if (Files.isRegularFile(part)) {
+                watch.update(part, fileService.analyzePart(part, charset));
+            } else {
+                watch.remove(part);
+            }
+        }
+        log.debug("Analyzed {} changed parts of [{}]", settled.size(), watch.directory);
+    }
+
+    private void cancel(Watch watch) {
+        if (watch.watchKey != null) {
+            watchesByKey.remove(watch.watchKey);
+            watch.watchKey.cancel();
+        }
+    }
+
+    private List<Path> listParts(Path directory) throws IOException {
+        List<Path> parts = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory,
+                file -> ChunkNames.partIndex(file) > 0 && Files.isRegularFile(file))) {
+            files.forEach(parts::add);
+        }
+        return parts;
+    }
+
+    private static class Watch {
+
+        private final Path directory;
+        private final long watchedSince = System.currentTimeMillis();
+        private final Map<Path, Long> pending = new HashMap<>();
+        private final TreeMap<Path, FileOperationResult> results = new TreeMap<>(PART_ORDER);
+        private volatile WatchKey watchKey;
+        private ContentCharset charset;
+        private long analyzedParts;
+        private Long lastAnalyzedAt;
+
+        private Watch(Path directory) {
+            this.directory = directory;
+        }
+
+        private synchronized ContentCharset getCharset() {
+            return charset;
+        }
+
+        /**
+         * Queues every part for analysis without waiting for the debounce interval.
+         */
+        private synchronized void reset(ContentCharset contentCharset, List<Path> parts) {
+            if (contentCharset != charset) {
+                charset = contentCharset;
+                results.clear();
+            }
+            parts.forEach(part -> pending.put(part, SETTLED));
+        }
+
+        private synchronized void markPending(List<Path> parts, long eventNanos) {
+            for (Path part : parts) {
+                pending.put(part, eventNanos);
+                if (charset.getMaxSequenceLength() > 1) {
+                    neighbours(part).forEach(neighbour -> pending.putIfAbsent(neighbour, eventNanos));
+                }
+            }
+        }
+
+        /**
+         * Takes the parts without events since {@code quietSince}, in part order.
+         */
+        private synchronized List<Path> takeSettled(long quietSince) {
+            List<Path> settled = new ArrayList<>();
+            pending.entrySet().removeIf(entry -> {
+                if (entry.getValue() != SETTLED && entry.getValue() - quietSince > 0) {
+                    return false;
+                }
+                settled.add(entry.getKey());
+                return true;
+            });
+            settled.sort(PART_ORDER);
+            return settled;
+        }
+
+        private synchronized void update(Path part, FileOperationResult result) {
+            results.put(part, result);
+            analyzedParts++;
+            lastAnalyzedAt = System.currentTimeMillis();
+        }
+
+        private synchronized void remove(Path part) {
+            results.remove(part);
+            lastAnalyzedAt = System.currentTimeMillis();
+        }
+
+        private List<Path> neighbours(Path part) {
+            List<Path> neighbours = new ArrayList<>(2);
+            Path previous = results.lowerKey(part);
+            Path next = results.higherKey(part);
+            if (previous != null) {
+                neighbours.add(previous);
+            }
+            if (next != null) {
+                neighbours.add(next);
+            }
+            return neighbours;
+        }
+
+        private synchronized WatchStatus toStatus() {
+            FindingsAggregator aggregator = new FindingsAggregator();
+            results.forEach(aggregator::addFile);
+            FileOperationResult result = FileOperationResult.builder()
+                    .setStatus(FileOperationStatus.SUCCESS)
+                    .setDescription(aggregator.getDescription())
+                    .setFindings(aggregator.getTotals())
+                    .setChunkCount(results.size())
+                    .build();
+            return WatchStatus.builder()
+                    .setDirectory(directory.toString())
+                    .setCharset(charset)
+                    .setPendingParts(pending.size())
+                    .setAnalyzedParts(analyzedParts)
+                    .setWatchedSince(watchedSince)
+                    .setLastAnalyzedAt(lastAnalyzedAt)
+                    .setResult(result)
+                    .build();
+        }
+    }
+}
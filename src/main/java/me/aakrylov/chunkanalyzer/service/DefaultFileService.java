@@ -2,98 +2,330 @@ package me.aakrylov.chunkanalyzer.service;
 
 import lombok.extern.slf4j.Slf4j;
 import me.aakrylov.chunkanalyzer.annotation.Loggable;
+import me.aakrylov.chunkanalyzer.component.AnalysisCache;
+import me.aakrylov.chunkanalyzer.component.ChunkAssembler;
+import me.aakrylov.chunkanalyzer.component.ChunkManifestStore;
+import me.aakrylov.chunkanalyzer.component.ChunkSplitter;
+import me.aakrylov.chunkanalyzer.component.ChunkStore;
+import me.aakrylov.chunkanalyzer.component.ChunkVerifier;
+import me.aakrylov.chunkanalyzer.component.ContentAnalyzer;
+import me.aakrylov.chunkanalyzer.component.ContentDefinedSplitter;
+import me.aakrylov.chunkanalyzer.component.ContentScanner;
+import me.aakrylov.chunkanalyzer.component.FindingsAggregator;
+import me.aakrylov.chunkanalyzer.component.FindingsCollector;
+import me.aakrylov.chunkanalyzer.component.FindingsLog;
 import me.aakrylov.chunkanalyzer.component.Pair;
+import me.aakrylov.chunkanalyzer.component.ParallelContentAnalyzer;
+import me.aakrylov.chunkanalyzer.component.PartCodec;
+import me.aakrylov.chunkanalyzer.component.PartIndex;
+import me.aakrylov.chunkanalyzer.component.ProgressTracker;
+import me.aakrylov.chunkanalyzer.component.RangeReader;
+import me.aakrylov.chunkanalyzer.model.ChunkManifest;
+import me.aakrylov.chunkanalyzer.model.ChunkRecipe;
 import me.aakrylov.chunkanalyzer.model.FileOperationResult;
+import me.aakrylov.chunkanalyzer.model.Finding;
+import me.aakrylov.chunkanalyzer.model.ManifestPart;
+import me.aakrylov.chunkanalyzer.model.RecipeChunk;
 import me.aakrylov.chunkanalyzer.service.api.FileService;
+import me.aakrylov.chunkanalyzer.type.ContentCharset;
 import me.aakrylov.chunkanalyzer.type.FileOperationStatus;
-import me.aakrylov.chunkanalyzer.util.StringUtils;
+import me.aakrylov.chunkanalyzer.util.ChunkNames;
+import me.aakrylov.chunkanalyzer.util.FileRanges;
+import me.aakrylov.chunkanalyzer.util.LocalPaths;
+import me.aakrylov.chunkanalyzer.util.Throughput;
+import me.aakrylov.chunkanalyzer.util.Uploads;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.BufferedInputStream;
-import java.io.File;
-import java.io.FileOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Stream;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
-import static java.lang.Math.ceil;
-import static java.lang.Math.round;
-
 @Service
 @Slf4j
 public class DefaultFileService implements FileService {
 
     private static final int RESERVED_BYTES = 400;
     private static final String INCORRECT_SYMBOL_MESSAGE = "Incorrect symbol [%s] at index [%d]";
+    private static final String FINDINGS_SUMMARY = "Found %d incorrect symbols in %d runs, first: ";
     private static final String FILE_EMPTY = "File [%s] has no content.";
+    /**
+     * Parts of the same file in part order, other files by name.
+     */
+    private static final Comparator<Path> CHUNK_ORDER = Comparator
+            .comparing((Path file) -> ChunkNames.partIndex(file) > 0 ? ChunkNames.originalName(file) : file.getFileName().toString())
+            .thenComparingInt(ChunkNames::partIndex)
+            .thenComparing(Path::toString);
+    private static final String VERIFIED_MESSAGE = "All %d parts of [%s] match the manifest";
+    private static final String SOURCE_NOT_DELETED = ", but its source was not fully deleted: %s";
 
-    private final Set<Character> number = StringUtils.convertToSet("1234567890");
-    private final Set<Character> latin = StringUtils.convertToSet("abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ");
-    private final Set<Character> special = StringUtils.convertToSet(" !\"#$%&'()*+,-./:;<=>?@[\\]^_`{|}~\r\n\t");
     private final String defaultFileLocation;
+    private final ContentAnalyzer contentAnalyzer;
+    private final ParallelContentAnalyzer parallelContentAnalyzer;
+    private final ChunkAssembler chunkAssembler;
+    private final ChunkSplitter chunkSplitter;
+    private final ChunkManifestStore manifestStore;
+    private final ChunkVerifier chunkVerifier;
+    private final PartCodec partCodec;
+    private final ContentDefinedSplitter contentDefinedSplitter;
+    private final ChunkStore chunkStore;
+    private final RangeReader rangeReader;
+    private final AnalysisCache analysisCache;
+    private final FindingsLog findingsLog;
+    private final ContentCharset defaultCharset;
+    private final ExecutorService analysisExecutor;
+    private final int maxInFlightBytes;
+    private final Semaphore inFlightBytes;
+    private final int findingsLimit;
+    private final boolean compressParts;
 
-    public DefaultFileService(@Value("${files.split.default.location}") String defaultFileLocation) {
+    public DefaultFileService(@Value("${files.split.default.location}") String defaultFileLocation,
+                              @Value("${files.analyze.all.max.inflight.bytes:268435456}") int maxInFlightBytes,
+                              @Value("${files.analyze.findings.limit:1000}") int findingsLimit,
+                              @Value("${files.analyze.charset:US-ASCII}") String defaultCharset,
+                              @Value("${files.split.compress:false}") boolean compressParts,
+                              ContentAnalyzer contentAnalyzer,
+                              ParallelContentAnalyzer parallelContentAnalyzer,
+                              ChunkAssembler chunkAssembler,
+                              ChunkSplitter chunkSplitter,
+                              ChunkManifestStore manifestStore,
+                              ChunkVerifier chunkVerifier,
+                              PartCodec partCodec,
+                              ContentDefinedSplitter contentDefinedSplitter,
+                              ChunkStore chunkStore,
+                              RangeReader rangeReader,
+                              AnalysisCache analysisCache,
+                              FindingsLog findingsLog,
+                              @Qualifier("analysisExecutor") ExecutorService analysisExecutor) {
         this.defaultFileLocation = defaultFileLocation;
+        this.contentAnalyzer = contentAnalyzer;
+        this.parallelContentAnalyzer = parallelContentAnalyzer;
+        this.chunkAssembler = chunkAssembler;
+        this.chunkSplitter = chunkSplitter;
+        this.manifestStore = manifestStore;
+        this.chunkVerifier = chunkVerifier;
+        this.partCodec = partCodec;
+        this.contentDefinedSplitter = contentDefinedSplitter;
+        this.chunkStore = chunkStore;
+        this.rangeReader = rangeReader;
+        this.analysisCache = analysisCache;
+        this.findingsLog = findingsLog;
+        this.defaultCharset = ContentCharset.forName(defaultCharset);
+        this.analysisExecutor = analysisExecutor;
+        this.maxInFlightBytes = maxInFlightBytes;
+        this.inFlightBytes = new Semaphore(maxInFlightBytes);
+        this.findingsLimit = findingsLimit;
+        this.compressParts = compressParts;
     }
 
     @Override
     @Loggable
     public FileOperationResult split(MultipartFile file, int chunkSize) {
+        return split(file, chunkSize, null);
+    }
+
+    @Override
+    @Loggable
+    public FileOperationResult split(MultipartFile file, int chunkSize, Boolean compress) {
         if (file.isEmpty()) {
             return emptyFileResult(file.getOriginalFilename());
         }
         String fileName = file.getOriginalFilename();
         log.info("[{}] Start splitting file.", fileName);
-        Integer bufferSize = chunkSize * 1024 - RESERVED_BYTES;
-        int partCounter = 1;
-        byte[] buffer = new byte[bufferSize];
-        long chunkCount = round(ceil(file.getSize() / bufferSize.doubleValue()));
         log.info("[{}] File size: {}", fileName, file.getSize());
-        log.debug("Chunk size: {}", bufferSize);
-        log.info("[{}] Split into {} chunks by {} bytes", fileName, chunkCount, bufferSize);
+        Path tempFile = null;
         try {
-            try (BufferedInputStream bis = new BufferedInputStream(file.getInputStream())) {
-                int bytesAmount;
-                int counter = 1;
-                while ((bytesAmount = bis.read(buffer)) > 0) {
-                    String filePartName = String.format("%s.%03d", fileName, partCounter++);
-                    assert Objects.nonNull(fileName);
-                    String destinationDir = defaultFileLocation + fileName.replace("\\.", "_");
-                    createDirIfNotExists(destinationDir);
-                    File newFile = new File(destinationDir, filePartName);
-                    try (FileOutputStream out = new FileOutputStream(newFile)) {
-                        log.trace("Splitting file {}, part {}", fileName, counter++);
-                        out.write(buffer, 0, bytesAmount);
-                    }
-                }
+            assert Objects.nonNull(fileName);
+            ChunkNames.checkFileName(fileName);
+            tempFile = Uploads.spool(file, "chunk-analyzer-");
+            return splitLocalFile(tempFile, fileName, chunkSize, compress == null ? compressParts : compress, false);
+        } catch (Exception e) {
+            log.error("[{}] Error splitting file into parts: ", fileName, e);
+            return errorResult(e.toString());
+        } finally {
+            if (tempFile != null) {
+                deleteQuietly(tempFile);
             }
+        }
+    }
+
+    @Override
+    @Loggable
+    public FileOperationResult split(Path source, String fileName, int chunkSize) {
+        return split(source, fileName, chunkSize, null);
+    }
+
+    @Override
+    @Loggable
+    public FileOperationResult split(Path source, String fileName, int chunkSize, Boolean compress) {
+        return splitFile(source, fileName, chunkSize, compress == null ? compressParts : compress, true);
+    }
+
+    @Override
+    @Loggable
+    public FileOperationResult splitUpload(Path upload, String fileName, int chunkSize) {
+        return splitFile(upload, fileName, chunkSize, compressParts, false);
+    }
+
+    private FileOperationResult splitFile(Path source, String fileName, int chunkSize, boolean compress,
+                                          boolean mapSource) {
+        log.info("[{}] Start splitting file {}.", fileName, source);
+        if (!Files.isRegularFile(source)) {
+            return errorResult(String.format("%s is not a file!", source));
+        }
+        try {
+            if (Files.size(source) == 0) {
+                return emptyFileResult(fileName);
+            }
+            return splitLocalFile(source, fileName, chunkSize, compress, mapSource);
         } catch (Exception e) {
             log.error("[{}] Error splitting file into parts: ", fileName, e);
             return errorResult(e.toString());
         }
-        return FileOperationResult.builder()
-                .setStatus(FileOperationStatus.SUCCESS)
-                .setDescription(String.format("File [%s] was split into %s parts", fileName, chunkCount))
-                .build();
+    }
+
+    @Override
+    @Loggable
+    public FileOperationResult split(InputStream content, String fileName, int chunkSize, boolean analyze) {
+        return split(content, fileName, chunkSize, analyze, null);
+    }
+
+    @Override
+    @Loggable
+    public FileOperationResult split(InputStream content, String fileName, int chunkSize, boolean analyze,
+                                     Boolean compress) {
+        log.info("[{}] Start splitting streamed file.", fileName);
+        boolean compressed = compress == null ? compressParts : compress;
+        int partSize = chunkSize * 1024 - RESERVED_BYTES;
+        if (partSize <= 0) {
+            return errorResult(String.format("Chunk size must be greater than %d bytes", RESERVED_BYTES));
+        }
+        long start = System.nanoTime();
+        FindingsCollector collector = analyze ? newCollector(fileName) : null;
+        LongAdder codecNanos = new LongAdder();
+        try {
+            Path destinationDir = destinationDir(fileName);
+            createDirIfNotExists(destinationDir);
+            ChunkManifest manifest = chunkSplitter.split(content, fileName, destinationDir, partSize, compressed,
+                    defaultCharset, collector, codecNanos);
+            long size = manifest.getTotalSize();
+            if (size == 0) {
+                return emptyFileResult(fileName);
+            }
+            manifestStore.write(destinationDir, manifest);
+            int chunkCount = manifest.getPartCount();
+            long elapsed = System.nanoTime() - start;
+            log.info("[{}] Split into {} chunks by {} bytes", fileName, chunkCount, partSize);
+            FileOperationResult result = FileOperationResult.builder()
+                    .setStatus(FileOperationStatus.SUCCESS)
+                    .setDescription(String.format("File [%s] was split into %s parts", fileName, chunkCount))
+                    .setFindings(collector == null ? null : collector.toReport())
+                    .setBytesProcessed(size)
+                    .setChunkCount(chunkCount)
+                    .setDurationMillis(TimeUnit.NANOSECONDS.toMillis(elapsed))
+                    .setThroughput(Throughput.megabytesPerSecond(size, elapsed))
+                    .build();
+            if (compressed) {
+                addCompressionStats(result, size, storedSize(manifest), codecNanos);
+            }
+            return result;
+        } catch (Exception e) {
+            log.error("[{}] Error splitting streamed file into parts: ", fileName, e);
+            return errorResult(e.toString());
+        }
+    }
+
+    @Override
+    @Loggable
+    public FileOperationResult splitContentDefined(MultipartFile file) {
+        if (file.isEmpty()) {
+            return emptyFileResult(file.getOriginalFilename());
+        }
+        String fileName = file.getOriginalFilename();
+        log.info("[{}] Start content-defined split.", fileName);
+        Path tempFile = null;
+        try {
+            assert Objects.nonNull(fileName);
+            ChunkNames.checkFileName(fileName);
+            tempFile = Uploads.spool(file, "chunk-analyzer-");
+            return splitLocalFileByContent(tempFile, fileName, false);
+        } catch (Exception e) {
+            log.error("[{}] Error splitting file into chunks: ", fileName, e);
+            return errorResult(e.toString());
+        } finally {
+            if (tempFile != null) {
+                deleteQuietly(tempFile);
+            }
+        }
+    }
+
+    @Override
+    @Loggable
+    public FileOperationResult splitContentDefined(Path source, String fileName) {
+        log.info("[{}] Start content-defined split of {}.", fileName, source);
+        if (!Files.isRegularFile(source)) {
+            return errorResult(String.format("%s is not a file!", source));
+        }
+        try {
+            if (Files.size(source) == 0) {
+                return emptyFileResult(fileName);
+            }
+            return splitLocalFileByContent(source, fileName, true);
+        } catch (Exception e) {
+            log.error("[{}] Error splitting file into chunks: ", fileName, e);
+            return errorResult(e.toString());
+        }
     }
 
     @Override
     @Loggable
     public FileOperationResult analyze(MultipartFile file) {
+        return analyze(file, null, null);
+    }
+
+    @Override
+    @Loggable
+    public FileOperationResult analyze(MultipartFile file, ContentCharset charset, Consumer<Finding> findingSink) {
+        ContentCharset contentCharset = charset == null ? defaultCharset : charset;
         log.info("[{}] Start file analysis.", file.getOriginalFilename());
         if (file.isEmpty()) {
             return emptyFileResult(file.getOriginalFilename());
         }
+        FindingsCollector collector = findingSink == null
+                ? newCollector(file.getOriginalFilename())
+                : new FindingsCollector(0, withFindingsLog(file.getOriginalFilename(), findingSink));
         try {
-            try (BufferedInputStream bis = new BufferedInputStream(file.getInputStream())) {
-                return isCorrectContent(bis.readAllBytes());
+            if (parallelContentAnalyzer.isParallelizable(file.getSize())) {
+                return analyzeUploadInParallel(file, contentCharset, collector);
+            }
+            try (InputStream in = file.getInputStream()) {
+                return isCorrectContent(in, contentCharset, collector);
             }
         } catch (Exception e) {
             log.error("[{}] Error analyzing file: ", file.getOriginalFilename(), e);
@@ -101,6 +333,62 @@ public class DefaultFileService implements FileService {
         }
     }
 
+    @Override
+    @Loggable
+    public FileOperationResult analyze(Path file) {
+        return analyze(file, null);
+    }
+
+    @Override
+    @Loggable
+    public FileOperationResult analyze(Path file, ContentCharset charset) {
+        return analyzeFile(file, charset, false);
+    }
+
+    @Override
+    @Loggable
+    public FileOperationResult analyzeUpload(Path upload) {
+        return analyzeFile(upload, null, true);
+    }
+
+    /**
+     * @param temporary the file is deleted right afterwards: it is neither mapped nor cached
+     */
+    private FileOperationResult analyzeFile(Path file, ContentCharset charset, boolean temporary) {
+        ContentCharset contentCharset = charset == null ? defaultCharset : charset;
+        log.info("[{}] Start file analysis.", file);
+        if (!Files.isRegularFile(file)) {
+            return errorResult(String.format("%s is not a file!", file));
+        }
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            if (attributes.size() == 0) {
+                return emptyFileResult(file.toString());
+            }
+            String cacheKey = temporary ? null : cacheKey(file, attributes, analysisVariant(contentCharset));
+            Optional<FileOperationResult> cached = cacheKey == null ? Optional.empty() : analysisCache.get(cacheKey);
+            if (cached.isPresent()) {
+                log.debug("[{}] Analysis result taken from cache", file);
+                return cached.get();
+            }
+            FileOperationResult result;
+            if (ChunkNames.isCompressed(file)) {
+                try (InputStream in = partCodec.open(file, null)) {
+                    result = isCorrectContent(in, contentCharset, newCollector(file.toString()));
+                }
+            } else {
+                result = isCorrectContent(file, contentCharset, newCollector(file.toString()), !temporary);
+            }
+            if (cacheKey != null) {
+                analysisCache.put(cacheKey, result);
+            }
+            return result;
+        } catch (Exception e) {
+            log.error("[{}] Error analyzing file: ", file, e);
+            return errorResult(e.toString());
+        }
+    }
+
     @Override
     @Loggable
     public FileOperationResult assemble(Path directory, boolean deleteSource) {
@@ -108,137 +396,605 @@ public class DefaultFileService implements FileService {
             String errorMessage = String.format("%s is not a directory!", directory);
             return errorResult(errorMessage);
         }
-        String fileName = getFileNameFromDir(directory);
-        log.info("Building file [{}] from chunks", fileName);
-        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
-            if (dirIsEmpty(directory)) {
+        Path targetPath = null;
+        try {
+            Optional<ChunkRecipe> recipe = manifestStore.readRecipe(directory);
+            Optional<ChunkManifest> manifest = recipe.isPresent() ? Optional.empty() : manifestStore.read(directory);
+            List<Path> parts;
+            if (recipe.isPresent()) {
+                parts = chunkStore.resolve(recipe.get());
+            } else if (manifest.isPresent()) {
+                parts = manifestStore.resolveParts(directory, manifest.get());
+            } else {
+                parts = chunkAssembler.listParts(directory);
+            }
+            if (parts.isEmpty()) {
                 return FileOperationResult.builder()
                         .setStatus(FileOperationStatus.ERROR)
                         .setDescription(String.format("Directory [%s] is empty", directory))
                         .build();
             }
-            Path targetPath = directory.getParent().resolve(fileName);
-            if (Files.exists(targetPath)) {
-                Files.delete(targetPath);
-            }
-            Path targetFile = Files.createFile(targetPath);
-            AtomicInteger counter = new AtomicInteger(1);
-            StreamSupport.stream(files.spliterator(), false)
-                    .sequential()
-                    .sorted(Comparator.comparing(Path::toString))
-                    .forEach(file -> {
-                        try {
-                            log.trace("Building file, part {}", counter.getAndIncrement());
-                            Files.write(targetFile, Files.readAllBytes(file), StandardOpenOption.APPEND);
-                            if (deleteSource) {
-                                Files.delete(file);
-                            }
-                        } catch (IOException e) {
-                            log.error("Error writing file part [{}] to common file:", file.getFileName(), e);
-                        }
-                    });
+            String fileName;
+            if (recipe.isPresent()) {
+                fileName = recipe.get().getFileName();
+            } else {
+                fileName = manifest.isPresent()
+                        ? manifest.get().getFileName()
+                        : ChunkNames.originalName(parts.get(0));
+            }
+            log.info("Building file [{}] from {} chunks", fileName, parts.size());
+            targetPath = directory.toAbsolutePath().getParent().resolve(fileName);
+            long storedSize = 0;
+            boolean compressed = false;
+            for (Path part : parts) {
+                compressed |= ChunkNames.isCompressed(part);
+                storedSize += Files.size(part);
+            }
+            LongAdder codecNanos = new LongAdder();
+            long start = System.nanoTime();
+            long size = chunkAssembler.assemble(parts, targetPath, codecNanos);
+            long elapsed = System.nanoTime() - start;
+            // From here on the assembled file may be the only complete copy, it is never deleted on failure
+            targetPath = null;
+            String description = String.format("File [%s] was assembled from %s parts", fileName, parts.size());
+            if (deleteSource) {
+                String deleteProblem = deleteSource(directory, parts, recipe.isPresent());
+                if (deleteProblem != null) {
+                    description += String.format(SOURCE_NOT_DELETED, deleteProblem);
+                }
+            }
+            FileOperationResult result = FileOperationResult.builder()
+                    .setStatus(FileOperationStatus.SUCCESS)
+                    .setDescription(description)
+                    .setBytesProcessed(size)
+                    .setChunkCount(parts.size())
+                    .setDurationMillis(TimeUnit.NANOSECONDS.toMillis(elapsed))
+                    .setThroughput(Throughput.megabytesPerSecond(size, elapsed))
+                    .build();
+            if (compressed) {
+                addCompressionStats(result, size, storedSize, codecNanos);
+            }
+            return result;
         } catch (Exception e) {
             log.error("Error building file from path [{}]:", directory, e);
+            if (targetPath != null) {
+                deleteQuietly(targetPath);
+            }
             return errorResult(e.toString());
         }
-        return FileOperationResult.builder()
-                .setStatus(FileOperationStatus.SUCCESS)
-                .build();
+    }
+
+    /**
+     * Removes the parts of an assembled file, or only its recipe since chunks may be shared with other files.
+     *
+     * @return the problem that stopped the cleanup, {@code null} if everything was deleted
+     */
+    private String deleteSource(Path directory, List<Path> parts, boolean recipe) {
+        try {
+            if (recipe) {
+                Files.delete(directory.resolve(ChunkNames.RECIPE));
+                return null;
+            }
+            for (Path part : parts) {
+                Files.delete(part);
+            }
+            Files.deleteIfExists(directory.resolve(ChunkNames.MANIFEST));
+            return null;
+        } catch (IOException e) {
+            log.warn("Assembled [{}] but could not delete its source: {}", directory, e.toString());
+            return e.toString();
+        }
+    }
+
+    @Override
+    @Loggable
+    public FileOperationResult verify(Path directory) {
+        log.info("Verifying parts in {} folder", directory);
+        if (!Files.isDirectory(directory)) {
+            return errorResult(String.format("%s is not a directory!", directory));
+        }
+        try {
+            Optional<ChunkManifest> manifest = manifestStore.read(directory);
+            if (manifest.isEmpty()) {
+                return errorResult(String.format("Directory [%s] has no manifest", directory));
+            }
+            long start = System.nanoTime();
+            List<String> problems = chunkVerifier.verify(directory, manifest.get());
+            long elapsed = System.nanoTime() - start;
+            long size = manifest.get().getTotalSize();
+            return FileOperationResult.builder()
+                    .setStatus(problems.isEmpty() ? FileOperationStatus.SUCCESS : FileOperationStatus.ERROR)
+                    .setDescription(problems.isEmpty()
+                            ? String.format(VERIFIED_MESSAGE, manifest.get().getPartCount(), manifest.get().getFileName())
+                            : String.join("\r\n", problems))
+                    .setBytesProcessed(size)
+                    .setChunkCount(manifest.get().getPartCount())
+                    .setDurationMillis(TimeUnit.NANOSECONDS.toMillis(elapsed))
+                    .setThroughput(Throughput.megabytesPerSecond(size, elapsed))
+                    .build();
+        } catch (Exception e) {
+            log.error("Error verifying parts in [{}]:", directory, e);
+            return errorResult(e.toString());
+        }
+    }
+
+    @Override
+    public PartIndex index(Path directory) throws IOException {
+        return rangeReader.index(LocalPaths.requireUnder(Paths.get(defaultFileLocation), directory));
+    }
+
+    @Override
+    @Loggable
+    public long read(PartIndex index, long from, long length, WritableByteChannel target) throws IOException {
+        return rangeReader.transfer(index, from, length, target);
     }
 
     @Override
     @Loggable
     public FileOperationResult analyzeAll(Path directory) {
+        return analyzeAll(directory, null);
+    }
+
+    @Override
+    @Loggable
+    public FileOperationResult analyzeAll(Path directory, ContentCharset charset) {
+        ContentCharset contentCharset = charset == null ? defaultCharset : charset;
+        boolean multiByte = contentCharset.getMaxSequenceLength() > 1;
         log.info("Analyzing all files in {} folder", directory);
-        StringBuilder sb = new StringBuilder();
-        String errorString = "Error in file [%s]: %s";
-        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
-            StreamSupport.stream(files.spliterator(), false)
-                    .sequential()
-                    .sorted(Comparator.comparing(Path::toString))
-                    .map(filePath -> {
-                        log.trace("Analyzing file {}", filePath);
-                        try {
-                            return Pair.of(filePath, isCorrectContent(Files.readAllBytes(filePath)));
-                        } catch (IOException e) {
-                            return Pair.of(filePath, errorResult(e.toString()));
-                        }
-                    })
-                    .filter(pair -> FileOperationStatus.ERROR.equals(pair.getRight().getStatus()))
-                    .forEach(pair -> sb.append(String.format(errorString, pair.getLeft(), pair.getRight().getDescription()))
-                            .append("\r\n"));
-            return FileOperationResult.builder()
+        try {
+            Optional<ChunkRecipe> recipe = manifestStore.readRecipe(directory);
+            if (recipe.isPresent()) {
+                return analyzeRecipe(recipe.get(), contentCharset);
+            }
+        } catch (Exception e) {
+            log.error("Error reading recipe in [{}]:", directory, e);
+            return errorResult(e.toString());
+        }
+        List<Future<Pair<Path, FileOperationResult>>> analyses = new ArrayList<>();
+        ProgressTracker progress = ProgressTracker.current();
+        long cacheHits = 0;
+        long totalBytes = 0;
+        long storedBytes = 0;
+        boolean compressed = false;
+        LongAdder codecNanos = new LongAdder();
+        long start = System.nanoTime();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory,
+                file -> Files.isRegularFile(file) && !ChunkNames.isManifest(file))) {
+            List<Path> chunks = StreamSupport.stream(files.spliterator(), false)
+                    .sorted(CHUNK_ORDER)
+                    .collect(Collectors.toList());
+            for (int indx = 0; indx < chunks.size(); indx++) {
+                Path chunk = chunks.get(indx);
+                BasicFileAttributes attributes = Files.readAttributes(chunk, BasicFileAttributes.class);
+                long contentSize = partCodec.contentSize(chunk);
+                compressed |= ChunkNames.isCompressed(chunk);
+                totalBytes += contentSize;
+                storedBytes += attributes.size();
+                Path previous = multiByte && indx > 0 && ChunkNames.isNextPart(chunks.get(indx - 1), chunk)
+                        ? chunks.get(indx - 1) : null;
+                Path next = multiByte && indx + 1 < chunks.size() && ChunkNames.isNextPart(chunk, chunks.get(indx + 1))
+                        ? chunks.get(indx + 1) : null;
+                String variant = analysisVariant(contentCharset) + neighbourVariant(previous) + neighbourVariant(next);
+                String cacheKey = cacheKey(chunk, attributes, variant);
+                Optional<FileOperationResult> cached = cacheKey == null ? Optional.empty() : analysisCache.get(cacheKey);
+                if (cached.isPresent()) {
+                    cacheHits++;
+                    progress.advance(contentSize);
+                    analyses.add(CompletableFuture.completedFuture(Pair.of(chunk, cached.get())));
+                } else {
+                    ChunkNeighbours neighbours = new ChunkNeighbours(previous, next);
+                    analyses.add(submitChunkAnalysis(chunk, attributes.size(), contentSize, contentCharset, neighbours,
+                            cacheKey, codecNanos, progress));
+                }
+            }
+            FindingsAggregator aggregator = new FindingsAggregator();
+            for (Future<Pair<Path, FileOperationResult>> analysis : analyses) {
+                Pair<Path, FileOperationResult> pair = analysis.get();
+                aggregator.addFile(pair.getLeft(), pair.getRight());
+            }
+            if (analysisCache.isEnabled()) {
+                analysisCache.flush();
+            }
+            long elapsed = System.nanoTime() - start;
+            FileOperationResult result = FileOperationResult.builder()
                     .setStatus(FileOperationStatus.SUCCESS)
-                    .setDescription(sb.toString().equals("") ? sb.toString() : null)
+                    .setDescription(aggregator.getDescription())
+                    .setFindings(aggregator.getTotals())
+                    .setBytesProcessed(totalBytes)
+                    .setChunkCount(analyses.size())
+                    .setDurationMillis(TimeUnit.NANOSECONDS.toMillis(elapsed))
+                    .setThroughput(Throughput.megabytesPerSecond(totalBytes, elapsed))
+                    .setCacheHits(analysisCache.isEnabled() ? cacheHits : null)
+                    .setCacheMisses(analysisCache.isEnabled() ? analyses.size() - cacheHits : null)
                     .build();
+            if (compressed) {
+                addCompressionStats(result, totalBytes, storedBytes, codecNanos);
+            }
+            return result;
         } catch (Exception e) {
+            analyses.forEach(analysis -> analysis.cancel(true));
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
             log.error("Error analyzing files in [{}]:", directory, e);
             return errorResult(e.toString());
         }
     }
 
-    private boolean dirIsEmpty(Path dir) {
-        if (Files.isDirectory(dir)) {
-            try (Stream<Path> entries = Files.list(dir)) {
-                return entries.findFirst().isEmpty();
-            } catch (Exception e) {
-                return false;
+    @Override
+    public FileOperationResult analyzePart(Path part, ContentCharset charset) {
+        ContentCharset contentCharset = charset == null ? defaultCharset : charset;
+        boolean multiByte = contentCharset.getMaxSequenceLength() > 1;
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(part, BasicFileAttributes.class);
+            Path previous = multiByte ? adjacentPart(part, -1) : null;
+            Path next = multiByte ? adjacentPart(part, 1) : null;
+            String variant = analysisVariant(contentCharset) + neighbourVariant(previous) + neighbourVariant(next);
+            String cacheKey = cacheKey(part, attributes, variant);
+            Optional<FileOperationResult> cached = cacheKey == null ? Optional.empty() : analysisCache.get(cacheKey);
+            if (cached.isPresent()) {
+                return cached.get();
             }
+            return submitChunkAnalysis(part, attributes.size(), partCodec.contentSize(part), contentCharset,
+                    new ChunkNeighbours(previous, next), cacheKey, null, ProgressTracker.current()).get().getRight();
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.error("Error analyzing part [{}]:", part, e);
+            return errorResult(e.toString());
         }
-        return false;
     }
 
-    private String getFileNameFromDir(Path dirPath) {
-        try (DirectoryStream<Path> files = Files.newDirectoryStream(dirPath)) {
-            return StreamSupport.stream(files.spliterator(), false)
-                    .findFirst()
-                    .map(filePath -> {
-                        String fileName = filePath.getFileName().toString();
-                        return fileName.substring(0, fileName.lastIndexOf("."));
-                    })
-                    .orElse("");
+    /**
+     * Analyzes a content-defined split. Every distinct chunk is scanned once, however often it occurs,
+     * and its result counts at every offset. With a multi-byte charset a chunk is distinct together with
+     * its neighbours, because a character may be cut by the chunk boundary.
+     */
+    private FileOperationResult analyzeRecipe(ChunkRecipe recipe, ContentCharset charset) {
+        boolean multiByte = charset.getMaxSequenceLength() > 1;
+        List<RecipeChunk> chunks = recipe.getChunks();
+        Map<String, Future<Pair<Path, FileOperationResult>>> analyses = new HashMap<>();
+        List<String> occurrences = new ArrayList<>(chunks.size());
+        ProgressTracker progress = ProgressTracker.current();
+        long cacheHits = 0;
+        long distinctBytes = 0;
+        long start = System.nanoTime();
+        try {
+            for (int indx = 0; indx < chunks.size(); indx++) {
+                RecipeChunk chunk = chunks.get(indx);
+                RecipeChunk previous = multiByte && indx > 0 ? chunks.get(indx - 1) : null;
+                RecipeChunk next = multiByte && indx + 1 < chunks.size() ? chunks.get(indx + 1) : null;
+                String variant = multiByte
+                        ? String.format("%s|%s|%s", analysisVariant(charset), hashOf(previous), hashOf(next))
+                        : analysisVariant(charset);
+                String occurrence = chunk.getHash() + "|" + variant;
+                occurrences.add(occurrence);
+                if (analyses.containsKey(occurrence)) {
+                    continue;
+                }
+                distinctBytes += chunk.getSize();
+                Path file = chunkStore.path(chunk.getHash());
+                String cacheKey = analysisCache.isEnabled() ? analysisCache.contentKey(chunk.getHash(), variant) : null;
+                Optional<FileOperationResult> cached = cacheKey == null ? Optional.empty() : analysisCache.get(cacheKey);
+                if (cached.isPresent()) {
+                    cacheHits++;
+                    progress.advance(chunk.getSize());
+                    analyses.put(occurrence, CompletableFuture.completedFuture(Pair.of(file, cached.get())));
+                } else {
+                    ChunkNeighbours neighbours = new ChunkNeighbours(
+                            previous == null ? null : chunkStore.path(previous.getHash()),
+                            next == null ? null : chunkStore.path(next.getHash()));
+                    analyses.put(occurrence, submitChunkAnalysis(file, chunk.getSize(), chunk.getSize(), charset,
+                            neighbours, cacheKey, null, progress));
+                }
+            }
+            FindingsAggregator aggregator = new FindingsAggregator();
+            for (int indx = 0; indx < chunks.size(); indx++) {
+                RecipeChunk chunk = chunks.get(indx);
+                FileOperationResult result = analyses.get(occurrences.get(indx)).get().getRight();
+                aggregator.addChunk(chunk.getHash(), chunk.getOffset(), result);
+            }
+            if (analysisCache.isEnabled()) {
+                analysisCache.flush();
+            }
+            long elapsed = System.nanoTime() - start;
+            long totalBytes = recipe.getTotalSize();
+            return FileOperationResult.builder()
+                    .setStatus(FileOperationStatus.SUCCESS)
+                    .setDescription(aggregator.getDescription())
+                    .setFindings(aggregator.getTotals())
+                    .setBytesProcessed(totalBytes)
+                    .setChunkCount(chunks.size())
+                    .setDurationMillis(TimeUnit.NANOSECONDS.toMillis(elapsed))
+                    .setThroughput(Throughput.megabytesPerSecond(totalBytes, elapsed))
+                    .setCacheHits(analysisCache.isEnabled() ? cacheHits : null)
+                    .setCacheMisses(analysisCache.isEnabled() ? analyses.size() - cacheHits : null)
+                    .setDedupBytes(totalBytes - distinctBytes)
+                    .build();
         } catch (Exception e) {
-            return "unknown.txt";
+            analyses.values().forEach(analysis -> analysis.cancel(true));
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.error("Error analyzing chunks of [{}]:", recipe.getFileName(), e);
+            return errorResult(e.toString());
         }
     }
 
-    private void createDirIfNotExists(String dirPath) throws IOException {
-        Path dir = Paths.get(dirPath);
+    private String hashOf(RecipeChunk chunk) {
+        return chunk == null ? "-" : chunk.getHash();
+    }
+
+    /**
+     * Reserves the stored chunk size from the in-flight budget before handing the chunk to the executor,
+     * so the directory walk slows down instead of queueing more IO than the budget allows.
+     */
+    private Future<Pair<Path, FileOperationResult>> submitChunkAnalysis(Path chunk, long size, long contentSize,
+                                                                         ContentCharset charset,
+                                                                         ChunkNeighbours neighbours, String cacheKey,
+                                                                         LongAdder codecNanos, ProgressTracker progress)
+            throws InterruptedException {
+        int reservedBytes = (int) Math.min(size, maxInFlightBytes);
+        inFlightBytes.acquire(reservedBytes);
+        try {
+            return analysisExecutor.submit(() -> {
+                try (ProgressTracker.Scope ignored = progress.bind()) {
+                    log.trace("Analyzing file {}", chunk);
+                    FileOperationResult result = analyzeChunk(chunk, contentSize, charset, neighbours, codecNanos);
+                    if (cacheKey != null) {
+                        analysisCache.put(cacheKey, result);
+                    }
+                    return Pair.of(chunk, result);
+                } catch (IOException e) {
+                    return Pair.of(chunk, errorResult(e.toString()));
+                } finally {
+                    inFlightBytes.release(reservedBytes);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlightBytes.release(reservedBytes);
+            throw e;
+        }
+    }
+
+    private FindingsCollector newCollector(String source) {
+        return new FindingsCollector(findingsLimit, findingsLog.sink(source));
+    }
+
+    private Consumer<Finding> withFindingsLog(String source, Consumer<Finding> findingSink) {
+        Consumer<Finding> logSink = findingsLog.sink(source);
+        return logSink == null ? findingSink : findingSink.andThen(logSink);
+    }
+
+    /**
+     * Analyzes one chunk of a directory, decompressing it on the fly if needed. For multi-byte charsets
+     * the last bytes of the previous part and the first bytes of the next part are scanned too, so a character
+     * split between two parts is validated whole and reported once, by the part it starts in.
+     */
+    private FileOperationResult analyzeChunk(Path chunk, long size, ContentCharset charset,
+                                             ChunkNeighbours neighbours, LongAdder codecNanos) throws IOException {
+        FindingsCollector collector = newCollector(chunk.toString());
+        if (neighbours.previous == null && neighbours.next == null) {
+            try (InputStream in = partCodec.open(chunk, codecNanos)) {
+                return isCorrectContent(in, charset, collector);
+            }
+        }
+        int margin = charset.getMaxSequenceLength() - 1;
+        byte[] before = neighbours.previous == null ? new byte[0] : readEdge(neighbours.previous, margin, true);
+        byte[] after = neighbours.next == null ? new byte[0] : readEdge(neighbours.next, margin, false);
+        ContentScanner scanner = ContentScanner.of(charset, 0, size, neighbours.next == null);
+        try (InputStream in = new SequenceInputStream(Collections.enumeration(List.of(
+                new ByteArrayInputStream(before), partCodec.open(chunk, codecNanos), new ByteArrayInputStream(after))))) {
+            contentAnalyzer.analyze(in, scanner, -before.length, collector);
+        }
+        return analysisResult(collector);
+    }
+
+    /**
+     * @return part of the same file {@code step} indexes away, raw or compressed, or {@code null} if there is none
+     */
+    private Path adjacentPart(Path part, int step) {
+        int partIndex = ChunkNames.partIndex(part) + step;
+        if (partIndex < 1) {
+            return null;
+        }
+        String fileName = ChunkNames.originalName(part);
+        for (boolean compressed : new boolean[]{false, true}) {
+            Path candidate = part.resolveSibling(ChunkNames.partName(fileName, partIndex, compressed));
+            if (Files.isRegularFile(candidate)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads the first or the last bytes of a part. The tail of a compressed part can only be reached
+     * by inflating the part up to it.
+     */
+    private byte[] readEdge(Path file, int length, boolean tail) throws IOException {
+        if (ChunkNames.isCompressed(file)) {
+            try (InputStream in = partCodec.open(file, null)) {
+                if (tail) {
+                    in.skipNBytes(Math.max(0, partCodec.contentSize(file) - length));
+                }
+                return in.readNBytes(length);
+            }
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer edge = ByteBuffer.allocate((int) Math.min(length, size));
+            FileRanges.readFully(channel, edge, tail ? size - edge.capacity() : 0);
+            return edge.array();
+        }
+    }
+
+    /**
+     * Everything besides the file itself that the analysis result depends on.
+     */
+    private String analysisVariant(ContentCharset charset) {
+        return String.format("limit=%d|charset=%s", findingsLimit, charset.getCharsetName());
+    }
+
+    private String neighbourVariant(Path neighbour) throws IOException {
+        if (neighbour == null) {
+            return "";
+        }
+        BasicFileAttributes attributes = Files.readAttributes(neighbour, BasicFileAttributes.class);
+        return String.format("|%s:%d:%d", neighbour.getFileName(), attributes.size(), attributes.lastModifiedTime().toMillis());
+    }
+
+    /**
+     * @return cache key of the file or {@code null} if the cache is disabled
+     */
+    private String cacheKey(Path file, BasicFileAttributes attributes, String variant) throws IOException {
+        if (!analysisCache.isEnabled()) {
+            return null;
+        }
+        return analysisCache.key(file, attributes, variant);
+    }
+
+    /**
+     * Directory of the parts of a file, named after it inside the split location.
+     *
+     * @throws IllegalArgumentException if the name is not a plain file name
+     */
+    private Path destinationDir(String fileName) {
+        return ChunkNames.splitDirectory(defaultFileLocation, fileName);
+    }
+
+    private void createDirIfNotExists(Path dir) throws IOException {
         if (!Files.exists(dir)) {
             log.debug("Created directory {}", dir.toAbsolutePath());
             Files.createDirectories(dir);
         }
     }
 
-    private FileOperationResult isCorrectContent(byte[] content) {
-        String stringForm = new String(content);
-        log.trace("String representation: {}", stringForm);
-        boolean analysisResult;
-        StringBuilder sb = new StringBuilder();
-        for (int indx = 0; indx < stringForm.toCharArray().length; indx++) {
-            char symbol = stringForm.toCharArray()[indx];
-            String hex = Integer.toHexString(symbol);
-            String bin = Integer.toBinaryString(symbol);
-            log.trace("Symbol: [{}], Hex: [{}], Binary: [{}]", symbol, hex, bin);
-            analysisResult = isCorrectSymbol(symbol);
-            if (!analysisResult) {
-                sb.append(String.format(INCORRECT_SYMBOL_MESSAGE, symbol, indx));
-                sb.append("\r\n");
-            }
+    /**
+     * @param mapSource {@code false} for a temp file that is deleted right afterwards
+     */
+    private FileOperationResult splitLocalFile(Path source, String fileName, int chunkSize,
+                                               boolean compress, boolean mapSource) throws IOException {
+        int partSize = chunkSize * 1024 - RESERVED_BYTES;
+        if (partSize <= 0) {
+            return errorResult(String.format("Chunk size must be greater than %d bytes", RESERVED_BYTES));
         }
+        log.debug("Chunk size: {}", partSize);
+        long start = System.nanoTime();
+        Path destinationDir = destinationDir(fileName);
+        createDirIfNotExists(destinationDir);
+        LongAdder codecNanos = new LongAdder();
+        ChunkManifest manifest = chunkSplitter.split(source, fileName, destinationDir, partSize, compress, codecNanos,
+                mapSource);
+        manifestStore.write(destinationDir, manifest);
+        int chunkCount = manifest.getPartCount();
+        long size = manifest.getTotalSize();
+        long elapsed = System.nanoTime() - start;
+        log.info("[{}] Split into {} chunks by {} bytes", fileName, chunkCount, partSize);
+        FileOperationResult result = FileOperationResult.builder()
+                .setStatus(FileOperationStatus.SUCCESS)
+                .setDescription(String.format("File [%s] was split into %s parts", fileName, chunkCount))
+                .setBytesProcessed(size)
+                .setChunkCount(chunkCount)
+                .setDurationMillis(TimeUnit.NANOSECONDS.toMillis(elapsed))
+                .setThroughput(Throughput.megabytesPerSecond(size, elapsed))
+                .build();
+        if (compress) {
+            addCompressionStats(result, size, storedSize(manifest), codecNanos);
+        }
+        return result;
+    }
+
+    private FileOperationResult splitLocalFileByContent(Path source, String fileName, boolean mapSource)
+            throws IOException {
+        long start = System.nanoTime();
+        Path destinationDir = destinationDir(fileName);
+        createDirIfNotExists(destinationDir);
+        LongAdder storedBytes = new LongAdder();
+        ChunkRecipe recipe = contentDefinedSplitter.split(source, fileName, storedBytes, mapSource);
+        manifestStore.writeRecipe(destinationDir, recipe);
+        int chunkCount = recipe.getChunks().size();
+        long size = recipe.getTotalSize();
+        long elapsed = System.nanoTime() - start;
+        log.info("[{}] Split into {} content-defined chunks, {} bytes new to the store", fileName, chunkCount,
+                storedBytes.sum());
+        return FileOperationResult.builder()
+                .setStatus(FileOperationStatus.SUCCESS)
+                .setDescription(String.format("File [%s] was split into %d content-defined chunks", fileName, chunkCount))
+                .setBytesProcessed(size)
+                .setChunkCount(chunkCount)
+                .setDurationMillis(TimeUnit.NANOSECONDS.toMillis(elapsed))
+                .setThroughput(Throughput.megabytesPerSecond(size, elapsed))
+                .setStoredBytes(storedBytes.sum())
+                .setDedupBytes(size - storedBytes.sum())
+                .build();
+    }
+
+    private long storedSize(ChunkManifest manifest) {
+        return manifest.getParts().stream()
+                .mapToLong(ManifestPart::fileSize)
+                .sum();
+    }
+
+    private void addCompressionStats(FileOperationResult result, long contentBytes, long storedBytes,
+                                     LongAdder codecNanos) {
+        result.setStoredBytes(storedBytes);
+        result.setCompressionRatio(storedBytes == 0 ? null : Math.round(contentBytes * 100.0 / storedBytes) / 100.0);
+        result.setCodecMillis(TimeUnit.NANOSECONDS.toMillis(codecNanos.sum()));
+    }
+
+    /**
+     * Moves the multipart upload into a temp file so that it can be scanned in parallel. The temp file is read
+     * through the channel rather than mapped, so that it can be deleted right away on Windows as well.
+     */
+    private FileOperationResult analyzeUploadInParallel(MultipartFile file, ContentCharset charset,
+                                                        FindingsCollector collector) throws IOException {
+        Path tempFile = Uploads.spool(file, "chunk-analyzer-");
+        try {
+            return isCorrectContent(tempFile, charset, collector, false);
+        } finally {
+            deleteQuietly(tempFile);
+        }
+    }
+
+    private FileOperationResult isCorrectContent(InputStream content, ContentCharset charset,
+                                                 FindingsCollector collector) throws IOException {
+        contentAnalyzer.analyze(content, charset, collector);
+        return analysisResult(collector);
+    }
+
+    private FileOperationResult isCorrectContent(Path file, ContentCharset charset,
+                                                 FindingsCollector collector, boolean map) throws IOException {
+        parallelContentAnalyzer.analyze(file, charset, collector, map);
+        return analysisResult(collector);
+    }
+
+    private FileOperationResult analysisResult(FindingsCollector collector) {
         FileOperationResult result = FileOperationResult.builder()
                 .setStatus(FileOperationStatus.ANALYSIS_COMPLETE)
-                .setDescription(sb.toString())
+                .setDescription(findingsSummary(collector))
+                .setFindings(collector.toReport())
                 .build();
         log.trace("Analysis result: {}", result);
         return result;
     }
 
-    private boolean isCorrectSymbol(char symbol) {
-        return latin.contains(symbol) ||
-                number.contains(symbol) ||
-                special.contains(symbol) ||
-                (symbol > 31 && symbol < 128);
+    private String findingsSummary(FindingsCollector collector) {
+        Finding first = collector.first();
+        if (first == null) {
+            return "";
+        }
+        return String.format(FINDINGS_SUMMARY, collector.getTotalSymbols(), collector.getTotalRuns())
+                + String.format(INCORRECT_SYMBOL_MESSAGE, (char) first.getSymbol(), first.getOffset());
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete temporary file [{}]: {}", file, e.toString());
+        }
     }
 
     private FileOperationResult errorResult(String description) {
@@ -256,4 +1012,15 @@ public class DefaultFileService implements FileService {
                 .setDescription(emptyFileMessage)
                 .build();
     }
+
+    private static class ChunkNeighbours {
+
+        private final Path previous;
+        private final Path next;
+
+        private ChunkNeighbours(Path previous, Path next) {
+            this.previous = previous;
+            this.next = next;
+        }
+    }
 }
@@ -0,0 +1,283 @@
+package me.aakrylov.chunkanalyzer.service;
+
+import lombok.extern.slf4j.Slf4j;
+import me.aakrylov.chunkanalyzer.component.ProgressTracker;
+import me.aakrylov.chunkanalyzer.model.FileOperationResult;
+import me.aakrylov.chunkanalyzer.model.JobStatus;
+import me.aakrylov.chunkanalyzer.service.api.FileService;
+import me.aakrylov.chunkanalyzer.service.api.JobService;
+import me.aakrylov.chunkanalyzer.type.FileOperationStatus;
+import me.aakrylov.chunkanalyzer.type.JobState;
+import me.aakrylov.chunkanalyzer.type.JobType;
+import me.aakrylov.chunkanalyzer.util.Throughput;
+import me.aakrylov.chunkanalyzer.util.Uploads;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+@Service
+@Slf4j
+public class DefaultJobService implements JobService {
+
+    private final FileService fileService;
+    private final ExecutorService jobExecutor;
+    private final long retentionMillis;
+    private final Semaphore slots;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    public DefaultJobService(FileService fileService,
+                             @Qualifier("jobExecutor") ExecutorService jobExecutor,
+                             @Value("${files.jobs.retention.minutes:60}") long retentionMinutes) {
+        this.fileService = fileService;
+        this.jobExecutor = jobExecutor;
+        this.retentionMillis = TimeUnit.MINUTES.toMillis(retentionMinutes);
+        this.slots = new Semaphore(capacity(jobExecutor));
+    }
+
+    @Override
+    public JobStatus submitSplit(MultipartFile file, int chunkSize) throws IOException {
+        String fileName = file.getOriginalFilename();
+        return submitUpload(JobType.SPLIT, file, upload -> fileService.splitUpload(upload, fileName, chunkSize));
+    }
+
+    @Override
+    public JobStatus submitAnalyze(MultipartFile file) throws IOException {
+        return submitUpload(JobType.ANALYZE, file, fileService::analyzeUpload);
+    }
+
+    @Override
+    public JobStatus submitAnalyzeAll(Path directory) {
+        reserveSlot(JobType.ANALYZE_ALL);
+        return submit(JobType.ANALYZE_ALL, null, null, () -> fileService.analyzeAll(directory));
+    }
+
+    @Override
+    public JobStatus submitAssemble(Path directory, boolean deleteSource) {
+        reserveSlot(JobType.ASSEMBLE);
+        return submit(JobType.ASSEMBLE, null, null, () -> fileService.assemble(directory, deleteSource));
+    }
+
+    @Override
+    public Optional<JobStatus> status(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(Job::toStatus);
+    }
+
+    @Override
+    public Optional<JobStatus> cancel(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            return Optional.empty();
+        }
+        log.info("Cancelling job [{}]", jobId);
+        if (job.cancel()) {
+            slots.release();
+            deleteUpload(job);
+        }
+        return Optional.of(job.toStatus());
+    }
+
+    @Override
+    public Optional<FileOperationResult> result(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(Job::getResult);
+    }
+
+    /**
+     * Takes a slot before the upload is copied, so a full queue rejects the request without spooling it first.
+     */
+    private JobStatus submitUpload(JobType type, MultipartFile file, Function<Path, FileOperationResult> operation)
+            throws IOException {
+        reserveSlot(type);
+        Path upload;
+        try {
+            upload = storeUpload(file);
+        } catch (IOException | RuntimeException e) {
+            slots.release();
+            throw e;
+        }
+        return submit(type, file.getSize(), upload, () -> operation.apply(upload));
+    }
+
+    private void reserveSlot(JobType type) {
+        if (!slots.tryAcquire()) {
+            log.warn("Job queue is full, rejecting {} job", type);
+            throw new RejectedExecutionException("Job queue is full");
+        }
+    }
+
+    /**
+     * Needs a reserved slot, which is released when the job finishes, is cancelled before it starts
+     * or is rejected by the executor.
+     */
+    private JobStatus submit(JobType type, Long totalBytes, Path upload, Supplier<FileOperationResult> operation) {
+        evictExpired();
+        Job job = new Job(UUID.randomUUID().toString(), type, totalBytes, upload);
+        jobs.put(job.id, job);
+        try {
+            job.future = jobExecutor.submit(() -> run(job, operation));
+        } catch (RejectedExecutionException e) {
+            log.warn("Job queue is full, rejecting {} job", type);
+            jobs.remove(job.id);
+            slots.release();
+            deleteUpload(job);
+            throw e;
+        }
+        log.info("Submitted {} job [{}]", type, job.id);
+        return job.toStatus();
+    }
+
+    private void run(Job job, Supplier<FileOperationResult> operation) {
+        if (!job.start()) {
+            return;
+        }
+        FileOperationResult result;
+        try (ProgressTracker.Scope ignored = job.progress.bind()) {
+            result = operation.get();
+        } catch (RuntimeException e) {
+            log.error("Job [{}] failed:", job.id, e);
+            result = FileOperationResult.builder()
+                    .setStatus(FileOperationStatus.ERROR)
+                    .setDescription(e.toString())
+                    .build();
+        } finally {
+            slots.release();
+            deleteUpload(job);
+        }
+        job.finish(result);
+        log.info("Job [{}] finished in state {}", job.id, job.state);
+    }
+
+    /**
+     * Uploads are moved off the request before it completes; the job works on the local copy.
+     */
+    private Path storeUpload(MultipartFile file) throws IOException {
+        return Uploads.spool(file, "chunk-analyzer-job-");
+    }
+
+    private void deleteUpload(Job job) {
+        if (job.upload == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(job.upload);
+        } catch (IOException e) {
+            log.warn("Could not delete job upload [{}]: {}", job.upload, e.toString());
+        }
+    }
+
+    /**
+     * Running plus queued jobs the executor accepts.
+     */
+    private static int capacity(ExecutorService executor) {
+        if (executor instanceof ThreadPoolExecutor pool) {
+            return pool.getMaximumPoolSize() + pool.getQueue().remainingCapacity();
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    private void evictExpired() {
+        long expiredBefore = System.currentTimeMillis() - retentionMillis;
+        jobs.values().removeIf(job -> job.isFinishedBefore(expiredBefore));
+    }
+
+    private static class Job {
+
+        private final String id;
+        private final JobType type;
+        private final Long totalBytes;
+        private final Path upload;
+        private final ProgressTracker progress = new ProgressTracker();
+        private final long submittedAt = System.currentTimeMillis();
+        private volatile Future<?> future;
+        private JobState state = JobState.QUEUED;
+        private Long startedAt;
+        private Long finishedAt;
+        private FileOperationResult result;
+
+        private Job(String id, JobType type, Long totalBytes, Path upload) {
+            this.id = id;
+            this.type = type;
+            this.totalBytes = totalBytes;
+            this.upload = upload;
+        }
+
+        private synchronized boolean start() {
+            if (state != JobState.QUEUED) {
+                return false;
+            }
+            state = JobState.RUNNING;
+            startedAt = System.currentTimeMillis();
+            return true;
+        }
+
+        private synchronized void finish(FileOperationResult operationResult) {
+            state = progress.isCancelled() ? JobState.CANCELLED : JobState.COMPLETED;
+            finishedAt = System.currentTimeMillis();
+            result = operationResult;
+        }
+
+        /**
+         * @return true if the job had not started yet and will never run
+         */
+        private synchronized boolean cancel() {
+            progress.cancel();
+            if (state != JobState.QUEUED) {
+                return false;
+            }
+            state = JobState.CANCELLED;
+            finishedAt = System.currentTimeMillis();
+            result = FileOperationResult.builder()
+                    .setStatus(FileOperationStatus.ERROR)
+                    .setDescription("Job was cancelled before it started")
+                    .build();
+            if (future != null) {
+                future.cancel(false);
+            }
+            return true;
+        }
+
+        private synchronized FileOperationResult getResult() {
+            return result;
+        }
+
+        private synchronized boolean isFinishedBefore(long timestamp) {
+            return finishedAt != null && finishedAt < timestamp;
+        }
+
+        private synchronized JobStatus toStatus() {
+            long bytesProcessed = progress.getBytesProcessed();
+            Double throughput = null;
+            if (startedAt != null) {
+                long end = finishedAt != null ? finishedAt : System.currentTimeMillis();
+                throughput = Throughput.megabytesPerSecond(bytesProcessed, TimeUnit.MILLISECONDS.toNanos(end - startedAt));
+            }
+            return JobStatus.builder()
+                    .setId(id)
+                    .setType(type)
+                    .setState(state)
+                    .setBytesProcessed(bytesProcessed)
+                    .setTotalBytes(totalBytes)
+                    .setThroughput(throughput)
+                    .setSubmittedAt(submittedAt)
+                    .setStartedAt(startedAt)
+                    .setFinishedAt(finishedAt)
+                    .build();
+        }
+    }
+}
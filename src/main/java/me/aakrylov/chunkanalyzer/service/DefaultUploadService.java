@@ -0,0 +1,416 @@
+package me.aakrylov.chunkanalyzer.service;
+
+import lombok.extern.slf4j.Slf4j;
+import me.aakrylov.chunkanalyzer.annotation.Loggable;
+import me.aakrylov.chunkanalyzer.component.BufferPool;
+import me.aakrylov.chunkanalyzer.component.ChunkManifestStore;
+import me.aakrylov.chunkanalyzer.component.ContentAnalyzer;
+import me.aakrylov.chunkanalyzer.component.ContentScanner;
+import me.aakrylov.chunkanalyzer.component.FindingsCollector;
+import me.aakrylov.chunkanalyzer.component.FindingsLog;
+import me.aakrylov.chunkanalyzer.model.ChunkManifest;
+import me.aakrylov.chunkanalyzer.model.FileOperationResult;
+import me.aakrylov.chunkanalyzer.model.ManifestPart;
+import me.aakrylov.chunkanalyzer.model.UploadStatus;
+import me.aakrylov.chunkanalyzer.service.api.UploadService;
+import me.aakrylov.chunkanalyzer.type.ContentCharset;
+import me.aakrylov.chunkanalyzer.type.FileOperationStatus;
+import me.aakrylov.chunkanalyzer.type.UploadState;
+import me.aakrylov.chunkanalyzer.util.ChunkNames;
+import me.aakrylov.chunkanalyzer.util.Throughput;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+@Service
+@Slf4j
+public class DefaultUploadService implements UploadService {
+
+    /**
+     * Directory of the split location holding the parts of sessions that are not completed yet.
+     */
+    private static final String STAGING_DIR = ".uploads";
+
+    private final String defaultFileLocation;
+    private final int findingsLimit;
+    private final ContentCharset defaultCharset;
+    private final int windowSize;
+    private final long retentionMillis;
+    private final ContentAnalyzer contentAnalyzer;
+    private final ChunkManifestStore manifestStore;
+    private final FindingsLog findingsLog;
+    private final BufferPool bufferPool;
+    private final Map<String, Upload> uploads = new ConcurrentHashMap<>();
+
+    public DefaultUploadService(@Value("${files.split.default.location}") String defaultFileLocation,
+                                @Value("${files.analyze.findings.limit:1000}") int findingsLimit,
+                                @Value("${files.analyze.charset:US-ASCII}") String defaultCharset,
+                                @Value("${files.analyze.window.size:65536}") int windowSize,
+                                @Value("${files.upload.retention.minutes:60}") long retentionMinutes,
+                                ContentAnalyzer contentAnalyzer,
+                                ChunkManifestStore manifestStore,
+                                FindingsLog findingsLog,
+                                BufferPool bufferPool) {
+        this.defaultFileLocation = defaultFileLocation;
+        this.findingsLimit = findingsLimit;
+        this.defaultCharset = ContentCharset.forName(defaultCharset);
+        this.windowSize = windowSize;
+        this.retentionMillis = TimeUnit.MINUTES.toMillis(retentionMinutes);
+        this.contentAnalyzer = contentAnalyzer;
+        this.manifestStore = manifestStore;
+        this.findingsLog = findingsLog;
+        this.bufferPool = bufferPool;
+    }
+
+    @Override
+    public UploadStatus create(String fileName, long totalSize, long partSize) throws IOException {
+        Path target = ChunkNames.splitDirectory(defaultFileLocation, fileName);
+        if (totalSize <= 0 || partSize <= 0) {
+            throw new IllegalArgumentException(String.format(
+                    "Total size and part size must be positive, got %d and %d", totalSize, partSize));
+        }
+        long partCount = (totalSize + partSize - 1) / partSize;
+        if (partCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(String.format("%d parts are too many, use bigger parts", partCount));
+        }
+        evictExpired();
+        String id = UUID.randomUUID().toString();
+        Path directory = Files.createDirectories(Paths.get(defaultFileLocation, STAGING_DIR, id));
+        Upload upload = new Upload(id, fileName, directory, target, totalSize, partSize, (int) partCount);
+        uploads.put(upload.id, upload);
+        log.info("Created upload [{}] of [{}], {} bytes in {} parts", upload.id, fileName, totalSize, partCount);
+        return upload.toStatus();
+    }
+
+    @Override
+    @Loggable
+    public Optional<FileOperationResult> putPart(String uploadId, int partIndex, InputStream content, boolean analyze,
+                                                 ContentCharset charset) throws IOException {
+        Upload upload = uploads.get(uploadId);
+        if (upload == null) {
+            return Optional.empty();
+        }
+        if (partIndex < 1 || partIndex > upload.partCount) {
+            throw new IllegalArgumentException(String.format("Part index must be between 1 and %d, got %d",
+                    upload.partCount, partIndex));
+        }
+        long start = System.nanoTime();
+        long size = upload.partSize(partIndex);
+        String partName = ChunkNames.partName(upload.fileName, partIndex);
+        FindingsCollector collector = analyze
+                ? new FindingsCollector(findingsLimit, findingsLog.sink(partName))
+                : null;
+        ContentScanner scanner = analyze
+                ? contentAnalyzer.scanner(charset == null ? defaultCharset : charset)
+                : null;
+        CRC32C crc = new CRC32C();
+        upload.beginPart();
+        try {
+            Path temp = Files.createTempFile(upload.directory, partName, ".tmp");
+            try {
+                receive(content, temp, size, (partIndex - 1) * upload.partSize, crc, scanner, collector);
+                upload.received(temp, new ManifestPart(partIndex, partName, size, crc.getValue(), null));
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } finally {
+            if (upload.endPart()) {
+                deleteDirectory(upload.directory);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        log.debug("Received part {} of upload [{}]", partIndex, uploadId);
+        return Optional.of(FileOperationResult.builder()
+                .setStatus(FileOperationStatus.SUCCESS)
+                .setDescription(String.format("Part [%d] of [%s] was received", partIndex, upload.fileName))
+                .setFindings(collector == null ? null : collector.toReport())
+                .setBytesProcessed(size)
+                .setDurationMillis(TimeUnit.NANOSECONDS.toMillis(elapsed))
+                .setThroughput(Throughput.megabytesPerSecond(size, elapsed))
+                .build());
+    }
+
+    @Override
+    public Optional<UploadStatus> status(String uploadId) {
+        return Optional.ofNullable(uploads.get(uploadId)).map(Upload::toStatus);
+    }
+
+    @Override
+    @Loggable
+    public Optional<FileOperationResult> complete(String uploadId) throws IOException {
+        Upload upload = uploads.get(uploadId);
+        if (upload == null) {
+            return Optional.empty();
+        }
+        synchronized (upload) {
+            if (upload.state == UploadState.COMPLETED) {
+                return Optional.of(upload.result);
+            }
+            List<ManifestPart> parts = upload.completedParts();
+            manifestStore.write(upload.directory, ChunkManifest.builder()
+                    .setFileName(upload.fileName)
+                    .setTotalSize(upload.totalSize)
+                    .setPartSize(upload.partSize)
+                    .setPartCount(upload.partCount)
+                    .setParts(parts)
+                    .build());
+            publish(upload);
+            upload.complete();
+            log.info("Completed upload [{}] of [{}]", uploadId, upload.fileName);
+            return Optional.of(upload.result);
+        }
+    }
+
+    @Override
+    public Optional<UploadStatus> abort(String uploadId) throws IOException {
+        Upload upload = uploads.remove(uploadId);
+        if (upload == null) {
+            return Optional.empty();
+        }
+        log.info("Aborting upload [{}] of [{}]", uploadId, upload.fileName);
+        if (upload.abort()) {
+            deleteDirectory(upload.directory);
+        }
+        return Optional.of(upload.toStatus());
+    }
+
+    /**
+     * Puts the session directory in place of the split directory of the file. Completions of the same file
+     * take turns, so the split directory always holds the parts of exactly one upload.
+     */
+    private void publish(Upload upload) throws IOException {
+        synchronized (uploads) {
+            Path replaced = null;
+            if (Files.exists(upload.target)) {
+                replaced = upload.directory.resolveSibling(upload.id + ".replaced");
+                Files.move(upload.target, replaced, StandardCopyOption.ATOMIC_MOVE);
+            }
+            try {
+                Files.move(upload.directory, upload.target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                if (replaced != null) {
+                    Files.move(replaced, upload.target, StandardCopyOption.ATOMIC_MOVE);
+                }
+                throw e;
+            }
+            if (replaced != null) {
+                deleteDirectory(replaced);
+            }
+        }
+        log.debug("Moved upload [{}] to [{}]", upload.id, upload.target);
+    }
+
+    private void deleteDirectory(Path directory) {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        } catch (IOException e) {
+            log.warn("Could not delete upload directory [{}]: {}", directory, e.toString());
+        }
+    }
+
+    /**
+     * Copies the part into the temp file, checksumming and optionally scanning it on the way;
+     * the scanner sees offsets of the whole file.
+     */
+    private void receive(InputStream content, Path target, long size, long offset, CRC32C crc,
+                         ContentScanner scanner, FindingsCollector collector) throws IOException {
+        long received = 0;
+        try (BufferPool.Lease lease = bufferPool.acquire(windowSize);
+             OutputStream out = new CheckedOutputStream(Files.newOutputStream(target), crc)) {
+            byte[] window = lease.array();
+            int bytesAmount;
+            while ((bytesAmount = content.read(window, 0, lease.length())) >= 0) {
+                if (received + bytesAmount > size) {
+                    throw new IllegalArgumentException(String.format("Part must have %d bytes, got more", size));
+                }
+                if (scanner != null) {
+                    scanner.scan(window, 0, bytesAmount, offset + received, collector);
+                }
+                out.write(window, 0, bytesAmount);
+                received += bytesAmount;
+            }
+        }
+        if (received != size) {
+            throw new IllegalArgumentException(String.format("Part must have %d bytes, got %d", size, received));
+        }
+        if (scanner != null) {
+            scanner.finish(collector);
+        }
+    }
+
+    private void evictExpired() {
+        long expiredBefore = System.currentTimeMillis() - retentionMillis;
+        for (Upload upload : uploads.values()) {
+            if (upload.isIdleSince(expiredBefore)) {
+                try {
+                    abort(upload.id);
+                } catch (IOException e) {
+                    log.warn("Could not delete parts of expired upload [{}]: {}", upload.id, e.toString());
+                }
+            }
+        }
+    }
+
+    private static class Upload {
+
+        private final String id;
+        private final String fileName;
+        private final Path directory;
+        private final Path target;
+        private final long totalSize;
+        private final long partSize;
+        private final int partCount;
+        private final ManifestPart[] parts;
+        private final long createdAt = System.currentTimeMillis();
+        private UploadState state = UploadState.OPEN;
+        private int partsInFlight;
+        private long lastActivityAt = createdAt;
+        private Long completedAt;
+        private FileOperationResult result;
+
+        private Upload(String id, String fileName, Path directory, Path target, long totalSize, long partSize,
+                       int partCount) {
+            this.id = id;
+            this.fileName = fileName;
+            this.directory = directory;
+            this.target = target;
+            this.totalSize = totalSize;
+            this.partSize = partSize;
+            this.partCount = partCount;
+            this.parts = new ManifestPart[partCount];
+        }
+
+        private long partSize(int partIndex) {
+            return Math.min(partSize, totalSize - (partIndex - 1) * partSize);
+        }
+
+        private synchronized void beginPart() {
+            if (state != UploadState.OPEN) {
+                throw new IllegalStateException(String.format("Upload of [%s] is %s", fileName, state));
+            }
+            partsInFlight++;
+            lastActivityAt = System.currentTimeMillis();
+        }
+
+        /**
+         * Moves the received part into place and records it in one step, so that when the same part is put
+         * twice at once, the file and its checksum in the manifest come from the same request.
+         */
+        private synchronized void received(Path temp, ManifestPart part) throws IOException {
+            Files.move(temp, directory.resolve(part.getName()),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            parts[part.getIndex() - 1] = part;
+        }
+
+        /**
+         * @return true if the upload was aborted meanwhile and this was the last part in flight,
+         * so its directory can be deleted now
+         */
+        private synchronized boolean endPart() {
+            partsInFlight--;
+            lastActivityAt = System.currentTimeMillis();
+            return state == UploadState.ABORTED && partsInFlight == 0;
+        }
+
+        /**
+         * @throws IllegalStateException if a part is missing or still being received
+         */
+        private synchronized List<ManifestPart> completedParts() {
+            if (state != UploadState.OPEN) {
+                throw new IllegalStateException(String.format("Upload of [%s] is %s", fileName, state));
+            }
+            if (partsInFlight > 0) {
+                throw new IllegalStateException(String.format("%d parts of [%s] are still being received",
+                        partsInFlight, fileName));
+            }
+            List<Integer> missing = missingParts();
+            if (!missing.isEmpty()) {
+                throw new IllegalStateException(String.format("Upload of [%s] misses parts %s", fileName, missing));
+            }
+            return Arrays.asList(parts.clone());
+        }
+
+        private synchronized void complete() {
+            state = UploadState.COMPLETED;
+            completedAt = System.currentTimeMillis();
+            long elapsed = TimeUnit.MILLISECONDS.toNanos(completedAt - createdAt);
+            result = FileOperationResult.builder()
+                    .setStatus(FileOperationStatus.SUCCESS)
+                    .setDescription(String.format("File [%s] was uploaded in %d parts", fileName, partCount))
+                    .setBytesProcessed(totalSize)
+                    .setChunkCount(partCount)
+                    .setDurationMillis(completedAt - createdAt)
+                    .setThroughput(Throughput.megabytesPerSecond(totalSize, elapsed))
+                    .build();
+        }
+
+        /**
+         * @return true if the directory can be deleted now; with parts in flight the last of them deletes it,
+         * a completed upload keeps it
+         */
+        private synchronized boolean abort() {
+            if (state == UploadState.COMPLETED) {
+                return false;
+            }
+            state = UploadState.ABORTED;
+            return partsInFlight == 0;
+        }
+
+        private synchronized boolean isIdleSince(long timestamp) {
+            long lastChange = completedAt != null ? completedAt : lastActivityAt;
+            return partsInFlight == 0 && lastChange < timestamp;
+        }
+
+        private List<Integer> missingParts() {
+            List<Integer> missing = new ArrayList<>();
+            for (int indx = 0; indx < parts.length; indx++) {
+                if (parts[indx] == null) {
+                    missing.add(indx + 1);
+                }
+            }
+            return missing;
+        }
+
+        private synchronized UploadStatus toStatus() {
+            long bytesReceived = 0;
+            for (ManifestPart part : parts) {
+                if (part != null) {
+                    bytesReceived += part.getSize();
+                }
+            }
+            return UploadStatus.builder()
+                    .setId(id)
+                    .setFileName(fileName)
+                    .setState(state)
+                    .setTotalSize(totalSize)
+                    .setPartSize(partSize)
+                    .setPartCount(partCount)
+                    .setBytesReceived(bytesReceived)
+                    .setMissingParts(missingParts())
+                    .setCreatedAt(createdAt)
+                    .setCompletedAt(completedAt)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package me.aakrylov.chunkanalyzer.service.api;
+
+import me.aakrylov.chunkanalyzer.model.BatchSummary;
+import me.aakrylov.chunkanalyzer.type.ContentCharset;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Runs one {@link FileService} operation over many local paths in parallel.
+ * A failing item is reported in the summary and does not stop the others.
+ */
+public interface BatchService {
+
+    /**
+     * Splits every given file and every regular file directly inside the given directories.
+     *
+     * @param compress whether to write GZIP-compressed parts, {@code null} for the configured default
+     */
+    BatchSummary split(List<Path> paths, int chunkSize, Boolean compress);
+
+    /**
+     * Analyzes the given files; directories are analyzed as split directories.
+     *
+     * @param charset charset to validate against, {@code null} for the configured default
+     */
+    BatchSummary analyze(List<Path> paths, ContentCharset charset);
+
+    BatchSummary assemble(List<Path> directories, boolean deleteSource);
+
+    BatchSummary verify(List<Path> directories);
+}
@@ -0,0 +1,30 @@
+package me.aakrylov.chunkanalyzer.service.api;
+
+import me.aakrylov.chunkanalyzer.model.WatchStatus;
+import me.aakrylov.chunkanalyzer.type.ContentCharset;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Keeps the analysis of split directories up to date while parts are added, rewritten or removed.
+ * Only the parts that changed are analyzed again.
+ */
+public interface DirectoryWatchService {
+
+    /**
+     * Starts watching the directory and queues all of its parts for analysis.
+     * Watching a watched directory again only changes the charset.
+     *
+     * @param charset charset to validate against, {@code null} for the configured default
+     */
+    WatchStatus watch(Path directory, ContentCharset charset) throws IOException;
+
+    Optional<WatchStatus> status(Path directory);
+
+    List<WatchStatus> watches();
+
+    Optional<WatchStatus> unwatch(Path directory);
+}
@@ -1,17 +1,116 @@
 package me.aakrylov.chunkanalyzer.service.api;
 
+import me.aakrylov.chunkanalyzer.component.PartIndex;
 import me.aakrylov.chunkanalyzer.model.FileOperationResult;
+import me.aakrylov.chunkanalyzer.model.Finding;
+import me.aakrylov.chunkanalyzer.type.ContentCharset;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Path;
+import java.util.function.Consumer;
 
 public interface FileService {
 
     FileOperationResult split(MultipartFile file, int chunkSize);
 
+    /**
+     * @param compress whether to write GZIP-compressed parts, {@code null} for the configured default
+     */
+    FileOperationResult split(MultipartFile file, int chunkSize, Boolean compress);
+
+    FileOperationResult split(Path source, String fileName, int chunkSize);
+
+    /**
+     * @param compress whether to write GZIP-compressed parts, {@code null} for the configured default
+     */
+    FileOperationResult split(Path source, String fileName, int chunkSize, Boolean compress);
+
+    /**
+     * Splits a temp copy of an upload that is deleted right afterwards; it is read through the channel
+     * instead of memory-mapped.
+     */
+    FileOperationResult splitUpload(Path upload, String fileName, int chunkSize);
+
+    FileOperationResult split(InputStream content, String fileName, int chunkSize, boolean analyze);
+
+    /**
+     * @param compress whether to write GZIP-compressed parts, {@code null} for the configured default
+     */
+    FileOperationResult split(InputStream content, String fileName, int chunkSize, boolean analyze, Boolean compress);
+
+    /**
+     * Splits the file at content-defined boundaries into the chunk store and writes its recipe.
+     * Chunks that the store already has are not written again.
+     */
+    FileOperationResult splitContentDefined(MultipartFile file);
+
+    FileOperationResult splitContentDefined(Path source, String fileName);
+
     FileOperationResult analyze(MultipartFile file);
 
+    /**
+     * Analyzes the file and hands every finding to the sink as soon as it is found.
+     * The returned result carries totals and the histogram, but no findings list.
+     *
+     * @param charset charset to validate against, {@code null} for the configured default
+     */
+    FileOperationResult analyze(MultipartFile file, ContentCharset charset, Consumer<Finding> findingSink);
+
+    FileOperationResult analyze(Path file);
+
+    /**
+     * @param charset charset to validate against, {@code null} for the configured default
+     */
+    FileOperationResult analyze(Path file, ContentCharset charset);
+
+    /**
+     * Analyzes a temp copy of an upload that is deleted right afterwards; it is read through the channel
+     * instead of memory-mapped and its result is not cached.
+     */
+    FileOperationResult analyzeUpload(Path upload);
+
     FileOperationResult assemble(Path directory, boolean deleteSource);
 
+    /**
+     * Checks every part of a split directory against the sizes and CRC32C checksums of its manifest.
+     */
+    FileOperationResult verify(Path directory);
+
     FileOperationResult analyzeAll(Path directory);
+
+    /**
+     * Analyzes every file of the directory. With a multi-byte charset a character split between
+     * two consecutive parts is validated whole and reported by the part it starts in.
+     *
+     * @param charset charset to validate against, {@code null} for the configured default
+     */
+    FileOperationResult analyzeAll(Path directory, ContentCharset charset);
+
+    /**
+     * Analyzes one part of a split directory exactly as {@link #analyzeAll(Path, ContentCharset)} would,
+     * taking the neighbouring parts into account and sharing its cache.
+     *
+     * @param charset charset to validate against, {@code null} for the configured default
+     */
+    FileOperationResult analyzePart(Path part, ContentCharset charset);
+
+    /**
+     * Builds the offset index of a split directory for {@link #read}, without reading any part.
+     * Only directories inside the split location with a manifest or recipe are served.
+     *
+     * @throws java.nio.file.AccessDeniedException if the directory is outside of the split location
+     * @throws java.nio.file.NoSuchFileException if the directory holds no manifest or recipe
+     */
+    PartIndex index(Path directory) throws IOException;
+
+    /**
+     * Writes {@code length} bytes of the split file starting at {@code from} to the target,
+     * reading only the parts that cover the range.
+     *
+     * @return number of bytes written
+     */
+    long read(PartIndex index, long from, long length, WritableByteChannel target) throws IOException;
 }
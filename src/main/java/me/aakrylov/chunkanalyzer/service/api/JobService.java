@@ -0,0 +1,33 @@
+package me.aakrylov.chunkanalyzer.service.api;
+
+import me.aakrylov.chunkanalyzer.model.FileOperationResult;
+import me.aakrylov.chunkanalyzer.model.JobStatus;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Runs {@link FileService} operations in the background.
+ * Submit methods throw {@link java.util.concurrent.RejectedExecutionException} when the job queue is full.
+ */
+public interface JobService {
+
+    JobStatus submitSplit(MultipartFile file, int chunkSize) throws IOException;
+
+    JobStatus submitAnalyze(MultipartFile file) throws IOException;
+
+    JobStatus submitAnalyzeAll(Path directory);
+
+    JobStatus submitAssemble(Path directory, boolean deleteSource);
+
+    Optional<JobStatus> status(String jobId);
+
+    Optional<JobStatus> cancel(String jobId);
+
+    /**
+     * @return result of a finished job, empty if the job is unknown or has not finished yet
+     */
+    Optional<FileOperationResult> result(String jobId);
+}
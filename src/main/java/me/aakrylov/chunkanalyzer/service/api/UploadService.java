@@ -0,0 +1,51 @@
+package me.aakrylov.chunkanalyzer.service.api;
+
+import me.aakrylov.chunkanalyzer.model.FileOperationResult;
+import me.aakrylov.chunkanalyzer.model.UploadStatus;
+import me.aakrylov.chunkanalyzer.type.ContentCharset;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * Receives a file as numbered parts over several requests. Parts can arrive concurrently, in any order
+ * and more than once; they are written into a directory private to the session in the layout of
+ * {@link FileService#split}, and completing the upload adds the manifest and puts the directory in place
+ * of the split directory of the file, replacing a previous one.
+ * <p>
+ * Methods taking a session id return an empty result for an unknown or expired session.
+ */
+public interface UploadService {
+
+    /**
+     * @throws IllegalArgumentException if the file name is not a plain file name or the sizes are not positive
+     */
+    UploadStatus create(String fileName, long totalSize, long partSize) throws IOException;
+
+    /**
+     * Stores the part, replacing a previous copy of it.
+     *
+     * @param analyze whether to analyze the part while it is received
+     * @param charset charset to validate against, {@code null} for the configured default
+     * @return result with the findings of the part at their offsets in the whole file
+     * @throws IllegalArgumentException if the index is out of range or the content has the wrong size
+     * @throws IllegalStateException    if the upload is already completed
+     */
+    Optional<FileOperationResult> putPart(String uploadId, int partIndex, InputStream content, boolean analyze,
+                                          ContentCharset charset) throws IOException;
+
+    Optional<UploadStatus> status(String uploadId);
+
+    /**
+     * Writes the manifest once every part is there; completing a completed upload returns the same result.
+     *
+     * @throws IllegalStateException if some parts are missing
+     */
+    Optional<FileOperationResult> complete(String uploadId) throws IOException;
+
+    /**
+     * Drops the session and deletes its parts unless the upload is completed.
+     */
+    Optional<UploadStatus> abort(String uploadId) throws IOException;
+}
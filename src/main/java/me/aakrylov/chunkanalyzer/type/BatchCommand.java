@@ -0,0 +1,8 @@
+package me.aakrylov.chunkanalyzer.type;
+
+public enum BatchCommand {
+    SPLIT,
+    ANALYZE,
+    ASSEMBLE,
+    VERIFY
+}
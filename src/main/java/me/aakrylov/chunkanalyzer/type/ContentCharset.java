@@ -0,0 +1,42 @@
+package me.aakrylov.chunkanalyzer.type;
+
+import java.util.Arrays;
+
+/**
+ * Charsets the analyzer can validate content against.
+ */
+public enum ContentCharset {
+    US_ASCII("US-ASCII", 1),
+    WINDOWS_1251("windows-1251", 1),
+    UTF_8("UTF-8", 4);
+
+    private final String charsetName;
+    private final int maxSequenceLength;
+
+    ContentCharset(String charsetName, int maxSequenceLength) {
+        this.charsetName = charsetName;
+        this.maxSequenceLength = maxSequenceLength;
+    }
+
+    public String getCharsetName() {
+        return charsetName;
+    }
+
+    /**
+     * Longest byte sequence of a single character; a chunk boundary can cut a sequence
+     * at most {@code maxSequenceLength - 1} bytes away from it.
+     */
+    public int getMaxSequenceLength() {
+        return maxSequenceLength;
+    }
+
+    /**
+     * Accepts both the charset name ({@code UTF-8}) and the constant name ({@code UTF_8}), ignoring case.
+     */
+    public static ContentCharset forName(String name) {
+        return Arrays.stream(values())
+                .filter(charset -> charset.charsetName.equalsIgnoreCase(name) || charset.name().equalsIgnoreCase(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(String.format("Unsupported charset [%s]", name)));
+    }
+}
@@ -0,0 +1,8 @@
+package me.aakrylov.chunkanalyzer.type;
+
+public enum JobState {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    CANCELLED
+}
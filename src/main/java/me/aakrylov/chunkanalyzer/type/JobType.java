@@ -0,0 +1,8 @@
+package me.aakrylov.chunkanalyzer.type;
+
+public enum JobType {
+    SPLIT,
+    ANALYZE,
+    ANALYZE_ALL,
+    ASSEMBLE
+}
@@ -0,0 +1,7 @@
+package me.aakrylov.chunkanalyzer.type;
+
+public enum UploadState {
+    OPEN,
+    COMPLETED,
+    ABORTED
+}
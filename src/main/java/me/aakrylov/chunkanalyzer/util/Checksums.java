@@ -0,0 +1,74 @@
+package me.aakrylov.chunkanalyzer.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.CRC32C;
+
+public class Checksums {
+
+    private static final long MAP_SIZE = 64 * 1024 * 1024;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private Checksums() {
+    }
+
+    /**
+     * Computes CRC32C of a file through memory-mapped regions, without copying it to the heap.
+     */
+    public static long crc32c(Path file) throws IOException {
+        CRC32C crc = new CRC32C();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += MAP_SIZE) {
+                crc.update(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAP_SIZE, size - position)));
+            }
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Computes the hex-encoded SHA-256 of the remaining bytes of the buffer; the buffer position is left untouched.
+     */
+    public static String sha256(ByteBuffer content) {
+        MessageDigest digest = sha256Digest();
+        digest.update(content.duplicate());
+        return hex(digest.digest());
+    }
+
+    /**
+     * Computes the hex-encoded SHA-256 of a file through memory-mapped regions, without copying it to the heap.
+     */
+    public static String sha256(Path file) throws IOException {
+        MessageDigest digest = sha256Digest();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += MAP_SIZE) {
+                long length = Math.min(MAP_SIZE, size - position);
+                digest.update(channel.map(FileChannel.MapMode.READ_ONLY, position, length));
+            }
+        }
+        return hex(digest.digest());
+    }
+
+    private static MessageDigest sha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by the JVM", e);
+        }
+    }
+
+    private static String hex(byte[] hash) {
+        char[] hex = new char[hash.length * 2];
+        for (int indx = 0; indx < hash.length; indx++) {
+            hex[indx * 2] = HEX_DIGITS[(hash[indx] >> 4) & 0xF];
+            hex[indx * 2 + 1] = HEX_DIGITS[hash[indx] & 0xF];
+        }
+        return new String(hex);
+    }
+}
@@ -0,0 +1,115 @@
+package me.aakrylov.chunkanalyzer.util;
+
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Naming scheme of split parts: {@code <original file name>.<part index>}, the index is 1-based
+ * and padded to at least three digits. Compressed parts get the {@code .gz} suffix on top.
+ */
+public class ChunkNames {
+
+    public static final String MANIFEST = "manifest.json";
+    public static final String RECIPE = "recipe.json";
+    public static final String COMPRESSED_SUFFIX = ".gz";
+
+    private ChunkNames() {
+    }
+
+    /**
+     * Checks a client-supplied name of a file to split or upload. The name becomes part of the split directory
+     * and of the part paths, so it must be a plain file name: no separators, no {@code .} or {@code ..},
+     * nothing the file system would read as anything but the last path element.
+     *
+     * @return the same name
+     * @throws IllegalArgumentException if it is not a plain file name
+     */
+    public static String checkFileName(String fileName) {
+        if (fileName == null || fileName.isBlank() || fileName.indexOf('/') >= 0 || fileName.indexOf('\\') >= 0
+                || ".".equals(fileName) || "..".equals(fileName)) {
+            throw new IllegalArgumentException(String.format("Invalid file name [%s]", fileName));
+        }
+        try {
+            Path name = Path.of(fileName).getFileName();
+            if (name == null || !fileName.equals(name.toString())) {
+                throw new IllegalArgumentException(String.format("Invalid file name [%s]", fileName));
+            }
+        } catch (InvalidPathException e) {
+            throw new IllegalArgumentException(String.format("Invalid file name [%s]", fileName), e);
+        }
+        return fileName;
+    }
+
+    /**
+     * Directory of the parts of a file inside the split location, named after the file with dots replaced.
+     *
+     * @param location split location, ending with a separator
+     * @throws IllegalArgumentException if the name is not a plain file name
+     */
+    public static Path splitDirectory(String location, String fileName) {
+        return Paths.get(location + checkFileName(fileName).replace(".", "_"));
+    }
+
+    public static String partName(String fileName, int partIndex) {
+        return String.format("%s.%03d", fileName, partIndex);
+    }
+
+    public static String partName(String fileName, int partIndex, boolean compressed) {
+        return compressed ? partName(fileName, partIndex) + COMPRESSED_SUFFIX : partName(fileName, partIndex);
+    }
+
+    /**
+     * @return whether the file is a compressed part; other {@code .gz} files are not
+     */
+    public static boolean isCompressed(Path part) {
+        return part.getFileName().toString().endsWith(COMPRESSED_SUFFIX) && partIndex(part) > 0;
+    }
+
+    /**
+     * @return 1-based part index or {@code -1} if the file is not a part
+     */
+    public static int partIndex(Path part) {
+        String name = withoutCompressedSuffix(part);
+        int dot = name.lastIndexOf('.');
+        if (dot <= 0 || dot == name.length() - 1) {
+            return -1;
+        }
+        int index = 0;
+        for (int pos = dot + 1; pos < name.length(); pos++) {
+            char digit = name.charAt(pos);
+            if (digit < '0' || digit > '9' || index > (Integer.MAX_VALUE - 9) / 10) {
+                return -1;
+            }
+            index = index * 10 + (digit - '0');
+        }
+        return index > 0 ? index : -1;
+    }
+
+    /**
+     * @return whether {@code candidate} is the part right after {@code part} of the same file
+     */
+    public static boolean isNextPart(Path part, Path candidate) {
+        int partIndex = partIndex(part);
+        return partIndex > 0 && partIndex(candidate) == partIndex + 1
+                && originalName(part).equals(originalName(candidate));
+    }
+
+    public static boolean isManifest(Path file) {
+        return MANIFEST.equals(file.getFileName().toString());
+    }
+
+    public static boolean isRecipe(Path file) {
+        return RECIPE.equals(file.getFileName().toString());
+    }
+
+    public static String originalName(Path part) {
+        String name = withoutCompressedSuffix(part);
+        return name.substring(0, name.lastIndexOf('.'));
+    }
+
+    private static String withoutCompressedSuffix(Path part) {
+        String name = part.getFileName().toString();
+        return name.endsWith(COMPRESSED_SUFFIX) ? name.substring(0, name.length() - COMPRESSED_SUFFIX.length()) : name;
+    }
+}
@@ -0,0 +1,30 @@
+package me.aakrylov.chunkanalyzer.util;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+public class FileRanges {
+
+    private FileRanges() {
+    }
+
+    /**
+     * Fills the remaining space of the buffer from {@code position}; a single positional read may return less.
+     * Used instead of mapping files that are deleted right afterwards: a mapping keeps the file open until
+     * the buffer is garbage collected, and Windows refuses to delete it meanwhile.
+     *
+     * @throws EOFException if the file ends before the buffer is full
+     */
+    public static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            int bytesAmount = channel.read(buffer, offset);
+            if (bytesAmount < 0) {
+                throw new EOFException(String.format("File ended at %d, %d bytes short", offset, buffer.remaining()));
+            }
+            offset += bytesAmount;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package me.aakrylov.chunkanalyzer.util;
+
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Path;
+
+public class LocalPaths {
+
+    private LocalPaths() {
+    }
+
+    /**
+     * Checks a client-supplied server path against the directory the client may access.
+     * Both are compared as normalized absolute paths, so {@code ..} elements cannot climb out of the root.
+     *
+     * @return the normalized absolute path
+     * @throws AccessDeniedException if the path is not the root or inside it
+     */
+    public static Path requireUnder(Path root, Path path) throws AccessDeniedException {
+        Path normalizedRoot = root.toAbsolutePath().normalize();
+        Path normalized = path.toAbsolutePath().normalize();
+        if (!normalized.startsWith(normalizedRoot)) {
+            throw new AccessDeniedException(path.toString(), null, "outside of " + normalizedRoot);
+        }
+        return normalized;
+    }
+}
@@ -0,0 +1,21 @@
+package me.aakrylov.chunkanalyzer.util;
+
+public class Throughput {
+
+    private static final double BYTES_IN_MEGABYTE = 1024 * 1024;
+    private static final double NANOS_IN_SECOND = 1_000_000_000;
+
+    private Throughput() {
+    }
+
+    /**
+     * @return megabytes per second, rounded to two decimals
+     */
+    public static double megabytesPerSecond(long bytes, long nanos) {
+        if (nanos <= 0) {
+            return 0;
+        }
+        double value = bytes / BYTES_IN_MEGABYTE / (nanos / NANOS_IN_SECOND);
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,34 @@
+package me.aakrylov.chunkanalyzer.util;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class Uploads {
+
+    private static final String SUFFIX = ".upload";
+
+    private Uploads() {
+    }
+
+    /**
+     * Moves a multipart upload into a new temp file.
+     * <p>
+     * {@link MultipartFile#transferTo(java.io.File)} hands the target to Tomcat's {@code Part.write}, which renames
+     * the spool file when it is on the same file system and the target does not exist yet. The {@code Path}
+     * overload always copies the stream, so the reserved temp name is freed before the transfer.
+     */
+    public static Path spool(MultipartFile file, String prefix) throws IOException {
+        Path target = Files.createTempFile(prefix, SUFFIX);
+        try {
+            Files.delete(target);
+            file.transferTo(target.toFile());
+            return target;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(target);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package me.aakrylov.chunkanalyzer.aspect;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.aakrylov.chunkanalyzer.model.FileOperationResult;
+import me.aakrylov.chunkanalyzer.model.FindingsReport;
+import me.aakrylov.chunkanalyzer.type.FileOperationStatus;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MetricsAspectTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MetricsAspect metricsAspect = new MetricsAspect(registry);
+    private ProceedingJoinPoint joinPoint;
+
+    @BeforeEach
+    void setUp() {
+        joinPoint = mock(ProceedingJoinPoint.class);
+        Signature signature = mock(Signature.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(signature.getName()).thenReturn("split");
+    }
+
+    @Test
+    void whenOperationSucceeds_thenRecordLatencyBytesAndFindings() throws Throwable {
+        FileOperationResult result = FileOperationResult.builder()
+                .setStatus(FileOperationStatus.SUCCESS)
+                .setBytesProcessed(2048L)
+                .setChunkCount(2)
+                .setThroughput(10.5)
+                .setFindings(FindingsReport.builder().setTotalSymbols(3).build())
+                .build();
+        when(joinPoint.proceed()).thenReturn(result);
+
+        assertSame(result, metricsAspect.measuredCall(joinPoint));
+        assertEquals(1, registry.get(MetricsAspect.OPERATION_TIMER)
+                .tag("operation", "split").tag("status", "SUCCESS").timer().count());
+        assertEquals(2048, registry.get(MetricsAspect.BYTES_SUMMARY).summary().totalAmount());
+        assertEquals(2, registry.get(MetricsAspect.CHUNKS_SUMMARY).summary().totalAmount());
+        assertEquals(3, registry.get(MetricsAspect.FINDINGS_COUNTER).counter().count());
+        assertTrue(registry.find(MetricsAspect.ERRORS_COUNTER).counters().isEmpty());
+    }
+
+    @Test
+    void whenOperationThrows_thenCountErrorAndRethrow() throws Throwable {
+        when(joinPoint.proceed()).thenThrow(new IOException("disk is gone"));
+
+        assertThrows(IOException.class, () -> metricsAspect.measuredCall(joinPoint));
+        assertEquals(1, registry.get(MetricsAspect.ERRORS_COUNTER).tag("reason", "IOException").counter().count());
+        assertEquals(1, registry.get(MetricsAspect.OPERATION_TIMER).tag("status", "EXCEPTION").timer().count());
+    }
+}
@@ -0,0 +1,105 @@
+package me.aakrylov.chunkanalyzer.component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.aakrylov.chunkanalyzer.model.FileOperationResult;
+import me.aakrylov.chunkanalyzer.type.FileOperationStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalysisCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void whenCacheIsOverBudget_thenEvictLeastRecentlyUsed() {
+        AnalysisCache measure = new AnalysisCache(new ObjectMapper(), true, 1024 * 1024, false, "");
+        measure.put("a", result("a"));
+        long entryBytes = measure.getBytes();
+        AnalysisCache cache = new AnalysisCache(new ObjectMapper(), true, entryBytes * 5 / 2, false, "");
+
+        cache.put("a", result("a"));
+        cache.put("b", result("b"));
+        cache.get("a");
+        cache.put("c", result("c"));
+
+        assertTrue(cache.get("a").isPresent());
+        assertFalse(cache.get("b").isPresent());
+        assertTrue(cache.get("c").isPresent());
+        assertEquals(3, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(2 * entryBytes, cache.getBytes());
+    }
+
+    @Test
+    void whenResultIsHeavierThanBudget_thenItIsNotCached() {
+        AnalysisCache cache = new AnalysisCache(new ObjectMapper(), true, 2048, false, "");
+
+        cache.put("light", result("a"));
+        cache.put("heavy", result("a".repeat(4096)));
+
+        assertTrue(cache.get("light").isPresent());
+        assertFalse(cache.get("heavy").isPresent());
+    }
+
+    @Test
+    void whenCachedResultIsChanged_thenCacheKeepsOriginal() {
+        AnalysisCache cache = new AnalysisCache(new ObjectMapper(), true, 1024 * 1024, false, "");
+        FileOperationResult stored = result("original");
+        cache.put("key", stored);
+
+        stored.setDescription("changed after put");
+        cache.get("key").orElseThrow().setDescription("changed after get");
+
+        assertEquals("original", cache.get("key").orElseThrow().getDescription());
+    }
+
+    @Test
+    void whenIndexIsSaved_thenNewCacheLoadsIt() {
+        String index = directory.resolve("analysis-cache.json").toString();
+        AnalysisCache cache = new AnalysisCache(new ObjectMapper(), true, 1024 * 1024, false, index);
+        cache.put("key", result("Incorrect symbol"));
+        cache.flush();
+
+        AnalysisCache restarted = new AnalysisCache(new ObjectMapper(), true, 1024 * 1024, false, index);
+        restarted.load();
+        Optional<FileOperationResult> cached = restarted.get("key");
+
+        assertTrue(cached.isPresent());
+        assertEquals("Incorrect symbol", cached.get().getDescription());
+        assertEquals(FileOperationStatus.ANALYSIS_COMPLETE, cached.get().getStatus());
+    }
+
+    @Test
+    void whenContentHashIsEnabled_thenKeyFollowsContentNotPath() throws Exception {
+        AnalysisCache cache = new AnalysisCache(new ObjectMapper(), true, 1024 * 1024, true, "");
+        Path original = Files.writeString(directory.resolve("original.txt"), "same content");
+        Path copy = Files.writeString(directory.resolve("copy.txt"), "same content");
+        Path other = Files.writeString(directory.resolve("other.txt"), "some content");
+
+        String key = cache.key(original, attributes(original), "US-ASCII");
+
+        assertTrue(key.startsWith("sha256:12:"));
+        assertEquals(key, cache.key(copy, attributes(copy), "US-ASCII"));
+        assertNotEquals(key, cache.key(other, attributes(other), "US-ASCII"));
+    }
+
+    private static BasicFileAttributes attributes(Path file) throws IOException {
+        return Files.readAttributes(file, BasicFileAttributes.class);
+    }
+
+    private FileOperationResult result(String description) {
+        return FileOperationResult.builder()
+                .setStatus(FileOperationStatus.ANALYSIS_COMPLETE)
+                .setDescription(description)
+                .build();
+    }
+}
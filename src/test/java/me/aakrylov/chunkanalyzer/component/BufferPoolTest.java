@@ -0,0 +1,49 @@
+package me.aakrylov.chunkanalyzer.component;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BufferPoolTest {
+
+    @Test
+    void whenLeaseIsClosed_thenWindowIsReused() throws IOException {
+        BufferPool pool = new BufferPool(1024 * 1024, 0);
+        byte[] first;
+        try (BufferPool.Lease lease = pool.acquire(5000)) {
+            first = lease.array();
+            assertEquals(5000, lease.length());
+            assertEquals(8192, first.length);
+            assertEquals(8192, pool.getLeasedBytes());
+        }
+        assertEquals(0, pool.getLeasedBytes());
+        assertEquals(8192, pool.getIdleBytes());
+        try (BufferPool.Lease lease = pool.acquire(8000)) {
+            assertSame(first, lease.array());
+        }
+    }
+
+    @Test
+    void whenBudgetIsExhausted_andTimeoutIsZero_thenFailFast() throws IOException {
+        BufferPool pool = new BufferPool(1024 * 1024, 0);
+        try (BufferPool.Lease ignored = pool.acquire(1024 * 1024)) {
+            assertThrows(IOException.class, () -> pool.acquire(4096));
+        }
+        try (BufferPool.Lease lease = pool.acquire(4096)) {
+            assertEquals(4096, lease.length());
+        }
+    }
+
+    @Test
+    void whenIdleWindowsOfAnotherClassFillTheBudget_thenTheyAreDropped() throws IOException {
+        BufferPool pool = new BufferPool(1024 * 1024, 0);
+        pool.acquire(512 * 1024).close();
+        pool.acquire(256 * 1024).close();
+        try (BufferPool.Lease lease = pool.acquire(1024 * 1024)) {
+            assertEquals(1024 * 1024, lease.array().length);
+            assertEquals(0, pool.getIdleBytes());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package me.aakrylov.chunkanalyzer.component;
+
+import me.aakrylov.chunkanalyzer.util.ChunkNames;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkAssemblerTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final ChunkAssembler assembler = new ChunkAssembler(new PartCodec(6, 1024),
+            new BufferPool(1024 * 1024, 0), executor, true);
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void whenMoreThan999Parts_thenAssembleInNumericOrder() throws Exception {
+        Path directory = Files.createDirectory(tempDir.resolve("numbers.txt"));
+        int partCount = 1005;
+        StringBuilder expected = new StringBuilder();
+        for (int partIndex = 1; partIndex <= partCount; partIndex++) {
+            String content = partIndex + ",";
+            expected.append(content);
+            Files.writeString(directory.resolve(ChunkNames.partName("numbers.txt", partIndex)), content);
+        }
+        Files.writeString(directory.resolve("notes.md"), "not a part");
+
+        List<Path> parts = assembler.listParts(directory);
+        long size = assembler.assemble(parts, tempDir.resolve("assembled.txt"));
+
+        assertEquals(partCount, parts.size());
+        assertEquals(expected.length(), size);
+        assertEquals(expected.toString(), Files.readString(tempDir.resolve("assembled.txt")));
+    }
+
+    @Test
+    void whenPartIsMissing_thenFailWholeAssembly() throws Exception {
+        Path part = Files.writeString(tempDir.resolve("file.txt.001"), "content");
+        List<Path> parts = List.of(part, tempDir.resolve("file.txt.002"));
+
+        assertThrows(IOException.class, () -> assembler.assemble(parts, tempDir.resolve("file.txt")));
+    }
+}
@@ -0,0 +1,56 @@
+package me.aakrylov.chunkanalyzer.component;
+
+import me.aakrylov.chunkanalyzer.model.FileOperationResult;
+import me.aakrylov.chunkanalyzer.model.FindingsReport;
+import me.aakrylov.chunkanalyzer.type.FileOperationStatus;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FindingsAggregatorTest {
+
+    @Test
+    void whenPartsHaveFindings_thenSumThemAndDescribeEachOnItsLine() {
+        FindingsAggregator aggregator = new FindingsAggregator();
+
+        aggregator.addFile(Path.of("a.txt"), result(FileOperationStatus.SUCCESS, "x", Map.of("00", 2L)));
+        aggregator.addFile(Path.of("b.txt"), result(FileOperationStatus.SUCCESS, "", null));
+        aggregator.addChunk("abc", 10, result(FileOperationStatus.ERROR, "y", Map.of("00", 1L, "01", 3L)));
+
+        FindingsReport totals = aggregator.getTotals();
+        assertEquals(6, totals.getTotalSymbols());
+        assertEquals(2, totals.getTotalRuns());
+        assertEquals(Map.of("00", 3L, "01", 3L), totals.getHistogram());
+        assertEquals("Error in file [a.txt]: x\r\nError in chunk [abc] at offset [10]: y\r\n",
+                aggregator.getDescription());
+    }
+
+    @Test
+    void whenNoPartIsReported_thenDescriptionIsNull() {
+        FindingsAggregator aggregator = new FindingsAggregator();
+
+        aggregator.addFile(Path.of("a.txt"), result(FileOperationStatus.SUCCESS, "", null));
+
+        assertNull(aggregator.getDescription());
+        assertEquals(0, aggregator.getTotals().getTotalSymbols());
+        assertTrue(aggregator.getTotals().getHistogram().isEmpty());
+    }
+
+    private static FileOperationResult result(FileOperationStatus status, String description,
+                                              Map<String, Long> histogram) {
+        FindingsReport findings = histogram == null ? null : FindingsReport.builder()
+                .setTotalSymbols(histogram.values().stream().mapToLong(Long::longValue).sum())
+                .setTotalRuns(1)
+                .setHistogram(new TreeMap<>(histogram))
+                .build();
+        return FileOperationResult.builder()
+                .setStatus(status)
+                .setDescription(description)
+                .setFindings(findings)
+                .build();
+    }
+}
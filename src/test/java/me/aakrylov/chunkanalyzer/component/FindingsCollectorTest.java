@@ -0,0 +1,61 @@
+package me.aakrylov.chunkanalyzer.component;
+
+import me.aakrylov.chunkanalyzer.model.Finding;
+import me.aakrylov.chunkanalyzer.model.FindingsReport;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FindingsCollectorTest {
+
+    @Test
+    void whenSymbolsAreConsecutiveAndEqual_thenCoalesceIntoRun() {
+        FindingsCollector collector = new FindingsCollector(10);
+
+        collector.onIncorrectSymbol(5, (byte) 0);
+        collector.onIncorrectSymbol(6, (byte) 0);
+        collector.onIncorrectSymbol(7, (byte) 0);
+        collector.onIncorrectSymbol(8, (byte) 1);
+        collector.onIncorrectSymbol(10, (byte) 1);
+        FindingsReport report = collector.toReport();
+
+        assertEquals(List.of(new Finding(5, 0, 3), new Finding(8, 1, 1), new Finding(10, 1, 1)), report.getFindings());
+        assertEquals(5, report.getTotalSymbols());
+        assertEquals(3, report.getTotalRuns());
+        assertEquals(Map.of("0x00", 3L, "0x01", 2L), report.getHistogram());
+        assertFalse(report.isTruncated());
+    }
+
+    @Test
+    void whenRunsExceedLimit_thenReportTotalsAndTruncate() {
+        FindingsCollector collector = new FindingsCollector(2);
+
+        for (int offset = 0; offset < 10; offset += 2) {
+            collector.onIncorrectSymbol(offset, (byte) 0x80);
+        }
+        FindingsReport report = collector.toReport();
+
+        assertEquals(2, report.getFindings().size());
+        assertEquals(5, report.getTotalRuns());
+        assertTrue(report.isTruncated());
+    }
+
+    @Test
+    void whenSinkIsGiven_thenStreamEveryRun() {
+        List<Finding> streamed = new ArrayList<>();
+        FindingsCollector collector = new FindingsCollector(0, streamed::add);
+
+        collector.onIncorrectSymbol(0, (byte) 0);
+        collector.onIncorrectSymbol(1, (byte) 0);
+        collector.onIncorrectSymbol(3, (byte) 0);
+        FindingsReport report = collector.toReport();
+
+        assertEquals(List.of(new Finding(0, 0, 2), new Finding(3, 0, 1)), streamed);
+        assertNull(report.getFindings());
+        assertEquals(2, report.getTotalRuns());
+    }
+}
@@ -0,0 +1,44 @@
+package me.aakrylov.chunkanalyzer.component;
+
+import me.aakrylov.chunkanalyzer.model.Finding;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FindingsLogTest {
+
+    @Test
+    void whenBufferIsFull_thenDropInsteadOfBlocking() {
+        FindingsLog findingsLog = new FindingsLog(true, 2, 3);
+        Consumer<Finding> sink = findingsLog.sink("full.txt");
+
+        for (int offset = 0; offset < 5; offset++) {
+            sink.accept(new Finding(offset, 0, 1));
+        }
+
+        assertEquals(2, findingsLog.getDropped());
+        assertEquals(0, findingsLog.getWritten());
+    }
+
+    @Test
+    void whenStopped_thenWriteEverythingBuffered() throws InterruptedException {
+        FindingsLog findingsLog = new FindingsLog(true, 2, 100);
+        Consumer<Finding> sink = findingsLog.sink("dirty.txt");
+        for (int offset = 0; offset < 5; offset++) {
+            sink.accept(new Finding(offset, 0, 1));
+        }
+
+        findingsLog.start();
+        findingsLog.stop();
+
+        assertEquals(5, findingsLog.getWritten());
+        assertEquals(0, findingsLog.getDropped());
+    }
+
+    @Test
+    void whenDisabled_thenReturnNoSink() {
+        assertNull(new FindingsLog(false, 250, 100).sink("clean.txt"));
+    }
+}
@@ -0,0 +1,70 @@
+package me.aakrylov.chunkanalyzer.component;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GearChunkerTest {
+
+    private final GearChunker chunker = new GearChunker(64, 256, 1024);
+
+    @Test
+    void whenCut_thenChunksStayWithinSizeLimits() {
+        byte[] content = new byte[50_000];
+        new Random(1).nextBytes(content);
+
+        List<Integer> sizes = chunkSizes(content);
+
+        assertEquals(content.length, sizes.stream().mapToInt(Integer::intValue).sum());
+        for (int indx = 0; indx < sizes.size() - 1; indx++) {
+            assertTrue(sizes.get(indx) > chunker.getMinSize(), "Chunk " + indx);
+            assertTrue(sizes.get(indx) <= chunker.getMaxSize(), "Chunk " + indx);
+        }
+    }
+
+    @Test
+    void whenBytesAreInsertedNearStart_thenLaterBoundariesOnlyShift() {
+        byte[] content = new byte[50_000];
+        new Random(2).nextBytes(content);
+        byte[] edited = new byte[content.length + 5];
+        System.arraycopy(content, 0, edited, 0, 10);
+        System.arraycopy(content, 10, edited, 15, content.length - 10);
+
+        List<Long> boundaries = boundaries(chunkSizes(content), 0);
+        List<Long> editedBoundaries = boundaries(chunkSizes(edited), -5);
+
+        int shared = 0;
+        for (Long boundary : boundaries) {
+            if (editedBoundaries.contains(boundary)) {
+                shared++;
+            }
+        }
+        assertTrue(shared >= boundaries.size() - 3, shared + " of " + boundaries.size());
+    }
+
+    private List<Integer> chunkSizes(byte[] content) {
+        ByteBuffer buffer = ByteBuffer.wrap(content);
+        List<Integer> sizes = new ArrayList<>();
+        for (int from = 0; from < content.length; ) {
+            int size = chunker.cut(buffer, from, content.length);
+            sizes.add(size);
+            from += size;
+        }
+        return sizes;
+    }
+
+    private List<Long> boundaries(List<Integer> sizes, long shift) {
+        List<Long> boundaries = new ArrayList<>();
+        long offset = shift;
+        for (int size : sizes) {
+            offset += size;
+            boundaries.add(offset);
+        }
+        return boundaries;
+    }
+}
@@ -0,0 +1,114 @@
+package me.aakrylov.chunkanalyzer.component;
+
+import me.aakrylov.chunkanalyzer.type.ContentCharset;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelContentAnalyzerTest {
+
+    private final SymbolClassifier classifier = new SymbolClassifier();
+    private final ContentAnalyzer sequentialAnalyzer = new ContentAnalyzer(classifier, new BufferPool(1024 * 1024, 0), 1024);
+    private final ParallelContentAnalyzer parallelAnalyzer = new ParallelContentAnalyzer(classifier, 4, 100, 65536);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void whenAnalyzeInParallel_thenReportSameFindingsAsSequentialScan() throws Exception {
+        Random random = new Random(7);
+        byte[] content = new byte[10_007];
+        for (int indx = 0; indx < content.length; indx++) {
+            content[indx] = random.nextInt(50) == 0 ? (byte) random.nextInt(256) : (byte) (32 + random.nextInt(95));
+        }
+        Path file = Files.write(tempDir.resolve("random.bin"), content);
+        List<String> expected = new ArrayList<>();
+        List<String> actual = new ArrayList<>();
+
+        sequentialAnalyzer.analyze(new ByteArrayInputStream(content), (offset, symbol) -> expected.add(offset + ":" + symbol));
+        long analyzed = parallelAnalyzer.analyze(file, (offset, symbol) -> actual.add(offset + ":" + symbol));
+
+        assertTrue(parallelAnalyzer.isParallelizable(content.length));
+        assertEquals(content.length, analyzed);
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void whenAnalyzeUtf8InParallel_thenSequencesCutBySegmentsReportedOnce() throws Exception {
+        Random random = new Random(11);
+        byte[][] symbols = {"a".getBytes(StandardCharsets.UTF_8), "\u0436".getBytes(StandardCharsets.UTF_8),
+                "\u20ac".getBytes(StandardCharsets.UTF_8), "\ud83d\ude00".getBytes(StandardCharsets.UTF_8),
+                {(byte) 0xE2, (byte) 0x82}, {(byte) 0xC2, (byte) 0x85}, {(byte) 0xFF}};
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        while (out.size() < 10_000) {
+            out.write(symbols[random.nextInt(20) < 17 ? random.nextInt(4) : 4 + random.nextInt(3)]);
+        }
+        byte[] content = out.toByteArray();
+        Path file = Files.write(tempDir.resolve("random.txt"), content);
+        List<String> expected = new ArrayList<>();
+        List<String> actual = new ArrayList<>();
+
+        sequentialAnalyzer.analyze(new ByteArrayInputStream(content), ContentCharset.UTF_8,
+                (offset, symbol) -> expected.add(offset + ":" + symbol));
+        parallelAnalyzer.analyze(file, ContentCharset.UTF_8, (offset, symbol) -> actual.add(offset + ":" + symbol));
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void whenAnalyzeWithoutMapping_thenReportSameFindingsAsMappedScan() throws Exception {
+        byte[] content = "\u0436\u20ac text \u00e9".repeat(500).getBytes(StandardCharsets.UTF_8);
+        content[333] = (byte) 0xFF;
+        content[4_000] = (byte) 0xC2;
+        Path file = Files.write(tempDir.resolve("upload.txt"), content);
+        List<String> mapped = new ArrayList<>();
+        List<String> read = new ArrayList<>();
+
+        parallelAnalyzer.analyze(file, ContentCharset.UTF_8, (offset, symbol) -> mapped.add(offset + ":" + symbol), true);
+        parallelAnalyzer.analyze(file, ContentCharset.UTF_8, (offset, symbol) -> read.add(offset + ":" + symbol), false);
+        Files.delete(file);
+
+        assertFalse(mapped.isEmpty());
+        assertEquals(mapped, read);
+    }
+
+    @Test
+    void whenSegmentsHaveMoreRunsThanKept_thenScanThemAgainInOrder() throws Exception {
+        ParallelContentAnalyzer boundedAnalyzer = new ParallelContentAnalyzer(classifier, 4, 100, 8);
+        Random random = new Random(13);
+        byte[] content = new byte[20_000];
+        for (int indx = 0; indx < content.length; indx++) {
+            boolean dirty = indx < 5_000 ? indx % 3 == 0 : random.nextInt(200) == 0;
+            content[indx] = dirty ? (byte) (128 + random.nextInt(3)) : (byte) 'a';
+        }
+        Path file = Files.write(tempDir.resolve("dirty.bin"), content);
+        List<String> expected = new ArrayList<>();
+        List<String> mapped = new ArrayList<>();
+        List<String> read = new ArrayList<>();
+
+        sequentialAnalyzer.analyze(new ByteArrayInputStream(content), (offset, symbol) -> expected.add(offset + ":" + symbol));
+        boundedAnalyzer.analyze(file, ContentCharset.US_ASCII, (offset, symbol) -> mapped.add(offset + ":" + symbol), true);
+        boundedAnalyzer.analyze(file, ContentCharset.US_ASCII, (offset, symbol) -> read.add(offset + ":" + symbol), false);
+
+        assertTrue(expected.size() > 1_666);
+        assertEquals(expected, mapped);
+        assertEquals(expected, read);
+    }
+
+    @Test
+    void whenFileIsSmall_thenItIsNotParallelizable() {
+        assertFalse(parallelAnalyzer.isParallelizable(150));
+    }
+}
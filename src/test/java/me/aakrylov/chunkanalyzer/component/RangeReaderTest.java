@@ -0,0 +1,93 @@
+package me.aakrylov.chunkanalyzer.component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.aakrylov.chunkanalyzer.model.ChunkManifest;
+import me.aakrylov.chunkanalyzer.model.ManifestPart;
+import me.aakrylov.chunkanalyzer.util.ChunkNames;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RangeReaderTest {
+
+    private final PartCodec partCodec = new PartCodec(6, 1024);
+    private final BufferPool bufferPool = new BufferPool(1024 * 1024, 0);
+    private final ChunkManifestStore manifestStore = new ChunkManifestStore(new ObjectMapper());
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void whenRangeSpansRawAndCompressedParts_thenReturnExactlyThoseBytes() throws Exception {
+        byte[] content = new byte[3000];
+        new Random(11).nextBytes(content);
+        Path directory = Files.createDirectory(tempDir.resolve("random_bin"));
+        Files.write(directory.resolve(ChunkNames.partName("random.bin", 1)), Arrays.copyOfRange(content, 0, 1000));
+        try (OutputStream out = partCodec.compressing(
+                Files.newOutputStream(directory.resolve(ChunkNames.partName("random.bin", 2, true))), null)) {
+            out.write(content, 1000, 1000);
+        }
+        Files.write(directory.resolve(ChunkNames.partName("random.bin", 3)), Arrays.copyOfRange(content, 2000, 3000));
+        manifestStore.write(directory, ChunkManifest.builder()
+                .setFileName("random.bin")
+                .setTotalSize(content.length)
+                .setPartSize(1000)
+                .setPartCount(3)
+                .setParts(List.of(
+                        new ManifestPart(1, ChunkNames.partName("random.bin", 1), 1000, 0, null),
+                        new ManifestPart(2, ChunkNames.partName("random.bin", 2, true), 1000, 0,
+                                Files.size(directory.resolve(ChunkNames.partName("random.bin", 2, true)))),
+                        new ManifestPart(3, ChunkNames.partName("random.bin", 3), 1000, 0, null)))
+                .build());
+        RangeReader reader = reader();
+
+        PartIndex index = reader.index(directory);
+
+        assertEquals("random.bin", index.getFileName());
+        assertEquals(content.length, index.getTotalSize());
+        assertArrayEquals(Arrays.copyOfRange(content, 900, 2100), read(reader, index, 900, 1200));
+        assertArrayEquals(Arrays.copyOfRange(content, 1500, 1501), read(reader, index, 1500, 1));
+        assertArrayEquals(content, read(reader, index, 0, content.length));
+        assertThrows(IndexOutOfBoundsException.class, () -> read(reader, index, 2999, 2));
+    }
+
+    @Test
+    void whenDirectoryHasNoManifest_thenRefuseToIndexIt() throws Exception {
+        Path directory = Files.createDirectory(tempDir.resolve("log"));
+        Files.writeString(directory.resolve("syslog.1"), "not a part");
+
+        assertThrows(NoSuchFileException.class, () -> reader().index(directory));
+    }
+
+    @Test
+    void whenPartIsEmpty_thenMapOffsetToNextPart() {
+        PartIndex index = new PartIndex("file.txt", List.of(Path.of("a"), Path.of("b"), Path.of("c")),
+                new long[]{0, 10, 10, 20});
+
+        assertEquals(0, index.partAt(9));
+        assertEquals(2, index.partAt(10));
+        assertEquals(2, index.partAt(19));
+        assertThrows(IndexOutOfBoundsException.class, () -> index.partAt(20));
+    }
+
+    private RangeReader reader() {
+        return new RangeReader(manifestStore, new ChunkStore(tempDir.resolve("store").toString()), partCodec, bufferPool);
+    }
+
+    private byte[] read(RangeReader reader, PartIndex index, long from, long length) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(length, reader.transfer(index, from, length, Channels.newChannel(out)));
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,61 @@
+package me.aakrylov.chunkanalyzer.component;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SymbolClassifierTest {
+
+    private final SymbolClassifier classifier = new SymbolClassifier();
+
+    @Test
+    void whenClassifyEveryByte_thenMatchSymbolRules() {
+        for (int value = 0; value < 256; value++) {
+            boolean expected = value == '\r' || value == '\n' || value == '\t' || (value > 31 && value < 128);
+            assertEquals(expected, classifier.isCorrect((byte) value), "Byte " + value);
+        }
+    }
+
+    @Test
+    void whenContentIsClean_thenNoIncorrectSymbolFound() {
+        byte[] content = "Clean text,\r\n\twith 123 numbers and {special} symbols~".getBytes();
+
+        assertEquals(-1, classifier.nextIncorrect(content, 0, content.length));
+        assertEquals(-1, classifier.nextIncorrect(ByteBuffer.wrap(content), 0, content.length));
+    }
+
+    @Test
+    void whenScanRandomContent_thenFindSameIndexesAsBytewiseScan() {
+        Random random = new Random(42);
+        byte[] content = new byte[4099];
+        for (int indx = 0; indx < content.length; indx++) {
+            content[indx] = random.nextInt(40) == 0 ? (byte) random.nextInt(256) : (byte) (32 + random.nextInt(95));
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(content.length).put(content);
+
+        for (int from = 0; from < 16; from++) {
+            int expected = from - 1;
+            int actual = from - 1;
+            int bufferActual = from - 1;
+            do {
+                expected = bytewiseNextIncorrect(content, expected + 1);
+                actual = classifier.nextIncorrect(content, actual + 1, content.length);
+                bufferActual = classifier.nextIncorrect(buffer, bufferActual + 1, content.length);
+                assertEquals(expected, actual);
+                assertEquals(expected, bufferActual);
+            } while (expected >= 0);
+        }
+    }
+
+    private int bytewiseNextIncorrect(byte[] content, int from) {
+        for (int indx = from; indx < content.length; indx++) {
+            if (!classifier.isCorrect(content[indx])) {
+                return indx;
+            }
+        }
+        return -1;
+    }
+}
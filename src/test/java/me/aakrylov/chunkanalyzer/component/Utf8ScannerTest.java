@@ -0,0 +1,85 @@
+package me.aakrylov.chunkanalyzer.component;
+
+import me.aakrylov.chunkanalyzer.type.ContentCharset;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Utf8ScannerTest {
+
+    @Test
+    void whenContentIsWellFormed_thenNothingReported() {
+        byte[] content = "Plain text, \u043a\u0438\u0440\u0438\u043b\u043b\u0438\u0446\u0430, \u6c49\u5b57 and \ud83d\ude00\r\n\t".getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(List.of(), scan(content));
+    }
+
+    @Test
+    void whenSequenceIsMalformed_thenReportItsBytesAtByteOffsets() {
+        byte[] content = {
+                'a',                                // 0
+                (byte) 0xC0, (byte) 0xAF,           // 1-2 overlong '/', both bytes can never start or continue
+                'b',                                // 3
+                (byte) 0xE2, (byte) 0x82, 'c',      // 4-5 truncated, 6 is fine
+                (byte) 0xED, (byte) 0xA0, (byte) 0x80, // 7-9 surrogate: ED then two lone continuations
+                (byte) 0xC2, (byte) 0x85,           // 10-11 NEL, a C1 control
+                0x01                                // 12 C0 control
+        };
+
+        assertEquals(List.of("1:-64", "2:-81", "4:-30", "5:-126", "7:-19", "8:-96", "9:-128",
+                "10:-62", "11:-123", "12:1"), scan(content));
+    }
+
+    @Test
+    void whenSequenceIsSplitBetweenRanges_thenItIsValidatedWhole() {
+        byte[] content = "x\ud83d\ude00y".getBytes(StandardCharsets.UTF_8);
+        ContentScanner scanner = ContentScanner.of(ContentCharset.UTF_8);
+        List<String> findings = new ArrayList<>();
+
+        scanner.scan(content, 0, 3, 0, listener(findings));
+        scanner.scan(ByteBuffer.wrap(content), 3, content.length, 3, listener(findings));
+        scanner.finish(listener(findings));
+
+        assertEquals(List.of(), findings);
+    }
+
+    @Test
+    void whenContentEndsInsideSequence_thenFinishReportsIt() {
+        byte[] content = {'a', (byte) 0xF0, (byte) 0x9F};
+
+        assertEquals(List.of("1:-16", "2:-97"), scan(content));
+    }
+
+    @Test
+    void whenNeighbourPartsScannedWithMargins_thenEachSequenceReportedOnce() {
+        byte[] content = {'a', 'b', (byte) 0xE2, (byte) 0x82, (byte) 0x41, 'c', (byte) 0xE2, (byte) 0x82, (byte) 0xAC, 'd'};
+        int boundary = 4;
+        List<String> findings = new ArrayList<>();
+
+        ContentScanner first = ContentScanner.of(ContentCharset.UTF_8, 0, boundary, false);
+        first.scan(content, 0, boundary + 2, 0, listener(findings));
+        first.finish(listener(findings));
+        ContentScanner second = ContentScanner.of(ContentCharset.UTF_8, boundary, content.length, true);
+        second.scan(content, boundary - 2, content.length, boundary - 2, listener(findings));
+        second.finish(listener(findings));
+
+        assertEquals(List.of("2:-30", "3:-126"), findings);
+    }
+
+    private List<String> scan(byte[] content) {
+        List<String> findings = new ArrayList<>();
+        ContentScanner scanner = ContentScanner.of(ContentCharset.UTF_8);
+        scanner.scan(content, 0, content.length, 0, listener(findings));
+        scanner.finish(listener(findings));
+        return findings;
+    }
+
+    private FindingListener listener(List<String> findings) {
+        return (offset, symbol) -> findings.add(offset + ":" + symbol);
+    }
+}
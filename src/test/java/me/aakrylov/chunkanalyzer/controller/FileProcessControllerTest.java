@@ -1,19 +1,32 @@
 package me.aakrylov.chunkanalyzer.controller;
 
+import me.aakrylov.chunkanalyzer.component.PartIndex;
 import me.aakrylov.chunkanalyzer.service.api.FileService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Path;
+import java.util.List;
+
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@WebMvcTest(FileProcessController.class)
+@WebMvcTest(value = FileProcessController.class, properties = "files.analyze.local.root=local-root")
 class FileProcessControllerTest {
 
     @Autowired
@@ -32,6 +45,19 @@ class FileProcessControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void whenSplitStream_thenReturnOkResult() throws Exception {
+        byte[] content = new byte[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+
+        mockMvc.perform(post("/file-process/split/stream")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(content)
+                        .param("fileName", "streamed.txt")
+                        .param("chunkSize", "1")
+                        .param("analyze", "true"))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void whenAnalyzeFile_thenReturnOkResult() throws Exception {
         byte[] content = new byte[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
@@ -42,6 +68,32 @@ class FileProcessControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void whenAnalyzeStream_thenReturnNdjson() throws Exception {
+        byte[] content = new byte[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+        MockMultipartFile file = new MockMultipartFile("file", "filled.txt", MediaType.TEXT_PLAIN_VALUE, content);
+
+        mockMvc.perform(multipart("/file-process/analyze/stream")
+                        .file(file))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"));
+    }
+
+    @Test
+    void whenAnalyzeLocalFile_thenReturnOkResult() throws Exception {
+        mockMvc.perform(post("/file-process/analyze/local")
+                        .param("path", "local-root/some-file-path"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void whenAnalyzeLocalFileOutsideRoot_thenReturnForbidden() throws Exception {
+        mockMvc.perform(post("/file-process/analyze/local")
+                        .param("path", "local-root/../etc/passwd"))
+                .andExpect(status().isForbidden());
+        verify(fileService, never()).analyze(any(Path.class), any());
+    }
+
     @Test
     void whenAnalyzeAll_thenReturnOkResult() throws Exception {
         mockMvc.perform(post("/file-process/analyze/all")
@@ -55,4 +107,87 @@ class FileProcessControllerTest {
                         .param("dir", "some-directory-path"))
                 .andExpect(status().isOk());
     }
-}
\ No newline at end of file
+
+    @Test
+    void whenVerify_thenReturnOkResult() throws Exception {
+        mockMvc.perform(get("/file-process/verify")
+                        .param("dir", "some-directory-path"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void whenReadRange_thenReturnPartialContent() throws Exception {
+        PartIndex index = new PartIndex("file.txt", List.of(Path.of("file.txt.001"), Path.of("file.txt.002")),
+                new long[]{0, 100, 200});
+        when(fileService.index(any())).thenReturn(index);
+
+        mockMvc.perform(get("/file-process/read")
+                        .param("dir", "some-directory-path")
+                        .header(HttpHeaders.RANGE, "bytes=90-109"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 90-109/200"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 20));
+        verify(fileService).read(eq(index), eq(90L), eq(20L), any());
+    }
+
+    @Test
+    void whenReadRangeBeyondEnd_thenReturnRangeNotSatisfiable() throws Exception {
+        PartIndex index = new PartIndex("file.txt", List.of(Path.of("file.txt.001")), new long[]{0, 100});
+        when(fileService.index(any())).thenReturn(index);
+
+        mockMvc.perform(get("/file-process/read")
+                        .param("dir", "some-directory-path")
+                        .header(HttpHeaders.RANGE, "bytes=100-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */100"));
+    }
+
+    @Test
+    void whenReadRangeStartsPastEnd_thenReturnRangeNotSatisfiable() throws Exception {
+        PartIndex index = new PartIndex("file.txt", List.of(Path.of("file.txt.001")), new long[]{0, 100});
+        when(fileService.index(any())).thenReturn(index);
+
+        mockMvc.perform(get("/file-process/read")
+                        .param("dir", "some-directory-path")
+                        .header(HttpHeaders.RANGE, "bytes=150-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */100"));
+        verify(fileService, never()).read(any(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void whenReadRangeOfEmptyFile_thenReturnRangeNotSatisfiable() throws Exception {
+        PartIndex index = new PartIndex("empty.txt", List.of(Path.of("empty.txt.001")), new long[]{0, 0});
+        when(fileService.index(any())).thenReturn(index);
+
+        mockMvc.perform(get("/file-process/read")
+                        .param("dir", "some-directory-path")
+                        .header(HttpHeaders.RANGE, "bytes=-10"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */0"));
+    }
+
+    @Test
+    void whenReadRangeIsMalformed_thenIgnoreItAndReturnWholeFile() throws Exception {
+        PartIndex index = new PartIndex("file.txt", List.of(Path.of("file.txt.001")), new long[]{0, 100});
+        when(fileService.index(any())).thenReturn(index);
+
+        mockMvc.perform(get("/file-process/read")
+                        .param("dir", "some-directory-path")
+                        .header(HttpHeaders.RANGE, "bytes=oops"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 100));
+        verify(fileService).read(eq(index), eq(0L), eq(100L), any());
+    }
+
+    @Test
+    void whenReadOutsideSplitLocation_thenReturnForbidden() throws Exception {
+        when(fileService.index(any())).thenThrow(new AccessDeniedException("/var/log"));
+
+        mockMvc.perform(get("/file-process/read")
+                        .param("dir", "/var/log"))
+                .andExpect(status().isForbidden());
+        verify(fileService, never()).read(any(), anyLong(), anyLong(), any());
+    }
+}
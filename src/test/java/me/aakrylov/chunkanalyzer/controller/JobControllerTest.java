@@ -0,0 +1,79 @@
+package me.aakrylov.chunkanalyzer.controller;
+
+import me.aakrylov.chunkanalyzer.model.JobStatus;
+import me.aakrylov.chunkanalyzer.service.api.JobService;
+import me.aakrylov.chunkanalyzer.type.JobState;
+import me.aakrylov.chunkanalyzer.type.JobType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(JobController.class)
+class JobControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private JobService jobService;
+
+    @Test
+    void whenSubmitSplit_thenReturnAcceptedJob() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "filled.txt", MediaType.TEXT_PLAIN_VALUE, new byte[]{1, 2, 3});
+        when(jobService.submitSplit(any(), anyInt())).thenReturn(JobStatus.builder()
+                .setId("job-1")
+                .setType(JobType.SPLIT)
+                .setState(JobState.QUEUED)
+                .build());
+
+        mockMvc.perform(multipart("/jobs/split")
+                        .file(file)
+                        .param("chunkSize", "1"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").value("job-1"));
+    }
+
+    @Test
+    void whenQueueIsFull_thenReturnTooManyRequests() throws Exception {
+        when(jobService.submitAnalyzeAll(any())).thenThrow(new RejectedExecutionException());
+
+        mockMvc.perform(post("/jobs/analyze/all")
+                        .param("dir", "some-directory-path"))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void whenJobIsUnknown_thenReturnNotFound() throws Exception {
+        when(jobService.status("missing")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/jobs/missing"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/jobs/missing/result"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void whenJobIsRunning_thenResultIsConflict() throws Exception {
+        when(jobService.status("job-1")).thenReturn(Optional.of(JobStatus.builder()
+                .setId("job-1")
+                .setState(JobState.RUNNING)
+                .build()));
+        when(jobService.result("job-1")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/jobs/job-1/result"))
+                .andExpect(status().isConflict());
+    }
+}
@@ -0,0 +1,78 @@
+package me.aakrylov.chunkanalyzer.service;
+
+import me.aakrylov.chunkanalyzer.model.BatchSummary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import me.aakrylov.chunkanalyzer.type.BatchCommand;
+import me.aakrylov.chunkanalyzer.type.FileOperationStatus;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DefaultBatchServiceTest {
+
+    @TempDir
+    Path splitLocation;
+    @TempDir
+    Path sourceDir;
+    private ExecutorService executor;
+    private ExecutorService batchExecutor;
+    private DefaultBatchService batchService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        executor = Executors.newFixedThreadPool(2);
+        batchExecutor = Executors.newFixedThreadPool(2);
+        DefaultFileService fileService = TestFileService.create(splitLocation, executor);
+        batchService = new DefaultBatchService(fileService, batchExecutor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchExecutor.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void whenSplitFilesAndDirectories_thenReportEveryFileAndSumTheBytes() throws Exception {
+        Path nested = Files.createDirectory(sourceDir.resolve("nested"));
+        Path first = Files.writeString(sourceDir.resolve("first.txt"), "0123456789");
+        Files.writeString(nested.resolve("second.txt"), "abcdef");
+        Files.writeString(nested.resolve("third.txt"), "xyz");
+
+        BatchSummary summary = batchService.split(List.of(first, nested), 1, null);
+
+        assertEquals(BatchCommand.SPLIT, summary.getCommand());
+        assertEquals(FileOperationStatus.SUCCESS, summary.getStatus());
+        assertEquals(3, summary.getItems());
+        assertEquals(0, summary.getFailed());
+        assertEquals(19, summary.getBytesProcessed());
+        assertEquals(first.toString(), summary.getResults().get(0).getPath());
+        assertEquals(nested.resolve("second.txt").toString(), summary.getResults().get(1).getPath());
+        assertTrue(Files.isDirectory(splitLocation.resolve("third_txt")));
+    }
+
+    @Test
+    void whenOneItemFails_thenOthersStillRunAndSummaryIsError() throws Exception {
+        Path nested = Files.createDirectory(sourceDir.resolve("nested"));
+        Path first = Files.writeString(sourceDir.resolve("data.txt"), "clean");
+        Path duplicate = Files.writeString(nested.resolve("data.txt"), "other");
+
+        BatchSummary split = batchService.split(List.of(first, duplicate, sourceDir.resolve("missing.txt")), 1, null);
+        BatchSummary verify = batchService.verify(List.of(sourceDir.resolve("missing")));
+
+        assertEquals(FileOperationStatus.ERROR, split.getStatus());
+        assertEquals(3, split.getItems());
+        assertEquals(2, split.getFailed());
+        assertNotEquals(FileOperationStatus.ERROR, split.getResults().get(0).getResult().getStatus());
+        assertTrue(split.getResults().get(1).getResult().getDescription().contains("data.txt"));
+        assertEquals(FileOperationStatus.ERROR, verify.getStatus());
+    }
+}
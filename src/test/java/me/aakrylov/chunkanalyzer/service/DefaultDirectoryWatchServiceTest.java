@@ -0,0 +1,71 @@
+package me.aakrylov.chunkanalyzer.service;
+
+import me.aakrylov.chunkanalyzer.model.WatchStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DefaultDirectoryWatchServiceTest {
+
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    @TempDir
+    Path splitLocation;
+    private ExecutorService executor;
+    private DefaultDirectoryWatchService watchService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        executor = Executors.newFixedThreadPool(2);
+        DefaultFileService fileService = TestFileService.create(splitLocation, executor);
+        watchService = new DefaultDirectoryWatchService(fileService, "US-ASCII", 50);
+        watchService.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        watchService.stop();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void whenPartsLandAndDisappear_thenKeepResultUpToDate() throws Exception {
+        Path directory = Files.createDirectory(splitLocation.resolve("data_txt"));
+        Files.writeString(directory.resolve("data.txt.001"), "clean");
+
+        watchService.watch(directory, null);
+        awaitStatus(directory, status -> status.getResult().getChunkCount() == 1);
+        Files.write(directory.resolve("data.txt.002"), new byte[]{'a', 0, 'b'});
+        WatchStatus dirty = awaitStatus(directory, status -> status.getResult().getChunkCount() == 2);
+        Files.delete(directory.resolve("data.txt.002"));
+        WatchStatus clean = awaitStatus(directory, status -> status.getResult().getChunkCount() == 1);
+
+        assertEquals(1, dirty.getResult().getFindings().getTotalSymbols());
+        assertTrue(dirty.getResult().getDescription().contains("data.txt.002"));
+        assertEquals(0, clean.getResult().getFindings().getTotalSymbols());
+        assertNull(clean.getResult().getDescription());
+        assertTrue(watchService.unwatch(directory).isPresent());
+        assertTrue(watchService.status(directory).isEmpty());
+    }
+
+    private WatchStatus awaitStatus(Path directory, Predicate<WatchStatus> condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        WatchStatus status = watchService.status(directory).orElseThrow();
+        while (!(status.getPendingParts() == 0 && condition.test(status))) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out, last status: " + status);
+            TimeUnit.MILLISECONDS.sleep(20);
+            status = watchService.status(directory).orElseThrow();
+        }
+        return status;
+    }
+}
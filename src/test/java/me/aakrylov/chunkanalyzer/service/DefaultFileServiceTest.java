@@ -1,21 +1,50 @@
 package me.aakrylov.chunkanalyzer.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.aakrylov.chunkanalyzer.component.AnalysisCache;
+import me.aakrylov.chunkanalyzer.component.PartIndex;
 import me.aakrylov.chunkanalyzer.model.FileOperationResult;
+import me.aakrylov.chunkanalyzer.model.Finding;
 import me.aakrylov.chunkanalyzer.service.api.FileService;
+import me.aakrylov.chunkanalyzer.type.ContentCharset;
 import me.aakrylov.chunkanalyzer.type.FileOperationStatus;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockMultipartFile;
 
+import java.io.File;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @ExtendWith(MockitoExtension.class)
 class DefaultFileServiceTest {
 
-    private final FileService fileService = new DefaultFileService("C:\\splitFiles\\");
     private static final int DEFAULT_CHUNK_SIZE = 1024;
 
+    @TempDir
+    Path splitLocation;
+    private FileService fileService;
+
+    @BeforeEach
+    void setUp() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        fileService = TestFileService.create(splitLocation, executor,
+                new AnalysisCache(new ObjectMapper(), true, 1024 * 1024, false, ""));
+    }
+
     @Test
     void whenSplitFile_andFileIsEmpty_thenReturnNoContentResult() {
         MockMultipartFile mockFile = new MockMultipartFile(
@@ -30,4 +59,226 @@ class DefaultFileServiceTest {
         assertEquals(FileOperationStatus.NO_CONTENT, result.getStatus());
     }
 
-}
\ No newline at end of file
+    @Test
+    void whenSplitFile_thenPartsHaveReservedSizeAndAssembleBack() throws Exception {
+        byte[] content = new byte[2000];
+        new Random(3).nextBytes(content);
+        MockMultipartFile mockFile = new MockMultipartFile("file", "random.bin", "application/octet-stream", content);
+
+        FileOperationResult splitResult = fileService.split(mockFile, 1);
+        Path directory = splitLocation.resolve("random_bin");
+        FileOperationResult assembleResult = fileService.assemble(directory, true);
+
+        assertEquals(FileOperationStatus.SUCCESS, splitResult.getStatus());
+        assertEquals("File [random.bin] was split into 4 parts", splitResult.getDescription());
+        assertEquals(content.length, splitResult.getBytesProcessed());
+        assertNotNull(splitResult.getThroughput());
+        assertEquals(FileOperationStatus.SUCCESS, assembleResult.getStatus());
+        assertArrayEquals(content, Files.readAllBytes(splitLocation.resolve("random.bin")));
+    }
+
+    @Test
+    void whenVerify_andPartIsCorrupted_thenReturnErrorForThatPart() throws Exception {
+        byte[] content = new byte[2000];
+        new Random(5).nextBytes(content);
+        MockMultipartFile mockFile = new MockMultipartFile("file", "random.bin", "application/octet-stream", content);
+        fileService.split(mockFile, 1);
+        Path directory = splitLocation.resolve("random_bin");
+
+        FileOperationResult intactResult = fileService.verify(directory);
+        Path part = directory.resolve("random.bin.002");
+        byte[] partContent = Files.readAllBytes(part);
+        partContent[10] ^= 1;
+        Files.write(part, partContent);
+        FileOperationResult corruptedResult = fileService.verify(directory);
+
+        assertEquals(FileOperationStatus.SUCCESS, intactResult.getStatus());
+        assertEquals("All 4 parts of [random.bin] match the manifest", intactResult.getDescription());
+        assertEquals(FileOperationStatus.ERROR, corruptedResult.getStatus());
+        assertTrue(corruptedResult.getDescription().startsWith("Part [random.bin.002] has CRC32C"));
+    }
+
+    @Test
+    void whenSplitCompressed_thenAnalyzeAndAssembleReadPartsTransparently() throws Exception {
+        byte[] content = "plain text that compresses well\r\n".repeat(200).getBytes();
+        content[3000] = 0;
+        MockMultipartFile mockFile = new MockMultipartFile("file", "text.txt", "text/plain", content);
+
+        FileOperationResult splitResult = fileService.split(mockFile, 2, true);
+        Path directory = splitLocation.resolve("text_txt");
+        FileOperationResult verifyResult = fileService.verify(directory);
+        FileOperationResult analyzeResult = fileService.analyzeAll(directory);
+        FileOperationResult assembleResult = fileService.assemble(directory, false);
+
+        assertEquals(FileOperationStatus.SUCCESS, splitResult.getStatus());
+        assertTrue(Files.isRegularFile(directory.resolve("text.txt.001.gz")));
+        assertTrue(splitResult.getCompressionRatio() > 1);
+        assertTrue(splitResult.getStoredBytes() < content.length);
+        assertNotNull(splitResult.getCodecMillis());
+        assertEquals(FileOperationStatus.SUCCESS, verifyResult.getStatus());
+        assertEquals(content.length, analyzeResult.getBytesProcessed());
+        assertEquals(1, analyzeResult.getFindings().getTotalSymbols());
+        assertTrue(analyzeResult.getDescription().contains("text.txt.002.gz"));
+        assertEquals(splitResult.getStoredBytes(), analyzeResult.getStoredBytes());
+        assertEquals(FileOperationStatus.SUCCESS, assembleResult.getStatus());
+        assertArrayEquals(content, Files.readAllBytes(splitLocation.resolve("text.txt")));
+    }
+
+    @Test
+    void whenSplitStream_thenWritePartsAndReportFindings() throws Exception {
+        byte[] content = new byte[1500];
+        Arrays.fill(content, (byte) 'a');
+        content[700] = 0;
+        MockMultipartFile mockFile = new MockMultipartFile("file", "streamed.txt", "text/plain", content);
+
+        FileOperationResult result = fileService.split(mockFile.getInputStream(), "streamed.txt", 1, true);
+
+        Path directory = splitLocation.resolve("streamed_txt");
+        assertEquals(FileOperationStatus.SUCCESS, result.getStatus());
+        assertTrue(result.getDescription().startsWith("File [streamed.txt] was split into 3 parts"));
+        assertEquals(List.of(new Finding(700, 0, 1)), result.getFindings().getFindings());
+        assertEquals(624, Files.size(directory.resolve("streamed.txt.001")));
+        assertEquals(624, Files.size(directory.resolve("streamed.txt.002")));
+        assertEquals(252, Files.size(directory.resolve("streamed.txt.003")));
+    }
+
+    @Test
+    void whenSplit_andFileNameIsAPath_thenRejectItWithoutWritingOutside() throws Exception {
+        byte[] content = "escaping content".getBytes();
+        MockMultipartFile mockFile = new MockMultipartFile("file", "../escaped.txt", "text/plain", content);
+
+        FileOperationResult streamResult = fileService.split(mockFile.getInputStream(), "../../escaped.txt", 1, false);
+        FileOperationResult uploadResult = fileService.split(mockFile, 1);
+        FileOperationResult recipeResult = fileService.splitContentDefined(
+                new MockMultipartFile("file", "..", "text/plain", content));
+
+        assertEquals(FileOperationStatus.ERROR, streamResult.getStatus());
+        assertTrue(streamResult.getDescription().contains("Invalid file name [../../escaped.txt]"));
+        assertEquals(FileOperationStatus.ERROR, uploadResult.getStatus());
+        assertEquals(FileOperationStatus.ERROR, recipeResult.getStatus());
+        try (Stream<Path> siblings = Files.list(splitLocation.getParent())) {
+            assertTrue(siblings.noneMatch(path -> path.getFileName().toString().contains("escaped")));
+        }
+    }
+
+    @Test
+    void whenIndex_thenServeOnlySplitDirectoriesInsideSplitLocation(@TempDir Path outside) throws Exception {
+        byte[] content = "indexed content".getBytes();
+        fileService.split(new MockMultipartFile("file", "indexed.txt", "text/plain", content), 1);
+        Files.writeString(outside.resolve("syslog.1"), "server file");
+
+        PartIndex index = fileService.index(splitLocation.resolve("indexed_txt"));
+
+        assertEquals(content.length, index.getTotalSize());
+        assertThrows(AccessDeniedException.class, () -> fileService.index(outside));
+        Path climbing = splitLocation.resolve("indexed_txt").resolve("../..").resolve(outside.getFileName());
+        assertThrows(AccessDeniedException.class, () -> fileService.index(climbing));
+        assertThrows(NoSuchFileException.class, () -> fileService.index(splitLocation));
+    }
+
+    @Test
+    void whenAnalyzeFile_thenReportAbsoluteOffsetsAcrossWindows() {
+        byte[] content = "Some clean text that spans several analysis windows.".getBytes();
+        content[3] = 0;
+        content[16] = 1;
+        content[47] = (byte) 0xFF;
+        MockMultipartFile mockFile = new MockMultipartFile("file", "dirty.txt", "text/plain", content);
+
+        FileOperationResult result = fileService.analyze(mockFile);
+
+        assertEquals(FileOperationStatus.ANALYSIS_COMPLETE, result.getStatus());
+        assertEquals(List.of(new Finding(3, 0, 1), new Finding(16, 1, 1), new Finding(47, 0xFF, 1)),
+                result.getFindings().getFindings());
+        assertEquals(3, result.getFindings().getTotalSymbols());
+    }
+
+    @Test
+    void whenAnalyzeAll_thenReportChunksWithFindingsInPathOrder(@TempDir Path directory) throws Exception {
+        Files.write(directory.resolve("dirty.txt.002"), new byte[]{'b', 0});
+        Files.write(directory.resolve("dirty.txt.001"), "clean chunk of text that exceeds the in-flight budget".repeat(2).getBytes());
+        Files.write(directory.resolve("dirty.txt.003"), new byte[]{1, 'c'});
+
+        FileOperationResult result = fileService.analyzeAll(directory);
+
+        assertEquals(FileOperationStatus.SUCCESS, result.getStatus());
+        String description = result.getDescription();
+        assertNotNull(description);
+        assertFalse(description.contains("dirty.txt.001"));
+        assertTrue(description.contains("at index [1]"));
+        assertTrue(description.indexOf("dirty.txt.002") < description.indexOf("dirty.txt.003"));
+        assertEquals(3, result.getChunkCount());
+        assertEquals(2, result.getFindings().getTotalSymbols());
+    }
+
+    @Test
+    void whenAnalyzeAll_andChunksAreClean_thenReturnNoDescription(@TempDir Path directory) throws Exception {
+        Files.write(directory.resolve("clean.txt.001"), "clean".getBytes());
+
+        FileOperationResult result = fileService.analyzeAll(directory);
+
+        assertEquals(FileOperationStatus.SUCCESS, result.getStatus());
+        assertNull(result.getDescription());
+    }
+
+    @Test
+    void whenAnalyzeAllAsUtf8_andSymbolIsSplitBetweenParts_thenItIsNotReported(@TempDir Path directory) throws Exception {
+        Files.write(directory.resolve("text.txt.001"), new byte[]{'a', 'b', (byte) 0xE2, (byte) 0x82});
+        Files.write(directory.resolve("text.txt.002"), new byte[]{(byte) 0xAC, 'c', 'd', (byte) 0xFF});
+
+        FileOperationResult result = fileService.analyzeAll(directory, ContentCharset.UTF_8);
+
+        assertEquals(FileOperationStatus.SUCCESS, result.getStatus());
+        assertEquals(1, result.getFindings().getTotalSymbols());
+        assertFalse(result.getDescription().contains("text.txt.001"));
+        assertTrue(result.getDescription().contains("at index [3]"));
+    }
+
+    @Test
+    void whenAnalyzeAllAgain_thenTakeUnchangedChunksFromCache(@TempDir Path directory) throws Exception {
+        Files.write(directory.resolve("cached.txt.001"), "clean".getBytes());
+        Files.write(directory.resolve("cached.txt.002"), new byte[]{'b', 0});
+
+        FileOperationResult firstResult = fileService.analyzeAll(directory);
+        FileOperationResult secondResult = fileService.analyzeAll(directory);
+        Files.write(directory.resolve("cached.txt.001"), "changed".getBytes());
+        FileOperationResult thirdResult = fileService.analyzeAll(directory);
+
+        assertEquals(0, firstResult.getCacheHits());
+        assertEquals(2, firstResult.getCacheMisses());
+        assertEquals(2, secondResult.getCacheHits());
+        assertEquals(firstResult.getDescription(), secondResult.getDescription());
+        assertEquals(1, thirdResult.getCacheHits());
+        assertEquals(1, thirdResult.getCacheMisses());
+    }
+
+    @Test
+    void whenSplitContentDefined_andFileIsEdited_thenStoreOnlyNewChunks() throws Exception {
+        Random random = new Random(17);
+        byte[] original = new byte[8000];
+        for (int indx = 0; indx < original.length; indx++) {
+            original[indx] = (byte) ('a' + random.nextInt(26));
+        }
+        original[5000] = 0;
+        byte[] edited = new byte[original.length + 3];
+        System.arraycopy(original, 0, edited, 0, 100);
+        System.arraycopy("NEW".getBytes(), 0, edited, 100, 3);
+        System.arraycopy(original, 100, edited, 103, original.length - 100);
+
+        FileOperationResult firstResult = fileService.splitContentDefined(
+                new MockMultipartFile("file", "first.txt", "text/plain", original));
+        FileOperationResult secondResult = fileService.splitContentDefined(
+                new MockMultipartFile("file", "second.txt", "text/plain", edited));
+        FileOperationResult analyzeResult = fileService.analyzeAll(splitLocation.resolve("second_txt"));
+        FileOperationResult assembleResult = fileService.assemble(splitLocation.resolve("second_txt"), true);
+
+        assertEquals(FileOperationStatus.SUCCESS, firstResult.getStatus());
+        assertEquals(original.length, firstResult.getStoredBytes() + firstResult.getDedupBytes());
+        assertEquals(FileOperationStatus.SUCCESS, secondResult.getStatus());
+        assertTrue(secondResult.getDedupBytes() > edited.length / 2);
+        assertEquals(1, analyzeResult.getFindings().getTotalSymbols());
+        assertTrue(analyzeResult.getDescription().startsWith("Error in chunk ["));
+        assertEquals(FileOperationStatus.SUCCESS, assembleResult.getStatus());
+        assertArrayEquals(edited, Files.readAllBytes(splitLocation.resolve("second.txt")));
+        assertTrue(Files.isDirectory(splitLocation.resolve("chunk-store")));
+    }
+}
@@ -0,0 +1,210 @@
+package me.aakrylov.chunkanalyzer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.aakrylov.chunkanalyzer.component.BufferPool;
+import me.aakrylov.chunkanalyzer.component.ChunkManifestStore;
+import me.aakrylov.chunkanalyzer.component.ChunkVerifier;
+import me.aakrylov.chunkanalyzer.component.ContentAnalyzer;
+import me.aakrylov.chunkanalyzer.component.FindingsLog;
+import me.aakrylov.chunkanalyzer.component.SymbolClassifier;
+import me.aakrylov.chunkanalyzer.model.ChunkManifest;
+import me.aakrylov.chunkanalyzer.model.FileOperationResult;
+import me.aakrylov.chunkanalyzer.model.UploadStatus;
+import me.aakrylov.chunkanalyzer.service.api.UploadService;
+import me.aakrylov.chunkanalyzer.type.UploadState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DefaultUploadServiceTest {
+
+    @TempDir
+    Path splitLocation;
+    private ChunkManifestStore manifestStore;
+    private UploadService uploadService;
+
+    @BeforeEach
+    void setUp() {
+        manifestStore = new ChunkManifestStore(new ObjectMapper());
+        BufferPool bufferPool = new BufferPool(1024 * 1024, 0);
+        uploadService = new DefaultUploadService(splitLocation.toString() + File.separator, 100, "US-ASCII", 16, 60,
+                new ContentAnalyzer(new SymbolClassifier(), bufferPool, 16),
+                manifestStore,
+                new FindingsLog(false, 250, 1024),
+                bufferPool);
+    }
+
+    @Test
+    void whenPartsArriveOutOfOrderAndTwice_thenCompleteIntoSplitLayout() throws Exception {
+        byte[] content = "0123456789abcdefghijklmnopqrstuvwxy".getBytes();
+        UploadStatus created = uploadService.create("upload.txt", content.length, 10);
+
+        put(created.getId(), 4, content);
+        put(created.getId(), 2, content);
+        put(created.getId(), 2, content);
+        UploadStatus partial = uploadService.status(created.getId()).orElseThrow();
+        assertThrows(IllegalStateException.class, () -> uploadService.complete(created.getId()));
+        put(created.getId(), 1, content);
+        put(created.getId(), 3, content);
+        FileOperationResult result = uploadService.complete(created.getId()).orElseThrow();
+
+        Path directory = splitLocation.resolve("upload_txt");
+        ChunkManifest manifest = manifestStore.read(directory).orElseThrow();
+        assertEquals(4, created.getPartCount());
+        assertEquals(List.of(1, 3), partial.getMissingParts());
+        assertEquals(15, partial.getBytesReceived());
+        assertEquals("File [upload.txt] was uploaded in 4 parts", result.getDescription());
+        assertEquals(UploadState.COMPLETED, uploadService.status(created.getId()).orElseThrow().getState());
+        assertEquals(content.length, manifest.getTotalSize());
+        assertEquals("uvwxy", Files.readString(directory.resolve("upload.txt.004")));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertTrue(new ChunkVerifier(executor).verify(directory, manifest).isEmpty());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void whenSessionsOfSameFileOverlap_thenSplitDirectoryHoldsOnlyTheLastCompleted() throws Exception {
+        Path directory = Files.createDirectories(splitLocation.resolve("same_txt"));
+        Files.writeString(directory.resolve("same.txt.010"), "left over by an earlier split");
+        byte[] first = "first upload content".getBytes();
+        byte[] second = "second upload, longer content".getBytes();
+        UploadStatus firstUpload = uploadService.create("same.txt", first.length, 10);
+        UploadStatus secondUpload = uploadService.create("same.txt", second.length, 10);
+
+        put(firstUpload.getId(), 1, first);
+        put(secondUpload.getId(), 1, second);
+        put(secondUpload.getId(), 2, second);
+        put(firstUpload.getId(), 2, first);
+        put(secondUpload.getId(), 3, second);
+        uploadService.complete(firstUpload.getId()).orElseThrow();
+        uploadService.complete(secondUpload.getId()).orElseThrow();
+
+        ChunkManifest manifest = manifestStore.read(directory).orElseThrow();
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(4, files.count());
+        }
+        assertEquals(second.length, manifest.getTotalSize());
+        assertEquals("second upl", Files.readString(directory.resolve("same.txt.001")));
+        assertFalse(Files.exists(directory.resolve("same.txt.010")));
+    }
+
+    @Test
+    void whenAbortedWhilePartIsInFlight_thenLastPartDeletesSessionDirectory() throws Exception {
+        UploadStatus created = uploadService.create("aborted.txt", 20, 10);
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch aborted = new CountDownLatch(1);
+        InputStream slowPart = new SequenceInputStream(new ByteArrayInputStream(new byte[5]), new InputStream() {
+            private final InputStream rest = new ByteArrayInputStream(new byte[5]);
+
+            @Override
+            public int read() throws IOException {
+                reading.countDown();
+                try {
+                    aborted.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                return rest.read();
+            }
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> put = executor.submit(() -> uploadService.putPart(created.getId(), 1, slowPart, false, null));
+            reading.await();
+            uploadService.abort(created.getId());
+            aborted.countDown();
+            put.get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        try (Stream<Path> sessions = Files.list(splitLocation.resolve(".uploads"))) {
+            assertEquals(0, sessions.count());
+        }
+        assertFalse(Files.exists(splitLocation.resolve("aborted_txt")));
+    }
+
+    @Test
+    void whenSamePartIsPutConcurrently_thenManifestMatchesTheStoredPart() throws Exception {
+        UploadStatus created = uploadService.create("racy.txt", 10, 10);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> puts = new ArrayList<>();
+            for (int indx = 0; indx < 40; indx++) {
+                byte[] part = String.format("part %05d", indx).getBytes();
+                puts.add(executor.submit(() -> uploadService.putPart(created.getId(), 1,
+                        new ByteArrayInputStream(part), false, null)));
+            }
+            for (Future<?> put : puts) {
+                put.get();
+            }
+            uploadService.complete(created.getId()).orElseThrow();
+
+            Path directory = splitLocation.resolve("racy_txt");
+            ChunkManifest manifest = manifestStore.read(directory).orElseThrow();
+            assertTrue(new ChunkVerifier(executor).verify(directory, manifest).isEmpty());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void whenCreate_andFileNameIsNotPlain_thenRejectIt() {
+        for (String fileName : List.of("../escaped.txt", "a/b.txt", "a\\b.txt", "..", " ")) {
+            assertThrows(IllegalArgumentException.class, () -> uploadService.create(fileName, 20, 10), fileName);
+        }
+    }
+
+    @Test
+    void whenPartHasWrongSize_thenRejectItAndKeepItMissing() throws Exception {
+        UploadStatus created = uploadService.create("sized.txt", 20, 10);
+
+        assertThrows(IllegalArgumentException.class, () -> uploadService.putPart(created.getId(), 1,
+                new ByteArrayInputStream(new byte[9]), false, null));
+        assertThrows(IllegalArgumentException.class, () -> uploadService.putPart(created.getId(), 3,
+                new ByteArrayInputStream(new byte[10]), false, null));
+
+        assertEquals(List.of(1, 2), uploadService.status(created.getId()).orElseThrow().getMissingParts());
+        assertTrue(uploadService.putPart("unknown", 1, new ByteArrayInputStream(new byte[10]), false, null).isEmpty());
+    }
+
+    @Test
+    void whenAnalyzePart_thenReportFindingsAtFileOffsets() throws Exception {
+        byte[] content = "clean part".getBytes();
+        UploadStatus created = uploadService.create("dirty.txt", 30, 10);
+
+        content[4] = 0;
+        FileOperationResult result = uploadService.putPart(created.getId(), 3, new ByteArrayInputStream(content),
+                true, null).orElseThrow();
+
+        assertEquals(1, result.getFindings().getTotalSymbols());
+        assertEquals(24, result.getFindings().getFindings().get(0).getOffset());
+    }
+
+    private void put(String uploadId, int partIndex, byte[] content) throws Exception {
+        int from = (partIndex - 1) * 10;
+        byte[] part = Arrays.copyOfRange(content, from, Math.min(from + 10, content.length));
+        uploadService.putPart(uploadId, partIndex, new ByteArrayInputStream(part), false, null);
+    }
+}
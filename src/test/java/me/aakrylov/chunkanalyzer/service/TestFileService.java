@@ -0,0 +1,102 @@
+package me.aakrylov.chunkanalyzer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.aakrylov.chunkanalyzer.component.AnalysisCache;
+import me.aakrylov.chunkanalyzer.component.BufferPool;
+import me.aakrylov.chunkanalyzer.component.ChunkAssembler;
+import me.aakrylov.chunkanalyzer.component.ChunkManifestStore;
+import me.aakrylov.chunkanalyzer.component.ChunkSplitter;
+import me.aakrylov.chunkanalyzer.component.ChunkStore;
+import me.aakrylov.chunkanalyzer.component.ChunkVerifier;
+import me.aakrylov.chunkanalyzer.component.ContentAnalyzer;
+import me.aakrylov.chunkanalyzer.component.ContentDefinedSplitter;
+import me.aakrylov.chunkanalyzer.component.FindingsLog;
+import me.aakrylov.chunkanalyzer.component.GearChunker;
+import me.aakrylov.chunkanalyzer.component.ParallelContentAnalyzer;
+import me.aakrylov.chunkanalyzer.component.PartCodec;
+import me.aakrylov.chunkanalyzer.component.RangeReader;
+import me.aakrylov.chunkanalyzer.component.SymbolClassifier;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Wires a {@link DefaultFileService} the way the application context does, for the tests and the benchmarks.
+ * <p>
+ * The tests use small windows and chunks, so that short files span several windows, parts and segments;
+ * the benchmarks use the production defaults.
+ */
+public final class TestFileService {
+
+    private final ContentAnalyzer contentAnalyzer;
+    private final ParallelContentAnalyzer parallelContentAnalyzer;
+    private final DefaultFileService fileService;
+
+    private TestFileService(Path splitLocation, ExecutorService ioExecutor, ExecutorService analysisExecutor,
+                            BufferPool bufferPool, int windowSize, GearChunker gearChunker,
+                            ParallelContentAnalyzer parallelContentAnalyzer, int maxInFlightBytes, int findingsLimit,
+                            AnalysisCache analysisCache) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        PartCodec partCodec = new PartCodec(6, windowSize);
+        ChunkStore chunkStore = new ChunkStore(splitLocation.resolve("chunk-store").toString());
+        ChunkAssembler chunkAssembler = new ChunkAssembler(partCodec, bufferPool, ioExecutor, true);
+        ChunkManifestStore manifestStore = new ChunkManifestStore(objectMapper);
+        this.contentAnalyzer = new ContentAnalyzer(new SymbolClassifier(), bufferPool, windowSize);
+        this.parallelContentAnalyzer = parallelContentAnalyzer;
+        this.fileService = new DefaultFileService(splitLocation.toString() + File.separator,
+                maxInFlightBytes, findingsLimit, "US-ASCII", false,
+                contentAnalyzer,
+                parallelContentAnalyzer,
+                chunkAssembler,
+                new ChunkSplitter(contentAnalyzer, partCodec, bufferPool, ioExecutor, true, windowSize),
+                manifestStore,
+                new ChunkVerifier(ioExecutor),
+                partCodec,
+                new ContentDefinedSplitter(gearChunker, chunkStore, ioExecutor),
+                chunkStore,
+                new RangeReader(manifestStore, chunkStore, partCodec, bufferPool),
+                analysisCache,
+                new FindingsLog(false, 250, 1024),
+                analysisExecutor);
+    }
+
+    static DefaultFileService create(Path splitLocation, ExecutorService executor, AnalysisCache analysisCache) {
+        return new TestFileService(splitLocation, executor, executor,
+                new BufferPool(1024 * 1024, 0), 16, new GearChunker(64, 256, 1024),
+                new ParallelContentAnalyzer(new SymbolClassifier(), 4, 16, 65536), 64, 100,
+                analysisCache).fileService;
+    }
+
+    static DefaultFileService create(Path splitLocation, ExecutorService executor) {
+        return create(splitLocation, executor, disabledCache());
+    }
+
+    /**
+     * Wires the service with the defaults of application.properties and without the analysis cache.
+     */
+    public static TestFileService withDefaults(Path splitLocation, ExecutorService ioExecutor,
+                                               ExecutorService analysisExecutor, int windowSize, int findingsLimit) {
+        return new TestFileService(splitLocation, ioExecutor, analysisExecutor,
+                new BufferPool(64 * 1024 * 1024, 10_000), windowSize,
+                new GearChunker(16 * 1024, 64 * 1024, 256 * 1024),
+                new ParallelContentAnalyzer(new SymbolClassifier(), 0, 8 * 1024 * 1024, 65536),
+                256 * 1024 * 1024, findingsLimit, disabledCache());
+    }
+
+    public ContentAnalyzer getContentAnalyzer() {
+        return contentAnalyzer;
+    }
+
+    public ParallelContentAnalyzer getParallelContentAnalyzer() {
+        return parallelContentAnalyzer;
+    }
+
+    public DefaultFileService getFileService() {
+        return fileService;
+    }
+
+    private static AnalysisCache disabledCache() {
+        return new AnalysisCache(new ObjectMapper(), false, 0, false, "");
+    }
+}